@@ -0,0 +1,90 @@
+package org.magadiflo.mockito.app.benchmarks;
+
+import org.magadiflo.mockito.app.Datos;
+import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.repositories.IExamenRepository;
+import org.magadiflo.mockito.app.repositories.IPreguntasRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Catálogos de tamaño arbitrario para los benchmarks. Con 6 exámenes se usan
+ * directamente los datos de Datos, con más se completan con nombres sintéticos.
+ */
+final class CatalogoSintetico {
+
+    static final String NOMBRE_INEXISTENTE = "Examen que no existe";
+
+    private CatalogoSintetico() {
+    }
+
+    static List<Examen> examenes(int tamanio, boolean idsNulos) {
+        List<Examen> base = idsNulos ? Datos.EXAMENES_ID_NULL : Datos.EXAMENES;
+        List<Examen> examenes = new ArrayList<>(tamanio);
+        for (int i = 0; i < tamanio; i++) {
+            Long id = idsNulos ? null : i + 1L;
+            String nombre = i < base.size() ? base.get(i).getNombre() : "Examen " + (i + 1);
+            examenes.add(new Examen(id, nombre));
+        }
+        return examenes;
+    }
+
+    /**
+     * Nombre del último examen del catálogo: el peor caso para una búsqueda secuencial.
+     */
+    static String ultimoNombre(List<Examen> examenes) {
+        return examenes.get(examenes.size() - 1).getNombre();
+    }
+
+    static final class ExamenRepositoryEnMemoria implements IExamenRepository {
+
+        private final List<Examen> examenes;
+        private final AtomicLong secuencia;
+
+        ExamenRepositoryEnMemoria(List<Examen> examenes) {
+            this.examenes = examenes;
+            this.secuencia = new AtomicLong(examenes.size());
+        }
+
+        @Override
+        public List<Examen> findAll() {
+            return this.examenes;
+        }
+
+        /**
+         * No modifica el catálogo: devuelve el examen con su id o con uno nuevo si no tenía
+         */
+        @Override
+        public Examen guardar(Examen examen) {
+            Long id = examen.tieneId() ? examen.getId() : this.secuencia.incrementAndGet();
+            return new Examen(id, examen.getNombre());
+        }
+
+    }
+
+    static final class PreguntasRepositoryEnMemoria implements IPreguntasRepository {
+
+        @Override
+        public List<String> findPreguntasByExamenId(Long id) {
+            return Datos.PREGUNTAS;
+        }
+
+        @Override
+        public Map<Long, List<String>> findPreguntasByExamenIds(Collection<Long> ids) {
+            Map<Long, List<String>> preguntasPorExamen = new HashMap<>();
+            ids.forEach(id -> preguntasPorExamen.put(id, Datos.PREGUNTAS));
+            return preguntasPorExamen;
+        }
+
+        @Override
+        public void guardarVarias(List<String> preguntas) {
+        }
+
+    }
+
+}
@@ -0,0 +1,106 @@
+package org.magadiflo.mockito.app.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.magadiflo.mockito.app.Datos;
+import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.serializacion.ExamenCodec;
+import org.magadiflo.mockito.app.serializacion.PoolBuffers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara ExamenCodec contra JSON (Jackson) al codificar y decodificar un examen con sus preguntas.
+ * Los tamaños de cada formato se imprimen en el setUp.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExamenCodecBenchmark {
+
+    /**
+     * Forma del examen en JSON, Jackson no puede construir un Examen directamente
+     */
+    public record ExamenJson(Long id, String nombre, List<String> preguntas) {
+    }
+
+    @Param({"5", "100"})
+    int numeroPreguntas;
+
+    Examen examen;
+    byte[] binario;
+    byte[] json;
+    PoolBuffers pool;
+    ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<String> preguntas = new ArrayList<>(this.numeroPreguntas);
+        for (int i = 0; i < this.numeroPreguntas; i++) {
+            preguntas.add(Datos.PREGUNTAS.get(i % Datos.PREGUNTAS.size()) + " (" + i + ")");
+        }
+        this.examen = new Examen(123_456L, "Matemáticas avanzadas");
+        this.examen.setPreguntas(preguntas);
+        this.pool = new PoolBuffers(false, 16);
+        this.objectMapper = new ObjectMapper();
+        this.binario = ExamenCodec.codificar(this.examen);
+        this.json = this.objectMapper.writeValueAsBytes(aJson(this.examen));
+        System.out.printf("%nbinario: %d bytes, json: %d bytes%n", this.binario.length, this.json.length);
+    }
+
+    @Benchmark
+    public int codificarBinario() {
+        ByteBuffer buffer = ExamenCodec.codificar(this.examen, this.pool);
+        int tamanio = buffer.remaining();
+        this.pool.devolver(buffer);
+        return tamanio;
+    }
+
+    @Benchmark
+    public byte[] codificarJson() throws IOException {
+        return this.objectMapper.writeValueAsBytes(aJson(this.examen));
+    }
+
+    /**
+     * Solo id y nombre, las preguntas quedan sin decodificar
+     */
+    @Benchmark
+    public Examen decodificarBinarioSinPreguntas() {
+        return ExamenCodec.decodificarDiferido(ByteBuffer.wrap(this.binario));
+    }
+
+    @Benchmark
+    public List<String> decodificarBinario() {
+        return ExamenCodec.decodificar(this.binario).getPreguntas();
+    }
+
+    @Benchmark
+    public List<String> decodificarJson() throws IOException {
+        ExamenJson leido = this.objectMapper.readValue(this.json, ExamenJson.class);
+        Examen examen = new Examen(leido.id(), leido.nombre());
+        examen.setPreguntas(leido.preguntas());
+        return examen.getPreguntas();
+    }
+
+    private static ExamenJson aJson(Examen examen) {
+        return new ExamenJson(examen.getId(), examen.getNombre(), examen.getPreguntas());
+    }
+
+}
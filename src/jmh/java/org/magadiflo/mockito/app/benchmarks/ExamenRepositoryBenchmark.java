@@ -0,0 +1,61 @@
+package org.magadiflo.mockito.app.benchmarks;
+
+import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.models.Pagina;
+import org.magadiflo.mockito.app.repositories.IExamenRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara las formas de leer el catálogo del repositorio: recorrido completo de findAll(),
+ * recorrido con corte de streamAll() y lectura de la primera página con findPage(...).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class ExamenRepositoryBenchmark {
+
+    @Param({"6", "1000", "100000", "1000000"})
+    int tamanioCatalogo;
+
+    IExamenRepository examenRepository;
+    String nombre;
+
+    @Setup
+    public void setUp() {
+        this.examenRepository = new CatalogoSintetico.ExamenRepositoryEnMemoria(
+                CatalogoSintetico.examenes(this.tamanioCatalogo, false));
+        this.nombre = CatalogoSintetico.ultimoNombre(this.examenRepository.findAll());
+    }
+
+    @Benchmark
+    public Optional<Examen> findAllRecorridoCompleto() {
+        return this.examenRepository.findAll().stream().filter(examen -> examen.getNombre().equals(this.nombre)).findFirst();
+    }
+
+    @Benchmark
+    public Optional<Examen> streamAllPrimerElemento() {
+        return this.examenRepository.streamAll().findFirst();
+    }
+
+    @Benchmark
+    public Pagina<Examen> findPagePrimeraPagina() {
+        return this.examenRepository.findPage(0, 50);
+    }
+
+}
@@ -0,0 +1,93 @@
+package org.magadiflo.mockito.app.benchmarks;
+
+import org.magadiflo.mockito.app.Datos;
+import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.services.IExamenService;
+import org.magadiflo.mockito.app.services.impl.ExamenServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide findExamenByNombre, findExamenByNombreWithPreguntas y guardar
+ * para distintos tamaños de catálogo y tres escenarios:
+ * - ACIERTO: el nombre existe (el último del catálogo)
+ * - FALLO: el nombre no existe
+ * - ID_NULL: el nombre existe pero los exámenes tienen id null (como Datos.EXAMENES_ID_NULL)
+ * <p>
+ * guardar actualiza por turnos un conjunto acotado de exámenes (mismo id y nombre), así el índice
+ * por nombre no crece entre iteraciones y todas miden la misma operación.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class ExamenServiceBenchmark {
+
+    public enum Escenario {ACIERTO, FALLO, ID_NULL}
+
+    @Param({"6", "1000", "100000", "1000000"})
+    int tamanioCatalogo;
+
+    @Param({"ACIERTO", "FALLO", "ID_NULL"})
+    Escenario escenario;
+
+    /**
+     * Exámenes que se actualizan en guardar, potencia de dos para elegir el siguiente con una máscara
+     */
+    static final int EXAMENES_GUARDADOS = 1024;
+
+    IExamenService examenService;
+    String nombre;
+    String[] nombresGuardados;
+    int guardados;
+
+    @Setup
+    public void setUp() {
+        List<Examen> examenes = CatalogoSintetico.examenes(this.tamanioCatalogo, this.escenario == Escenario.ID_NULL);
+        this.examenService = new ExamenServiceImpl(new CatalogoSintetico.ExamenRepositoryEnMemoria(examenes),
+                new CatalogoSintetico.PreguntasRepositoryEnMemoria());
+        this.nombre = this.escenario == Escenario.FALLO
+                ? CatalogoSintetico.NOMBRE_INEXISTENTE
+                : CatalogoSintetico.ultimoNombre(examenes);
+        this.nombresGuardados = new String[EXAMENES_GUARDADOS];
+        for (int i = 0; i < EXAMENES_GUARDADOS; i++) {
+            this.nombresGuardados[i] = examenes.get(i % examenes.size()).getNombre();
+        }
+        // La primera búsqueda construye el índice por nombre, no queremos medir eso
+        this.examenService.findExamenByNombre(this.nombre);
+    }
+
+    @Benchmark
+    public Optional<Examen> findExamenByNombre() {
+        return this.examenService.findExamenByNombre(this.nombre);
+    }
+
+    @Benchmark
+    public Examen findExamenByNombreWithPreguntas() {
+        return this.examenService.findExamenByNombreWithPreguntas(this.nombre);
+    }
+
+    @Benchmark
+    public Examen guardar() {
+        int i = this.guardados++ & (EXAMENES_GUARDADOS - 1);
+        Examen examen = new Examen(i + 1L, this.nombresGuardados[i]);
+        examen.setPreguntas(Datos.PREGUNTAS);
+        return this.examenService.guardar(examen);
+    }
+
+}
@@ -0,0 +1,116 @@
+package org.magadiflo.mockito.app.benchmarks;
+
+import org.magadiflo.mockito.app.carga.ConfiguracionCarga;
+import org.magadiflo.mockito.app.carga.GeneradorCarga;
+import org.magadiflo.mockito.app.carga.ResultadoCarga;
+import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.repositories.IExamenRepository;
+import org.magadiflo.mockito.app.repositories.IPreguntasRepository;
+import org.magadiflo.mockito.app.repositories.impl.ExamenRepositoryArchivoImpl;
+import org.magadiflo.mockito.app.repositories.impl.ExamenRepositoryConcurrenteImpl;
+import org.magadiflo.mockito.app.repositories.impl.ExamenRepositoryParticionadoImpl;
+import org.magadiflo.mockito.app.repositories.impl.ExamenRepositorySnapshotImpl;
+import org.magadiflo.mockito.app.repositories.impl.PreguntaRepositoryImpl;
+import org.magadiflo.mockito.app.services.impl.ExamenServiceImpl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prueba de carga de ExamenServiceImpl sobre el repositorio elegido, con GeneradorCarga.
+ * Ejecutar con: mvn -P benchmark compile exec:exec@carga -Dcarga.args="repositorio=particionado modelo=abierto tasa=50000"
+ * <pre>
+ * repositorio  concurrente | particionado | snapshot | archivo   (concurrente)
+ * catalogo     exámenes sintéticos guardados antes de empezar       (100000)
+ * modelo       cerrado | abierto                                     (cerrado)
+ * usuarios     hilos que envían operaciones                          (procesadores)
+ * tasa         operaciones por segundo del modelo abierto
+ * mezcla       pesos buscar/buscarConPreguntas/guardar               (60/30/10)
+ * zipf         exponente de popularidad de los nombres               (0.99)
+ * inexistentes fracción de búsquedas que fallan                      (0)
+ * duracion, calentamiento, pensamiento, intervalo: 10s, 500ms, 200us  (10s, 2s, 0, 0)
+ * </pre>
+ */
+public final class PruebaCarga {
+
+    private PruebaCarga() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opciones = new HashMap<>();
+        for (String argumento : args) {
+            int igual = argumento.indexOf('=');
+            if (igual <= 0) {
+                throw new IllegalArgumentException("Se esperaba clave=valor: " + argumento);
+            }
+            opciones.put(argumento.substring(0, igual), argumento.substring(igual + 1));
+        }
+
+        String repositorio = opciones.getOrDefault("repositorio", "concurrente");
+        Path directorio = Files.createTempDirectory("prueba-carga");
+        IExamenRepository examenRepository = crearRepositorio(repositorio, directorio);
+        IPreguntasRepository preguntasRepository = examenRepository instanceof IPreguntasRepository propio
+                ? propio
+                : new PreguntaRepositoryImpl();
+        ExamenServiceImpl examenService = new ExamenServiceImpl(examenRepository, preguntasRepository);
+
+        List<Examen> catalogo = GeneradorCarga.catalogoSintetico(Integer.parseInt(opciones.getOrDefault("catalogo", "100000")));
+        examenService.guardarTodos(catalogo);
+        List<String> nombres = catalogo.stream().map(Examen::getNombre).toList();
+
+        ConfiguracionCarga.Builder builder = ConfiguracionCarga.builder();
+        int usuarios = Integer.parseInt(opciones.getOrDefault("usuarios",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        if ("abierto".equals(opciones.get("modelo"))) {
+            builder.abierto(Double.parseDouble(opciones.getOrDefault("tasa", "0")), usuarios);
+        } else {
+            builder.cerrado(usuarios);
+        }
+        String[] mezcla = opciones.getOrDefault("mezcla", "60/30/10").split("/");
+        builder.mezcla(Double.parseDouble(mezcla[0]), Double.parseDouble(mezcla[1]), Double.parseDouble(mezcla[2]))
+                .exponenteZipf(Double.parseDouble(opciones.getOrDefault("zipf", "0.99")))
+                .proporcionInexistentes(Double.parseDouble(opciones.getOrDefault("inexistentes", "0")))
+                .duracion(duracion(opciones.getOrDefault("duracion", "10s")))
+                .calentamiento(duracion(opciones.getOrDefault("calentamiento", "2s")))
+                .tiempoPensamiento(duracion(opciones.getOrDefault("pensamiento", "0s")))
+                .intervaloEsperado(duracion(opciones.getOrDefault("intervalo", "0s")));
+
+        ResultadoCarga resultado = new GeneradorCarga(examenService, nombres, builder.build()).ejecutar();
+        System.out.println("repositorio=" + repositorio + " catalogo=" + catalogo.size());
+        System.out.print(resultado.resumen());
+
+        if (examenRepository instanceof AutoCloseable cerrable) {
+            cerrable.close();
+        }
+    }
+
+    private static IExamenRepository crearRepositorio(String nombre, Path directorio) throws IOException {
+        return switch (nombre) {
+            case "concurrente" -> new ExamenRepositoryConcurrenteImpl();
+            case "particionado" -> new ExamenRepositoryParticionadoImpl(Runtime.getRuntime().availableProcessors(),
+                    particion -> new ExamenRepositoryConcurrenteImpl());
+            case "snapshot" -> new ExamenRepositorySnapshotImpl(directorio.resolve("catalogo.snapshot"));
+            case "archivo" -> new ExamenRepositoryArchivoImpl(directorio.resolve("examenes.log"), false);
+            default -> throw new IllegalArgumentException("Repositorio desconocido: " + nombre);
+        };
+    }
+
+    private static Duration duracion(String texto) {
+        if (texto.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(texto.substring(0, texto.length() - 2)));
+        }
+        if (texto.endsWith("us")) {
+            return Duration.ofNanos(Long.parseLong(texto.substring(0, texto.length() - 2)) * 1_000);
+        }
+        if (texto.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(texto.substring(0, texto.length() - 1)));
+        }
+        throw new IllegalArgumentException("Duración sin unidad (s, ms, us): " + texto);
+    }
+
+}
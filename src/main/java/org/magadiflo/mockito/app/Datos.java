@@ -1,6 +1,7 @@
 package org.magadiflo.mockito.app;
 
 import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.models.Preguntas;
 
 import java.util.Arrays;
 import java.util.List;
@@ -32,7 +33,7 @@ public class Datos {
             new Examen(null, "Religión")
     );
 
-    public static final List<String> PREGUNTAS = Arrays.asList("aritmética", "integrales", "derivadas", "trigonometría", "geometría", "álgebra");
+    public static final List<String> PREGUNTAS = Preguntas.internadas(Arrays.asList("aritmética", "integrales", "derivadas", "trigonometría", "geometría", "álgebra"));
 
     public static final Examen EXAMEN = new Examen(null, "Física");
 
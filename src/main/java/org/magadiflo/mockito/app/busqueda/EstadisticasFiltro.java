@@ -0,0 +1,22 @@
+package org.magadiflo.mockito.app.busqueda;
+
+/**
+ * Foto de los contadores de un filtro de nombres en un momento dado.
+ *
+ * @param consultas                  búsquedas que pasaron por el filtro
+ * @param descartados                búsquedas que el filtro respondió sin consultar al servicio
+ * @param falsosPositivos            búsquedas que el filtro dejó pasar y no encontraron el examen
+ * @param tasaFalsosPositivosEstimada según los bits encendidos del filtro
+ */
+public record EstadisticasFiltro(long consultas, long descartados, long falsosPositivos, long elementos,
+                                 double tasaFalsosPositivosEstimada) {
+
+    /**
+     * Falsos positivos sobre las búsquedas de nombres inexistentes
+     */
+    public double tasaFalsosPositivosObservada() {
+        long inexistentes = this.descartados + this.falsosPositivos;
+        return inexistentes == 0 ? 0.0 : (double) this.falsosPositivos / inexistentes;
+    }
+
+}
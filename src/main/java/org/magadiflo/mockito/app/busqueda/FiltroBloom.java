@@ -0,0 +1,123 @@
+package org.magadiflo.mockito.app.busqueda;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filtro de Bloom sobre textos: responde "seguro que no está" o "puede estar" en tiempo constante
+ * y con pocos bits por elemento. No tiene falsos negativos, la tasa de falsos positivos se fija al
+ * crearlo para un número esperado de elementos y crece si se agregan más.
+ * <p>
+ * Seguro entre hilos sin locks: los bits se encienden con operaciones atómicas y nunca se apagan.
+ */
+public class FiltroBloom {
+
+    private final AtomicLongArray bits;
+    private final long numeroBits;
+    private final int numeroHashes;
+    private final long capacidad;
+    private final LongAdder elementos = new LongAdder();
+
+    /**
+     * @param elementosEsperados   cantidad de elementos para la que se garantiza la tasa pedida
+     * @param tasaFalsosPositivos  entre 0 y 1, por ejemplo 0.01 para un 1 %
+     */
+    public FiltroBloom(long elementosEsperados, double tasaFalsosPositivos) {
+        if (elementosEsperados <= 0 || tasaFalsosPositivos <= 0 || tasaFalsosPositivos >= 1) {
+            throw new IllegalArgumentException("elementosEsperados debe ser mayor a cero y la tasa estar entre 0 y 1");
+        }
+        double ln2 = Math.log(2);
+        long bitsOptimos = (long) Math.ceil(-elementosEsperados * Math.log(tasaFalsosPositivos) / (ln2 * ln2));
+        int palabras = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bitsOptimos + 63) / 64));
+        this.bits = new AtomicLongArray(palabras);
+        this.numeroBits = palabras * 64L;
+        this.numeroHashes = (int) Math.max(1, Math.round((double) this.numeroBits / elementosEsperados * ln2));
+        this.capacidad = elementosEsperados;
+    }
+
+    public void agregar(String valor) {
+        long hash = hash(valor);
+        long h1 = mezclar(hash);
+        long h2 = mezclar(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < this.numeroHashes; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, this.numeroBits);
+            int palabra = (int) (bit >>> 6);
+            long mascara = 1L << bit;
+            long actual = this.bits.get(palabra);
+            while ((actual & mascara) == 0 && !this.bits.weakCompareAndSetVolatile(palabra, actual, actual | mascara)) {
+                actual = this.bits.get(palabra);
+            }
+        }
+        this.elementos.increment();
+    }
+
+    /**
+     * @return false si el valor seguro no se agregó, true si puede haberse agregado
+     */
+    public boolean puedeContener(String valor) {
+        long hash = hash(valor);
+        long h1 = mezclar(hash);
+        long h2 = mezclar(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < this.numeroHashes; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, this.numeroBits);
+            if ((this.bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Veces que se llamó a agregar(...), incluye valores repetidos
+     */
+    public long elementos() {
+        return this.elementos.sum();
+    }
+
+    public long capacidad() {
+        return this.capacidad;
+    }
+
+    public long numeroBits() {
+        return this.numeroBits;
+    }
+
+    public int numeroHashes() {
+        return this.numeroHashes;
+    }
+
+    /**
+     * Tasa de falsos positivos esperada con los bits encendidos hasta ahora: (bits encendidos / total) ^ hashes
+     */
+    public double tasaFalsosPositivosEstimada() {
+        long encendidos = 0;
+        for (int i = 0; i < this.bits.length(); i++) {
+            encendidos += Long.bitCount(this.bits.get(i));
+        }
+        return Math.pow((double) encendidos / this.numeroBits, this.numeroHashes);
+    }
+
+    /**
+     * FNV-1a de 64 bits sobre los caracteres, String.hashCode() tiene solo 32 bits
+     */
+    private static long hash(String valor) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < valor.length(); i++) {
+            hash ^= valor.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Paso final de MurmurHash3 para repartir los bits del hash
+     */
+    private static long mezclar(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        return hash ^ (hash >>> 33);
+    }
+
+}
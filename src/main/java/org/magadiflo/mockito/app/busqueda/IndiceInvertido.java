@@ -0,0 +1,147 @@
+package org.magadiflo.mockito.app.busqueda;
+
+import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.models.ExamenValor;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido sobre el nombre y las preguntas de los exámenes.
+ * <p>
+ * Cada término apunta a los exámenes que lo contienen con una frecuencia ponderada
+ * (un término del nombre pesa más que uno de las preguntas). Cada término de la consulta
+ * se trata además como prefijo de todos los términos indexados, así "matem" encuentra "Matemáticas"
+ * y "integ" encuentra la pregunta "integrales". Los resultados se ordenan por un puntaje tipo TF-IDF.
+ * <p>
+ * Seguro para hilos: varias búsquedas en paralelo, las actualizaciones son exclusivas.
+ * Los exámenes sin id no se indexan porque no podrían actualizarse después. El índice guarda un
+ * ExamenValor de cada examen y cada resultado lleva su propia copia mutable.
+ */
+public class IndiceInvertido {
+
+    private static final int PESO_NOMBRE = 3;
+    private static final int PESO_PREGUNTA = 1;
+    private static final double FACTOR_PREFIJO = 0.5;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Documento> documentos = new HashMap<>();
+    private final TrieTerminos trie = new TrieTerminos();
+
+    /**
+     * Agrega el examen al índice o reemplaza su versión anterior si ya estaba indexado.
+     */
+    public void indexar(Examen examen) {
+        if (examen == null || !examen.tieneId()) {
+            return;
+        }
+        Map<String, Integer> frecuencias = new HashMap<>();
+        Tokenizador.tokenizar(examen.getNombre()).forEach(termino -> frecuencias.merge(termino, PESO_NOMBRE, Integer::sum));
+        examen.getPreguntas().forEach(pregunta -> Tokenizador.tokenizar(pregunta)
+                .forEach(termino -> frecuencias.merge(termino, PESO_PREGUNTA, Integer::sum)));
+
+        Long id = examen.getId();
+        this.lock.writeLock().lock();
+        try {
+            this.quitar(id);
+            frecuencias.forEach((termino, frecuencia) -> this.trie.agregar(termino, id, frecuencia));
+            this.documentos.put(id, new Documento(examen.aValor(), frecuencias));
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    public void eliminar(Long id) {
+        this.lock.writeLock().lock();
+        try {
+            this.quitar(id);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return exámenes que contienen todos los términos de la consulta, del más al menos relevante
+     */
+    public List<ResultadoBusqueda> buscar(String consulta, int limite) {
+        List<String> terminosConsulta = Tokenizador.tokenizar(consulta);
+        if (terminosConsulta.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+        this.lock.readLock().lock();
+        try {
+            Map<Long, Double> puntajes = null;
+            for (String terminoConsulta : terminosConsulta) {
+                Map<Long, Double> puntajesTermino = this.puntuar(terminoConsulta);
+                if (puntajes == null) {
+                    puntajes = puntajesTermino;
+                } else {
+                    puntajes.keySet().retainAll(puntajesTermino.keySet());
+                    puntajes.replaceAll((id, puntaje) -> puntaje + puntajesTermino.get(id));
+                }
+                if (puntajes.isEmpty()) {
+                    return List.of();
+                }
+            }
+            List<ResultadoBusqueda> resultados = new ArrayList<>(puntajes.size());
+            puntajes.forEach((id, puntaje) -> resultados.add(new ResultadoBusqueda(this.documentos.get(id).examen.aExamen(), puntaje)));
+            resultados.sort(Comparator.comparingDouble(ResultadoBusqueda::puntaje).reversed()
+                    .thenComparingLong(resultado -> resultado.examen().getIdPrimitivo()));
+            return resultados.size() > limite ? new ArrayList<>(resultados.subList(0, limite)) : resultados;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return hasta limite términos indexados que empiezan con el prefijo, los que están en más exámenes primero
+     */
+    public List<String> autocompletar(String prefijo, int limite) {
+        if (prefijo == null || prefijo.isBlank()) {
+            return List.of();
+        }
+        String normalizado = Tokenizador.normalizar(prefijo.strip());
+        this.lock.readLock().lock();
+        try {
+            return this.trie.conPrefijo(normalizado, limite);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    public int numeroExamenes() {
+        this.lock.readLock().lock();
+        try {
+            return this.documentos.size();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Double> puntuar(String terminoConsulta) {
+        Map<Long, Double> puntajes = new HashMap<>();
+        this.trie.recorrerConPrefijo(terminoConsulta, (termino, examenes) -> {
+            double idf = Math.log(1.0 + (double) this.documentos.size() / examenes.size());
+            double factor = termino.equals(terminoConsulta) ? 1.0 : FACTOR_PREFIJO;
+            examenes.forEach((id, frecuencia) -> puntajes.merge(id, idf * frecuencia * factor, Math::max));
+        });
+        return puntajes;
+    }
+
+    private void quitar(Long id) {
+        Documento anterior = this.documentos.remove(id);
+        if (anterior == null) {
+            return;
+        }
+        anterior.frecuencias.keySet().forEach(termino -> this.trie.quitar(termino, id));
+    }
+
+    private record Documento(ExamenValor examen, Map<String, Integer> frecuencias) {
+    }
+
+}
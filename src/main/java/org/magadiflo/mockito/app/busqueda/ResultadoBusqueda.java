@@ -0,0 +1,6 @@
+package org.magadiflo.mockito.app.busqueda;
+
+import org.magadiflo.mockito.app.models.Examen;
+
+public record ResultadoBusqueda(Examen examen, double puntaje) {
+}
@@ -0,0 +1,45 @@
+package org.magadiflo.mockito.app.busqueda;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Convierte texto en términos de búsqueda: normaliza Unicode, quita tildes, pasa a minúsculas
+ * y separa por cualquier carácter que no sea letra o dígito.
+ * "Trigonometría Básica" -> [trigonometria, basica]
+ */
+public final class Tokenizador {
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+
+    private Tokenizador() {
+    }
+
+    public static String normalizar(String texto) {
+        String sinTildes = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return sinTildes.toLowerCase(Locale.ROOT);
+    }
+
+    public static List<String> tokenizar(String texto) {
+        List<String> terminos = new ArrayList<>();
+        if (texto == null) {
+            return terminos;
+        }
+        String normalizado = normalizar(texto);
+        int inicio = -1;
+        for (int i = 0; i <= normalizado.length(); i++) {
+            boolean esParteDeTermino = i < normalizado.length() && Character.isLetterOrDigit(normalizado.charAt(i));
+            if (esParteDeTermino && inicio < 0) {
+                inicio = i;
+            } else if (!esParteDeTermino && inicio >= 0) {
+                terminos.add(normalizado.substring(inicio, i));
+                inicio = -1;
+            }
+        }
+        return terminos;
+    }
+
+}
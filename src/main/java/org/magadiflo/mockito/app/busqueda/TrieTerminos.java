@@ -0,0 +1,142 @@
+package org.magadiflo.mockito.app.busqueda;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.BiConsumer;
+
+/**
+ * Trie de términos con la lista de exámenes (postings) de cada término en su nodo, así las búsquedas
+ * por prefijo recorren el subárbol sin armar cadenas ni consultar otro mapa. Los nodos que se quedan
+ * sin términos debajo se podan al quitar el último examen. No es seguro para hilos, lo protege IndiceInvertido.
+ */
+class TrieTerminos {
+
+    private final Nodo raiz = new Nodo();
+
+    /**
+     * Registra que el examen contiene el término, con su frecuencia ponderada
+     */
+    void agregar(String termino, Long id, int frecuencia) {
+        Nodo nodo = this.raiz;
+        for (int i = 0; i < termino.length(); i++) {
+            nodo = nodo.hijos.computeIfAbsent(termino.charAt(i), c -> new Nodo());
+        }
+        if (nodo.termino == null) {
+            nodo.termino = termino;
+            nodo.examenes = new HashMap<>(4);
+        }
+        nodo.examenes.put(id, frecuencia);
+    }
+
+    /**
+     * Quita el examen del término; si el término se queda sin exámenes se podan los nodos vacíos
+     */
+    void quitar(String termino, Long id) {
+        Nodo[] camino = new Nodo[termino.length() + 1];
+        camino[0] = this.raiz;
+        for (int i = 0; i < termino.length(); i++) {
+            camino[i + 1] = camino[i].hijos.get(termino.charAt(i));
+            if (camino[i + 1] == null) {
+                return;
+            }
+        }
+        Nodo nodo = camino[termino.length()];
+        if (nodo.examenes == null || nodo.examenes.remove(id) == null || !nodo.examenes.isEmpty()) {
+            return;
+        }
+        nodo.termino = null;
+        nodo.examenes = null;
+        for (int i = termino.length(); i > 0 && camino[i].vacio(); i--) {
+            camino[i - 1].hijos.remove(termino.charAt(i - 1));
+        }
+    }
+
+    /**
+     * Entrega cada término que empieza con el prefijo (incluido el propio prefijo) con sus exámenes,
+     * todos sin límite. Los mapas entregados no se deben modificar.
+     */
+    void recorrerConPrefijo(String prefijo, BiConsumer<String, Map<Long, Integer>> accion) {
+        Nodo inicio = this.buscarNodo(prefijo);
+        if (inicio == null) {
+            return;
+        }
+        Deque<Nodo> pendientes = new ArrayDeque<>();
+        pendientes.push(inicio);
+        while (!pendientes.isEmpty()) {
+            Nodo nodo = pendientes.pop();
+            if (nodo.termino != null) {
+                accion.accept(nodo.termino, nodo.examenes);
+            }
+            nodo.hijos.values().forEach(pendientes::push);
+        }
+    }
+
+    /**
+     * Los limite términos más comunes que empiezan con el prefijo, ordenados por número de exámenes
+     * descendente y luego alfabéticamente.
+     */
+    List<String> conPrefijo(String prefijo, int limite) {
+        if (limite <= 0) {
+            return List.of();
+        }
+        Comparator<Sugerencia> peorPrimero = Comparator.comparingInt(Sugerencia::frecuencia)
+                .thenComparing(Sugerencia::termino, Comparator.reverseOrder());
+        PriorityQueue<Sugerencia> mejores = new PriorityQueue<>(peorPrimero);
+        this.recorrerConPrefijo(prefijo, (termino, examenes) -> {
+            mejores.offer(new Sugerencia(termino, examenes.size()));
+            if (mejores.size() > limite) {
+                mejores.poll();
+            }
+        });
+        List<String> terminos = new ArrayList<>(mejores.size());
+        while (!mejores.isEmpty()) {
+            terminos.add(0, mejores.poll().termino());
+        }
+        return terminos;
+    }
+
+    /**
+     * Nodos del trie sin contar la raíz
+     */
+    int numeroNodos() {
+        int nodos = -1;
+        Deque<Nodo> pendientes = new ArrayDeque<>();
+        pendientes.push(this.raiz);
+        while (!pendientes.isEmpty()) {
+            nodos++;
+            pendientes.pop().hijos.values().forEach(pendientes::push);
+        }
+        return nodos;
+    }
+
+    private Nodo buscarNodo(String termino) {
+        Nodo nodo = this.raiz;
+        for (int i = 0; i < termino.length() && nodo != null; i++) {
+            nodo = nodo.hijos.get(termino.charAt(i));
+        }
+        return nodo;
+    }
+
+    private static final class Nodo {
+        private final Map<Character, Nodo> hijos = new HashMap<>(4);
+        /**
+         * El término que termina en este nodo y sus exámenes, null si ningún término termina aquí
+         */
+        private String termino;
+        private Map<Long, Integer> examenes;
+
+        private boolean vacio() {
+            return this.termino == null && this.hijos.isEmpty();
+        }
+    }
+
+    private record Sugerencia(String termino, int frecuencia) {
+    }
+
+}
@@ -0,0 +1,227 @@
+package org.magadiflo.mockito.app.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Cache en memoria de tamaño acotado con tiempo de vida (TTL) por entrada.
+ * Por defecto cada entrada pesa 1 y se desaloja la usada hace más tiempo (LRU), también se puede
+ * desalojar por frecuencia de uso (LFU) y pesar cada valor, por ejemplo por su número de elementos.
+ * Los valores null que devuelva el cargador no se almacenan.
+ */
+public class CacheLocal<K, V> {
+
+    private final long pesoMaximo;
+    private final ToIntFunction<? super V> pesador;
+    private final long ttlNanos;
+    private final LongSupplier reloj;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<K, Entrada<V>> entradas = new HashMap<>();
+    private final OrdenDesalojo<K> orden;
+    private final BiConsumer<? super K, ? super V> alQuitar;
+    private long pesoTotal;
+    /**
+     * Cambia con cada invalidación: una carga que empezó antes no guarda su resultado, podría estar desactualizado
+     */
+    private long version;
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder desalojos = new LongAdder();
+    private final LongAdder expirados = new LongAdder();
+
+    public CacheLocal(int tamanioMaximo, long ttl, TimeUnit unidad) {
+        this(tamanioMaximo, ttl, unidad, System::nanoTime);
+    }
+
+    /**
+     * @param reloj fuente de tiempo en nanosegundos, se puede reemplazar en las pruebas
+     */
+    public CacheLocal(int tamanioMaximo, long ttl, TimeUnit unidad, LongSupplier reloj) {
+        this(PoliticaDesalojo.LRU, tamanioMaximo, valor -> 1, ttl, unidad, reloj);
+    }
+
+    /**
+     * @param pesoMaximo suma máxima de los pesos de las entradas
+     * @param pesador    peso de cada valor (mayor a cero), un valor más pesado que pesoMaximo no se almacena
+     */
+    public CacheLocal(PoliticaDesalojo politica, long pesoMaximo, ToIntFunction<? super V> pesador,
+                      long ttl, TimeUnit unidad, LongSupplier reloj) {
+        this(politica, pesoMaximo, pesador, ttl, unidad, reloj, (clave, valor) -> {
+        });
+    }
+
+    /**
+     * @param alQuitar se llama cada vez que un valor deja la cache (desalojo, expiración, invalidación
+     *                 o reemplazo por otro valor), con el lock de la cache tomado: debe ser rápido y no usarla
+     */
+    public CacheLocal(PoliticaDesalojo politica, long pesoMaximo, ToIntFunction<? super V> pesador,
+                      long ttl, TimeUnit unidad, LongSupplier reloj, BiConsumer<? super K, ? super V> alQuitar) {
+        if (pesoMaximo <= 0) {
+            throw new IllegalArgumentException("tamanioMaximo debe ser mayor a cero");
+        }
+        this.pesoMaximo = pesoMaximo;
+        this.pesador = pesador;
+        this.ttlNanos = unidad.toNanos(ttl);
+        this.reloj = reloj;
+        this.orden = politica.crearOrden();
+        this.alQuitar = alQuitar;
+    }
+
+    /**
+     * Devuelve el valor de la cache o lo obtiene con el cargador. El cargador se ejecuta
+     * fuera del lock, así una carga lenta no bloquea al resto de lecturas. Si mientras carga
+     * se invalida la cache, el valor cargado se devuelve pero no se guarda.
+     */
+    public V obtener(K clave, Function<? super K, ? extends V> cargador) {
+        V valor = this.buscar(clave);
+        if (valor != null) {
+            return valor;
+        }
+        long versionLeida = this.version();
+        valor = cargador.apply(clave);
+        if (valor != null) {
+            this.ponerSiVigente(clave, valor, versionLeida);
+        }
+        return valor;
+    }
+
+    /**
+     * Versión actual, para leerla antes de una carga hecha fuera de la cache y pasarla a ponerSiVigente(...)
+     */
+    public long version() {
+        this.lock.lock();
+        try {
+            return this.version;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Igual que poner(...) pero solo si no hubo invalidaciones desde que se leyó versionLeida.
+     *
+     * @return false si el valor no se guardó porque podría estar desactualizado
+     */
+    public boolean ponerSiVigente(K clave, V valor, long versionLeida) {
+        this.lock.lock();
+        try {
+            if (this.version != versionLeida) {
+                return false;
+            }
+            this.poner(clave, valor);
+            return true;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * @return el valor vigente o null si no existe o ha expirado
+     */
+    public V buscar(K clave) {
+        this.lock.lock();
+        try {
+            Entrada<V> entrada = this.entradas.get(clave);
+            if (entrada != null && entrada.expiraEn - this.reloj.getAsLong() <= 0) {
+                this.quitar(clave);
+                this.expirados.increment();
+                entrada = null;
+            }
+            if (entrada == null) {
+                this.fallos.increment();
+                return null;
+            }
+            this.orden.acceder(clave);
+            this.aciertos.increment();
+            return entrada.valor;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    public void poner(K clave, V valor) {
+        this.lock.lock();
+        try {
+            int peso = this.pesador.applyAsInt(valor);
+            if (peso > this.pesoMaximo) {
+                this.quitar(clave);
+                return;
+            }
+            Entrada<V> anterior = this.entradas.put(clave, new Entrada<>(valor, peso, this.reloj.getAsLong() + this.ttlNanos));
+            if (anterior == null) {
+                this.orden.agregar(clave);
+            } else {
+                this.pesoTotal -= anterior.peso;
+                this.orden.acceder(clave);
+                if (anterior.valor != valor) {
+                    this.alQuitar.accept(clave, anterior.valor);
+                }
+            }
+            this.pesoTotal += peso;
+            while (this.pesoTotal > this.pesoMaximo) {
+                this.quitar(this.orden.victima());
+                this.desalojos.increment();
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    public void invalidar(K clave) {
+        this.lock.lock();
+        try {
+            this.version++;
+            this.quitar(clave);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    public void invalidarTodo() {
+        this.lock.lock();
+        try {
+            this.version++;
+            this.entradas.forEach((clave, entrada) -> {
+                this.orden.quitar(clave);
+                this.alQuitar.accept(clave, entrada.valor);
+            });
+            this.entradas.clear();
+            this.pesoTotal = 0;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    public EstadisticasCache estadisticas() {
+        int tamanio;
+        this.lock.lock();
+        try {
+            tamanio = this.entradas.size();
+        } finally {
+            this.lock.unlock();
+        }
+        return new EstadisticasCache(this.aciertos.sum(), this.fallos.sum(), this.desalojos.sum(),
+                this.expirados.sum(), tamanio);
+    }
+
+    private void quitar(K clave) {
+        Entrada<V> entrada = this.entradas.remove(clave);
+        if (entrada != null) {
+            this.pesoTotal -= entrada.peso;
+            this.orden.quitar(clave);
+            this.alQuitar.accept(clave, entrada.valor);
+        }
+    }
+
+    private record Entrada<V>(V valor, int peso, long expiraEn) {
+    }
+
+}
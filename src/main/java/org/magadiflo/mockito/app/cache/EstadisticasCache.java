@@ -0,0 +1,13 @@
+package org.magadiflo.mockito.app.cache;
+
+/**
+ * Foto de los contadores de un CacheLocal en un momento dado.
+ */
+public record EstadisticasCache(long aciertos, long fallos, long desalojos, long expirados, int tamanio) {
+
+    public double tasaAciertos() {
+        long total = this.aciertos + this.fallos;
+        return total == 0 ? 0.0 : (double) this.aciertos / total;
+    }
+
+}
@@ -0,0 +1,101 @@
+package org.magadiflo.mockito.app.cache;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Lleva el orden de desalojo de las claves de un CacheLocal, siempre se usa con el lock del cache tomado.
+ */
+interface OrdenDesalojo<K> {
+
+    void agregar(K clave);
+
+    void acceder(K clave);
+
+    void quitar(K clave);
+
+    /**
+     * @return la siguiente clave a desalojar, sin quitarla
+     */
+    K victima();
+
+    final class Lru<K> implements OrdenDesalojo<K> {
+
+        private final LinkedHashSet<K> claves = new LinkedHashSet<>();
+
+        @Override
+        public void agregar(K clave) {
+            this.claves.add(clave);
+        }
+
+        @Override
+        public void acceder(K clave) {
+            if (this.claves.remove(clave)) {
+                this.claves.add(clave);
+            }
+        }
+
+        @Override
+        public void quitar(K clave) {
+            this.claves.remove(clave);
+        }
+
+        @Override
+        public K victima() {
+            return this.claves.iterator().next();
+        }
+
+    }
+
+    /**
+     * Claves agrupadas por frecuencia de uso, cada grupo en orden de último uso.
+     */
+    final class Lfu<K> implements OrdenDesalojo<K> {
+
+        private final Map<K, Integer> frecuencias = new HashMap<>();
+        private final TreeMap<Integer, LinkedHashSet<K>> porFrecuencia = new TreeMap<>();
+
+        @Override
+        public void agregar(K clave) {
+            this.frecuencias.put(clave, 1);
+            this.porFrecuencia.computeIfAbsent(1, frecuencia -> new LinkedHashSet<>()).add(clave);
+        }
+
+        @Override
+        public void acceder(K clave) {
+            Integer frecuencia = this.frecuencias.get(clave);
+            if (frecuencia == null) {
+                return;
+            }
+            this.quitarDelGrupo(clave, frecuencia);
+            int nueva = frecuencia == Integer.MAX_VALUE ? frecuencia : frecuencia + 1;
+            this.frecuencias.put(clave, nueva);
+            this.porFrecuencia.computeIfAbsent(nueva, f -> new LinkedHashSet<>()).add(clave);
+        }
+
+        @Override
+        public void quitar(K clave) {
+            Integer frecuencia = this.frecuencias.remove(clave);
+            if (frecuencia != null) {
+                this.quitarDelGrupo(clave, frecuencia);
+            }
+        }
+
+        @Override
+        public K victima() {
+            return this.porFrecuencia.firstEntry().getValue().iterator().next();
+        }
+
+        private void quitarDelGrupo(K clave, int frecuencia) {
+            LinkedHashSet<K> grupo = this.porFrecuencia.get(frecuencia);
+            grupo.remove(clave);
+            if (grupo.isEmpty()) {
+                this.porFrecuencia.remove(frecuencia);
+            }
+        }
+
+    }
+
+}
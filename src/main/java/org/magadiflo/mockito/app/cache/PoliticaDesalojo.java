@@ -0,0 +1,29 @@
+package org.magadiflo.mockito.app.cache;
+
+/**
+ * Qué entrada sale primero cuando un CacheLocal supera su peso máximo.
+ */
+public enum PoliticaDesalojo {
+
+    /**
+     * La usada hace más tiempo
+     */
+    LRU {
+        @Override
+        <K> OrdenDesalojo<K> crearOrden() {
+            return new OrdenDesalojo.Lru<>();
+        }
+    },
+    /**
+     * La usada menos veces, entre empatadas la usada hace más tiempo
+     */
+    LFU {
+        @Override
+        <K> OrdenDesalojo<K> crearOrden() {
+            return new OrdenDesalojo.Lfu<>();
+        }
+    };
+
+    abstract <K> OrdenDesalojo<K> crearOrden();
+
+}
@@ -0,0 +1,120 @@
+package org.magadiflo.mockito.app.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa llamadas concurrentes con la misma clave: mientras una llamada está en curso,
+ * las demás con esa clave esperan su resultado en lugar de repetirla. Si la llamada falla,
+ * todas reciben la misma excepción. Nada se guarda después de terminar, no es una cache.
+ * <p>
+ * - Con una espera máxima, quien espera más que eso deja de esperar y hace su propia llamada,
+ *   así una llamada colgada no bloquea a todas las demás con la misma clave.
+ * - Si se interrumpe a quien espera, deja de esperar y lanza CancellationException con el
+ *   flag de interrupción restaurado.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> enCurso = new ConcurrentHashMap<>();
+    private final AtomicInteger esperando = new AtomicInteger();
+    private final long esperaMaximaNanos;
+
+    /**
+     * Quien espera lo hace hasta que termine la llamada en curso
+     */
+    public SingleFlight() {
+        this.esperaMaximaNanos = 0;
+    }
+
+    public SingleFlight(Duration esperaMaxima) {
+        if (esperaMaxima.isNegative() || esperaMaxima.isZero()) {
+            throw new IllegalArgumentException("esperaMaxima debe ser mayor a cero");
+        }
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+    }
+
+    /**
+     * Con clave null la llamada se ejecuta directamente, sin agrupar.
+     */
+    public V ejecutar(K clave, Supplier<V> llamada) {
+        if (clave == null) {
+            return llamada.get();
+        }
+        CompletableFuture<V> propia = new CompletableFuture<>();
+        CompletableFuture<V> existente = this.enCurso.putIfAbsent(clave, propia);
+        if (existente != null) {
+            return this.esperar(existente, llamada);
+        }
+        try {
+            V valor = llamada.get();
+            propia.complete(valor);
+            return valor;
+        } catch (RuntimeException | Error e) {
+            propia.completeExceptionally(e);
+            throw e;
+        } finally {
+            this.enCurso.remove(clave, propia);
+        }
+    }
+
+    /**
+     * Las llamadas que lleguen después ya no se unirán a las que están en curso,
+     * útil después de una escritura para no entregar datos anteriores a ella.
+     */
+    public void olvidarTodo() {
+        this.enCurso.clear();
+    }
+
+    public int llamadasEnCurso() {
+        return this.enCurso.size();
+    }
+
+    /**
+     * Hilos que esperan el resultado de una llamada en curso en lugar de hacer la suya
+     */
+    public int esperando() {
+        return this.esperando.get();
+    }
+
+    private V esperar(CompletableFuture<V> futuro, Supplier<V> llamada) {
+        try {
+            return this.obtener(futuro);
+        } catch (TimeoutException e) {
+            // La llamada en curso tarda demasiado, se hace una propia sin agrupar
+            return llamada.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            CancellationException cancelacion = new CancellationException("Se interrumpió la espera de la llamada en curso");
+            cancelacion.initCause(e);
+            throw cancelacion;
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (causa instanceof Error error) {
+                throw error;
+            }
+            throw new CompletionException(causa);
+        }
+    }
+
+    private V obtener(CompletableFuture<V> futuro) throws InterruptedException, ExecutionException, TimeoutException {
+        this.esperando.incrementAndGet();
+        try {
+            return this.esperaMaximaNanos > 0 ? futuro.get(this.esperaMaximaNanos, TimeUnit.NANOSECONDS) : futuro.get();
+        } finally {
+            this.esperando.decrementAndGet();
+        }
+    }
+
+}
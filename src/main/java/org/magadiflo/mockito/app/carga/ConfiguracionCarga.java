@@ -0,0 +1,137 @@
+package org.magadiflo.mockito.app.carga;
+
+import java.time.Duration;
+
+/**
+ * Parámetros de una prueba de carga, se crea con builder().
+ *
+ * @param usuarios               hilos que envían operaciones. En el modelo abierto también limita cuántas
+ *                               operaciones puede haber en curso, debe alcanzar para la tasa pedida
+ * @param operacionesPorSegundo  tasa total del modelo abierto, se reparte entre los usuarios
+ * @param calentamiento          tiempo previo a la medición, lo que termine en él no se cuenta
+ * @param tiempoPensamiento      pausa de cada usuario entre operaciones en el modelo cerrado
+ * @param intervaloEsperado      cada cuánto debería enviar un usuario en el modelo cerrado, para corregir la
+ *                               omisión coordinada. Cero no corrige: la latencia es la del servicio
+ * @param pesoBuscar             peso relativo de cada operación en la mezcla, no tienen que sumar 1
+ * @param exponenteZipf          sesgo de la popularidad de los nombres, 0 es uniforme
+ * @param proporcionInexistentes fracción de búsquedas de nombres que no están en el catálogo
+ * @param semilla                con la misma semilla se repite la misma secuencia de operaciones por usuario
+ */
+public record ConfiguracionCarga(ModeloCarga modelo, int usuarios, double operacionesPorSegundo,
+                                 Duration duracion, Duration calentamiento, Duration tiempoPensamiento,
+                                 Duration intervaloEsperado, double pesoBuscar, double pesoBuscarConPreguntas,
+                                 double pesoGuardar, double exponenteZipf, double proporcionInexistentes,
+                                 long semilla) {
+
+    public ConfiguracionCarga {
+        if (usuarios <= 0) {
+            throw new IllegalArgumentException("usuarios debe ser mayor a cero");
+        }
+        if (modelo == ModeloCarga.ABIERTO && !(operacionesPorSegundo > 0)) {
+            throw new IllegalArgumentException("El modelo abierto necesita operacionesPorSegundo mayor a cero");
+        }
+        if (duracion.isNegative() || duracion.isZero() || calentamiento.isNegative()
+                || tiempoPensamiento.isNegative() || intervaloEsperado.isNegative()) {
+            throw new IllegalArgumentException("La duración debe ser positiva y los demás tiempos no negativos");
+        }
+        if (pesoBuscar < 0 || pesoBuscarConPreguntas < 0 || pesoGuardar < 0
+                || !(pesoBuscar + pesoBuscarConPreguntas + pesoGuardar > 0)) {
+            throw new IllegalArgumentException("Los pesos no pueden ser negativos y al menos uno debe ser positivo");
+        }
+        if (proporcionInexistentes < 0 || proporcionInexistentes > 1) {
+            throw new IllegalArgumentException("proporcionInexistentes debe estar entre 0 y 1");
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Valores por defecto: modelo cerrado, un usuario por procesador, 10 s medidos después de 2 s de
+     * calentamiento, 60% buscar, 30% buscar con preguntas, 10% guardar y Zipf 0.99.
+     */
+    public static final class Builder {
+
+        private ModeloCarga modelo = ModeloCarga.CERRADO;
+        private int usuarios = Runtime.getRuntime().availableProcessors();
+        private double operacionesPorSegundo;
+        private Duration duracion = Duration.ofSeconds(10);
+        private Duration calentamiento = Duration.ofSeconds(2);
+        private Duration tiempoPensamiento = Duration.ZERO;
+        private Duration intervaloEsperado = Duration.ZERO;
+        private double pesoBuscar = 0.6;
+        private double pesoBuscarConPreguntas = 0.3;
+        private double pesoGuardar = 0.1;
+        private double exponenteZipf = 0.99;
+        private double proporcionInexistentes;
+        private long semilla = 42;
+
+        private Builder() {
+        }
+
+        public Builder cerrado(int usuarios) {
+            this.modelo = ModeloCarga.CERRADO;
+            this.usuarios = usuarios;
+            return this;
+        }
+
+        public Builder abierto(double operacionesPorSegundo, int usuarios) {
+            this.modelo = ModeloCarga.ABIERTO;
+            this.operacionesPorSegundo = operacionesPorSegundo;
+            this.usuarios = usuarios;
+            return this;
+        }
+
+        public Builder duracion(Duration duracion) {
+            this.duracion = duracion;
+            return this;
+        }
+
+        public Builder calentamiento(Duration calentamiento) {
+            this.calentamiento = calentamiento;
+            return this;
+        }
+
+        public Builder tiempoPensamiento(Duration tiempoPensamiento) {
+            this.tiempoPensamiento = tiempoPensamiento;
+            return this;
+        }
+
+        public Builder intervaloEsperado(Duration intervaloEsperado) {
+            this.intervaloEsperado = intervaloEsperado;
+            return this;
+        }
+
+        public Builder mezcla(double pesoBuscar, double pesoBuscarConPreguntas, double pesoGuardar) {
+            this.pesoBuscar = pesoBuscar;
+            this.pesoBuscarConPreguntas = pesoBuscarConPreguntas;
+            this.pesoGuardar = pesoGuardar;
+            return this;
+        }
+
+        public Builder exponenteZipf(double exponenteZipf) {
+            this.exponenteZipf = exponenteZipf;
+            return this;
+        }
+
+        public Builder proporcionInexistentes(double proporcionInexistentes) {
+            this.proporcionInexistentes = proporcionInexistentes;
+            return this;
+        }
+
+        public Builder semilla(long semilla) {
+            this.semilla = semilla;
+            return this;
+        }
+
+        public ConfiguracionCarga build() {
+            return new ConfiguracionCarga(this.modelo, this.usuarios, this.operacionesPorSegundo, this.duracion,
+                    this.calentamiento, this.tiempoPensamiento, this.intervaloEsperado, this.pesoBuscar,
+                    this.pesoBuscarConPreguntas, this.pesoGuardar, this.exponenteZipf, this.proporcionInexistentes,
+                    this.semilla);
+        }
+
+    }
+
+}
@@ -0,0 +1,67 @@
+package org.magadiflo.mockito.app.carga;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Popularidad Zipf sobre los rangos 0..elementos-1: la probabilidad del rango k es proporcional a
+ * 1 / (k + 1)^exponente, así unos pocos elementos concentran la mayoría de las consultas.
+ * Con exponente 0 es uniforme, 0.99 es el valor habitual de YCSB.
+ * <p>
+ * La distribución acumulada se calcula una vez (un double por elemento), cada muestra es una
+ * búsqueda binaria sin asignar memoria.
+ */
+public final class DistribucionZipf {
+
+    private final double[] acumulada;
+
+    public DistribucionZipf(int elementos, double exponente) {
+        if (elementos <= 0) {
+            throw new IllegalArgumentException("elementos debe ser mayor a cero");
+        }
+        if (exponente < 0 || Double.isNaN(exponente)) {
+            throw new IllegalArgumentException("exponente no puede ser negativo");
+        }
+        this.acumulada = new double[elementos];
+        double suma = 0;
+        for (int k = 0; k < elementos; k++) {
+            suma += 1 / Math.pow(k + 1, exponente);
+            this.acumulada[k] = suma;
+        }
+        for (int k = 0; k < elementos; k++) {
+            this.acumulada[k] /= suma;
+        }
+    }
+
+    /**
+     * @return un rango entre 0 y elementos() - 1, el 0 es el más popular
+     */
+    public int siguiente(RandomGenerator random) {
+        return this.rango(random.nextDouble());
+    }
+
+    public double probabilidad(int rango) {
+        return rango == 0 ? this.acumulada[0] : this.acumulada[rango] - this.acumulada[rango - 1];
+    }
+
+    public int elementos() {
+        return this.acumulada.length;
+    }
+
+    /**
+     * @return el primer rango cuya probabilidad acumulada supera a {@code u}
+     */
+    int rango(double u) {
+        int bajo = 0;
+        int alto = this.acumulada.length - 1;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (this.acumulada[medio] > u) {
+                alto = medio;
+            } else {
+                bajo = medio + 1;
+            }
+        }
+        return bajo;
+    }
+
+}
@@ -0,0 +1,236 @@
+package org.magadiflo.mockito.app.carga;
+
+import org.magadiflo.mockito.app.Datos;
+import org.magadiflo.mockito.app.metricas.HistogramaLatencia;
+import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.services.IExamenService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Prueba de carga de un IExamenService con varios usuarios simulados, cada uno en su propio hilo,
+ * para comparar implementaciones (repositorios, decoradores) bajo una carga parecida a la real.
+ * Sirve para cualquier servicio, la preparación del catálogo queda a cargo del que llama.
+ * <p>
+ * - Mezcla de operaciones configurable (ver OperacionCarga) y nombres elegidos con popularidad Zipf.
+ * - Modelo cerrado o abierto (ver ModeloCarga).
+ * - Latencias en HistogramaLatencia, corregidas por omisión coordinada: en el modelo abierto se miden
+ *   desde el momento programado de cada operación, en el cerrado se completan con el intervalo esperado.
+ * <p>
+ * Los percentiles tienen el error relativo de HistogramaLatencia (menor al 6.25%).
+ */
+public class GeneradorCarga {
+
+    private static final String PREFIJO_GUARDADOS = "Examen carga ";
+    private static final String PREFIJO_INEXISTENTES = "Examen inexistente ";
+    private static final long ESPERA_ACTIVA = 100_000;
+
+    private final IExamenService examenService;
+    private final ConfiguracionCarga configuracion;
+    private final List<String> nombres;
+    private final DistribucionZipf popularidad;
+    private final AtomicLong guardados = new AtomicLong();
+
+    /**
+     * @param nombres nombres que ya están en el catálogo del servicio. Su popularidad no depende del
+     *                orden: se barajan con la semilla antes de asignarles un rango
+     */
+    public GeneradorCarga(IExamenService examenService, List<String> nombres, ConfiguracionCarga configuracion) {
+        if (nombres.isEmpty()) {
+            throw new IllegalArgumentException("Se necesita al menos un nombre del catálogo");
+        }
+        this.examenService = examenService;
+        this.configuracion = configuracion;
+        List<String> barajados = new ArrayList<>(nombres);
+        Collections.shuffle(barajados, new Random(configuracion.semilla()));
+        this.nombres = barajados;
+        this.popularidad = new DistribucionZipf(barajados.size(), configuracion.exponenteZipf());
+    }
+
+    /**
+     * Catálogo sintético con los nombres de Datos.EXAMENES seguidos de "Examen 7", "Examen 8"...,
+     * todos con las preguntas de Datos y sin id, listo para guardarTodos(...).
+     */
+    public static List<Examen> catalogoSintetico(int tamanio) {
+        List<Examen> examenes = new ArrayList<>(tamanio);
+        for (int i = 0; i < tamanio; i++) {
+            String nombre = i < Datos.EXAMENES.size() ? Datos.EXAMENES.get(i).getNombre() : "Examen " + (i + 1);
+            Examen examen = new Examen(null, nombre);
+            examen.setPreguntas(Datos.PREGUNTAS);
+            examenes.add(examen);
+        }
+        return examenes;
+    }
+
+    /**
+     * Ejecuta la prueba y espera a que termine: calentamiento() más duracion(), más lo que tarden
+     * en responder las operaciones en curso al terminar.
+     */
+    public ResultadoCarga ejecutar() throws InterruptedException {
+        Medicion medicion = new Medicion();
+        long inicio = System.nanoTime();
+        long inicioMedicion = inicio + this.configuracion.calentamiento().toNanos();
+        long fin = inicioMedicion + this.configuracion.duracion().toNanos();
+
+        List<Thread> usuarios = new ArrayList<>(this.configuracion.usuarios());
+        for (int numero = 0; numero < this.configuracion.usuarios(); numero++) {
+            SplittableRandom random = new SplittableRandom(this.configuracion.semilla() + numero);
+            int usuario = numero;
+            Runnable carga = this.configuracion.modelo() == ModeloCarga.ABIERTO
+                    ? () -> this.usuarioAbierto(usuario, random, medicion, inicio, inicioMedicion, fin)
+                    : () -> this.usuarioCerrado(random, medicion, inicioMedicion, fin);
+            Thread hilo = new Thread(carga, "carga-" + numero);
+            hilo.setDaemon(true);
+            usuarios.add(hilo);
+        }
+        usuarios.forEach(Thread::start);
+        for (Thread hilo : usuarios) {
+            hilo.join();
+        }
+        Duration medido = Duration.ofNanos(Math.max(0, System.nanoTime() - inicioMedicion));
+
+        Map<OperacionCarga, PercentilesLatencia> porOperacion = new EnumMap<>(OperacionCarga.class);
+        medicion.porOperacion.forEach((operacion, histograma) -> {
+            if (histograma.cantidad() > 0) {
+                porOperacion.put(operacion, PercentilesLatencia.de(histograma));
+            }
+        });
+        return new ResultadoCarga(this.configuracion.modelo(), medicion.operaciones.sum(), medicion.errores.sum(),
+                medido, PercentilesLatencia.de(medicion.latencia), PercentilesLatencia.de(medicion.servicio),
+                porOperacion);
+    }
+
+    /**
+     * Envía una operación cada usuarios / operacionesPorSegundo, desfasado del resto de los usuarios.
+     * Si se atrasa no se saltea ninguna: las siguientes salen sin esperar y su latencia incluye el atraso.
+     */
+    private void usuarioAbierto(int usuario, SplittableRandom random, Medicion medicion,
+                                long inicio, long inicioMedicion, long fin) {
+        double intervalo = this.configuracion.usuarios() * 1e9 / this.configuracion.operacionesPorSegundo();
+        double desfase = intervalo * usuario / this.configuracion.usuarios();
+        for (long numero = 0; ; numero++) {
+            long programado = inicio + (long) (desfase + intervalo * numero);
+            if (programado >= fin) {
+                return;
+            }
+            esperarHasta(programado);
+            OperacionCarga operacion = this.elegirOperacion(random);
+            long comienzo = System.nanoTime();
+            boolean correcta = this.ejecutar(operacion, random);
+            long termino = System.nanoTime();
+            if (programado >= inicioMedicion) {
+                medicion.registrar(operacion, correcta, termino - programado, termino - comienzo, 0);
+            }
+        }
+    }
+
+    private void usuarioCerrado(SplittableRandom random, Medicion medicion, long inicioMedicion, long fin) {
+        long intervaloEsperado = this.configuracion.intervaloEsperado().toNanos();
+        long pensamiento = this.configuracion.tiempoPensamiento().toNanos();
+        long comienzo;
+        while ((comienzo = System.nanoTime()) < fin) {
+            OperacionCarga operacion = this.elegirOperacion(random);
+            boolean correcta = this.ejecutar(operacion, random);
+            long termino = System.nanoTime();
+            if (comienzo >= inicioMedicion) {
+                medicion.registrar(operacion, correcta, termino - comienzo, termino - comienzo, intervaloEsperado);
+            }
+            if (pensamiento > 0) {
+                esperarHasta(termino + pensamiento);
+            }
+        }
+    }
+
+    /**
+     * @return false si el servicio lanzó una excepción, la operación igual se mide
+     */
+    private boolean ejecutar(OperacionCarga operacion, SplittableRandom random) {
+        try {
+            switch (operacion) {
+                case BUSCAR -> this.examenService.findExamenByNombre(this.elegirNombre(random));
+                case BUSCAR_CON_PREGUNTAS -> this.examenService.findExamenByNombreWithPreguntas(this.elegirNombre(random));
+                case GUARDAR -> {
+                    Examen examen = new Examen(null, PREFIJO_GUARDADOS + this.guardados.incrementAndGet());
+                    examen.setPreguntas(Datos.PREGUNTAS);
+                    this.examenService.guardar(examen);
+                }
+            }
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private OperacionCarga elegirOperacion(SplittableRandom random) {
+        double buscar = this.configuracion.pesoBuscar();
+        double buscarConPreguntas = this.configuracion.pesoBuscarConPreguntas();
+        double valor = random.nextDouble() * (buscar + buscarConPreguntas + this.configuracion.pesoGuardar());
+        if (valor < buscar) {
+            return OperacionCarga.BUSCAR;
+        }
+        return valor < buscar + buscarConPreguntas ? OperacionCarga.BUSCAR_CON_PREGUNTAS : OperacionCarga.GUARDAR;
+    }
+
+    private String elegirNombre(SplittableRandom random) {
+        if (this.configuracion.proporcionInexistentes() > 0 && random.nextDouble() < this.configuracion.proporcionInexistentes()) {
+            return PREFIJO_INEXISTENTES + random.nextInt(this.nombres.size() * 10);
+        }
+        return this.nombres.get(this.popularidad.siguiente(random));
+    }
+
+    /**
+     * parkNanos(...) suele despertar decenas de microsegundos tarde, ese atraso se sumaría a la latencia
+     * del modelo abierto. Por eso se duerme hasta poco antes y el resto se espera activamente.
+     */
+    private static void esperarHasta(long instante) {
+        long restante;
+        while ((restante = instante - System.nanoTime()) > 0) {
+            if (restante > ESPERA_ACTIVA) {
+                LockSupport.parkNanos(restante - ESPERA_ACTIVA);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /**
+     * Histogramas compartidos por todos los usuarios, registrar no toma locks
+     */
+    private static final class Medicion {
+
+        private final HistogramaLatencia latencia = new HistogramaLatencia();
+        private final HistogramaLatencia servicio = new HistogramaLatencia();
+        private final Map<OperacionCarga, HistogramaLatencia> porOperacion = new EnumMap<>(OperacionCarga.class);
+        private final LongAdder operaciones = new LongAdder();
+        private final LongAdder errores = new LongAdder();
+
+        private Medicion() {
+            for (OperacionCarga operacion : OperacionCarga.values()) {
+                this.porOperacion.put(operacion, new HistogramaLatencia());
+            }
+        }
+
+        private void registrar(OperacionCarga operacion, boolean correcta, long latencia, long servicio,
+                               long intervaloEsperado) {
+            this.operaciones.increment();
+            if (!correcta) {
+                this.errores.increment();
+            }
+            this.latencia.registrar(latencia, intervaloEsperado);
+            this.porOperacion.get(operacion).registrar(latencia, intervaloEsperado);
+            this.servicio.registrar(servicio);
+        }
+
+    }
+
+}
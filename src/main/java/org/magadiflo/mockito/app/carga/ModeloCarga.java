@@ -0,0 +1,20 @@
+package org.magadiflo.mockito.app.carga;
+
+/**
+ * Cómo llegan las operaciones al servicio durante una prueba de carga.
+ */
+public enum ModeloCarga {
+
+    /**
+     * Cada usuario envía la siguiente operación cuando termina la anterior (más un tiempo de pensamiento).
+     * Un servicio lento recibe menos carga, por eso la latencia se corrige con un intervalo esperado.
+     */
+    CERRADO,
+
+    /**
+     * Las operaciones llegan a una tasa fija sin importar cuánto tarde el servicio. La latencia se mide
+     * desde el momento en que la operación debía enviarse, así incluye la espera por las anteriores.
+     */
+    ABIERTO
+
+}
@@ -0,0 +1,23 @@
+package org.magadiflo.mockito.app.carga;
+
+/**
+ * Operaciones de IExamenService que genera una prueba de carga.
+ */
+public enum OperacionCarga {
+
+    /**
+     * findExamenByNombre(...)
+     */
+    BUSCAR,
+
+    /**
+     * findExamenByNombreWithPreguntas(...)
+     */
+    BUSCAR_CON_PREGUNTAS,
+
+    /**
+     * guardar(...) de un examen nuevo con las preguntas de Datos
+     */
+    GUARDAR
+
+}
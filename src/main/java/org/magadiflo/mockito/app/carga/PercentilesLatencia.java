@@ -0,0 +1,31 @@
+package org.magadiflo.mockito.app.carga;
+
+import org.magadiflo.mockito.app.metricas.HistogramaLatencia;
+
+/**
+ * Percentiles de latencia en nanosegundos.
+ */
+public record PercentilesLatencia(long p50, long p99, long p999, long maximo) {
+
+    public static PercentilesLatencia de(HistogramaLatencia histograma) {
+        return new PercentilesLatencia(histograma.percentil(0.50), histograma.percentil(0.99),
+                histograma.percentil(0.999), histograma.maximo());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("p50=%s p99=%s p999=%s max=%s",
+                formatear(this.p50), formatear(this.p99), formatear(this.p999), formatear(this.maximo));
+    }
+
+    private static String formatear(long nanos) {
+        if (nanos < 10_000) {
+            return nanos + "ns";
+        }
+        if (nanos < 10_000_000) {
+            return nanos / 1_000 + "us";
+        }
+        return nanos / 1_000_000 + "ms";
+    }
+
+}
@@ -0,0 +1,40 @@
+package org.magadiflo.mockito.app.carga;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Resultado de una prueba de carga, sin contar el calentamiento.
+ *
+ * @param latencia     latencia corregida por omisión coordinada, la que percibe un usuario
+ * @param servicio     tiempo que tardó el servicio en responder cada operación, sin corregir
+ * @param porOperacion latencia corregida de cada tipo de operación
+ */
+public record ResultadoCarga(ModeloCarga modelo, long operaciones, long errores, Duration medido,
+                             PercentilesLatencia latencia, PercentilesLatencia servicio,
+                             Map<OperacionCarga, PercentilesLatencia> porOperacion) {
+
+    public ResultadoCarga {
+        porOperacion = Map.copyOf(porOperacion);
+    }
+
+    public double operacionesPorSegundo() {
+        return this.medido.isZero() ? 0 : this.operaciones * 1e9 / this.medido.toNanos();
+    }
+
+    public String resumen() {
+        StringBuilder resumen = new StringBuilder()
+                .append(String.format("modelo=%s operaciones=%d errores=%d duracion=%dms throughput=%.1f ops/s%n",
+                        this.modelo, this.operaciones, this.errores, this.medido.toMillis(), this.operacionesPorSegundo()))
+                .append("  latencia  ").append(this.latencia).append(System.lineSeparator())
+                .append("  servicio  ").append(this.servicio).append(System.lineSeparator());
+        for (OperacionCarga operacion : OperacionCarga.values()) {
+            PercentilesLatencia percentiles = this.porOperacion.get(operacion);
+            if (percentiles != null) {
+                resumen.append("  ").append(operacion).append(' ').append(percentiles).append(System.lineSeparator());
+            }
+        }
+        return resumen.toString();
+    }
+
+}
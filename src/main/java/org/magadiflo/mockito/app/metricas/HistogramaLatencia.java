@@ -0,0 +1,99 @@
+package org.magadiflo.mockito.app.metricas;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma concurrente de valores long (nanosegundos, tamaños...) con buckets log-lineales,
+ * al estilo de HdrHistogram: cada potencia de 2 se divide en 16 sub-buckets, por lo que el
+ * error relativo de un percentil es menor al 6.25% sin importar la magnitud del valor.
+ * Registrar un valor no asigna memoria ni toma locks.
+ */
+public class HistogramaLatencia {
+
+    private static final int SUB_BUCKETS_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKETS_BITS;
+    private static final int NUMERO_BUCKETS = SUB_BUCKETS + (63 - SUB_BUCKETS_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(NUMERO_BUCKETS);
+    private final LongAdder cantidad = new LongAdder();
+    private final LongAdder suma = new LongAdder();
+    private final LongAccumulator maximo = new LongAccumulator(Math::max, 0);
+
+    public void registrar(long valor) {
+        long positivo = Math.max(0, valor);
+        this.buckets.incrementAndGet(indice(positivo));
+        this.cantidad.increment();
+        this.suma.add(positivo);
+        this.maximo.accumulate(positivo);
+    }
+
+    /**
+     * Registra el valor corrigiendo la omisión coordinada, como recordValueWithExpectedInterval de
+     * HdrHistogram: si el valor supera el intervalo esperado entre operaciones, también registra las
+     * que se habrían medido mientras se esperaba (valor - intervalo, valor - 2 * intervalo, ...).
+     * Con un intervalo menor o igual a cero es igual que registrar(valor).
+     */
+    public void registrar(long valor, long intervaloEsperado) {
+        this.registrar(valor);
+        if (intervaloEsperado <= 0) {
+            return;
+        }
+        for (long faltante = valor - intervaloEsperado; faltante >= intervaloEsperado; faltante -= intervaloEsperado) {
+            this.registrar(faltante);
+        }
+    }
+
+    public long cantidad() {
+        return this.cantidad.sum();
+    }
+
+    public long suma() {
+        return this.suma.sum();
+    }
+
+    public long maximo() {
+        return this.maximo.get();
+    }
+
+    /**
+     * @param percentil entre 0.0 y 1.0, por ejemplo 0.99 para el p99
+     * @return límite superior del bucket que contiene al percentil, 0 si no hay registros
+     */
+    public long percentil(double percentil) {
+        long total = this.cantidad();
+        if (total == 0) {
+            return 0;
+        }
+        long posicion = Math.max(1, (long) Math.ceil(percentil * total));
+        long acumulado = 0;
+        for (int i = 0; i < NUMERO_BUCKETS; i++) {
+            acumulado += this.buckets.get(i);
+            if (acumulado >= posicion) {
+                return Math.min(limiteSuperior(i), this.maximo());
+            }
+        }
+        return this.maximo();
+    }
+
+    static int indice(long valor) {
+        if (valor < SUB_BUCKETS) {
+            return (int) valor;
+        }
+        int exponente = 63 - Long.numberOfLeadingZeros(valor);
+        int subBucket = (int) (valor >>> (exponente - SUB_BUCKETS_BITS)) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + (exponente - SUB_BUCKETS_BITS) * SUB_BUCKETS + subBucket;
+    }
+
+    static long limiteSuperior(int indice) {
+        if (indice < SUB_BUCKETS) {
+            return indice;
+        }
+        int desplazamiento = (indice - SUB_BUCKETS) / SUB_BUCKETS;
+        int subBucket = (indice - SUB_BUCKETS) % SUB_BUCKETS;
+        long inferior = (long) (SUB_BUCKETS + subBucket) << desplazamiento;
+        return inferior + (1L << desplazamiento) - 1;
+    }
+
+}
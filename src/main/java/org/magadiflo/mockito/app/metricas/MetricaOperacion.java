@@ -0,0 +1,54 @@
+package org.magadiflo.mockito.app.metricas;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores de una operación: llamadas, errores, latencia y tamaño de los resultados.
+ */
+public class MetricaOperacion {
+
+    private final String nombre;
+    private final LongAdder llamadas = new LongAdder();
+    private final LongAdder errores = new LongAdder();
+    private final HistogramaLatencia latenciaNanos = new HistogramaLatencia();
+    private final HistogramaLatencia tamanioResultado = new HistogramaLatencia();
+
+    MetricaOperacion(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public void registrarExito(long nanos, int tamanio) {
+        this.llamadas.increment();
+        this.latenciaNanos.registrar(nanos);
+        if (tamanio >= 0) {
+            this.tamanioResultado.registrar(tamanio);
+        }
+    }
+
+    public void registrarError(long nanos) {
+        this.llamadas.increment();
+        this.errores.increment();
+        this.latenciaNanos.registrar(nanos);
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public long getLlamadas() {
+        return this.llamadas.sum();
+    }
+
+    public long getErrores() {
+        return this.errores.sum();
+    }
+
+    public HistogramaLatencia getLatenciaNanos() {
+        return latenciaNanos;
+    }
+
+    public HistogramaLatencia getTamanioResultado() {
+        return tamanioResultado;
+    }
+
+}
@@ -0,0 +1,101 @@
+package org.magadiflo.mockito.app.metricas;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Registro de las métricas por operación que alimentan los decoradores instrumentados.
+ * Se puede exportar en formato de texto de Prometheus con exportarPrometheus().
+ */
+public class RegistroMetricas {
+
+    private static final double[] CUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final String prefijo;
+    private final Map<String, MetricaOperacion> metricas = new ConcurrentHashMap<>();
+
+    public RegistroMetricas() {
+        this("mockito_app");
+    }
+
+    public RegistroMetricas(String prefijo) {
+        this.prefijo = prefijo;
+    }
+
+    public MetricaOperacion metrica(String operacion) {
+        return this.metricas.computeIfAbsent(operacion, MetricaOperacion::new);
+    }
+
+    /**
+     * Ejecuta la llamada registrando su latencia, su resultado o su error.
+     *
+     * @param tamanio cómo medir el tamaño del resultado (número de elementos), puede ser null
+     */
+    public <T> T medir(String operacion, Supplier<T> llamada, ToIntFunction<? super T> tamanio) {
+        MetricaOperacion metrica = this.metrica(operacion);
+        long inicio = System.nanoTime();
+        T resultado;
+        try {
+            resultado = llamada.get();
+        } catch (RuntimeException | Error e) {
+            metrica.registrarError(System.nanoTime() - inicio);
+            throw e;
+        }
+        long nanos = System.nanoTime() - inicio;
+        metrica.registrarExito(nanos, tamanio == null || resultado == null ? -1 : tamanio.applyAsInt(resultado));
+        return resultado;
+    }
+
+    public void medir(String operacion, Runnable llamada) {
+        this.medir(operacion, () -> {
+            llamada.run();
+            return null;
+        }, null);
+    }
+
+    public String exportarPrometheus() {
+        Map<String, MetricaOperacion> ordenadas = new TreeMap<>(this.metricas);
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("# TYPE ").append(this.prefijo).append("_llamadas_total counter\n");
+        ordenadas.values().forEach(m -> this.linea(sb, "_llamadas_total", m, null, m.getLlamadas()));
+
+        sb.append("# TYPE ").append(this.prefijo).append("_errores_total counter\n");
+        ordenadas.values().forEach(m -> this.linea(sb, "_errores_total", m, null, m.getErrores()));
+
+        sb.append("# TYPE ").append(this.prefijo).append("_latencia_segundos summary\n");
+        ordenadas.values().forEach(m -> this.resumen(sb, "_latencia_segundos", m, m.getLatenciaNanos(), 1e-9));
+
+        sb.append("# TYPE ").append(this.prefijo).append("_tamanio_resultado summary\n");
+        ordenadas.values().forEach(m -> this.resumen(sb, "_tamanio_resultado", m, m.getTamanioResultado(), 1));
+        return sb.toString();
+    }
+
+    private void resumen(StringBuilder sb, String sufijo, MetricaOperacion metrica, HistogramaLatencia histograma,
+                         double escala) {
+        for (double cuantil : CUANTILES) {
+            this.linea(sb, sufijo, metrica, String.valueOf(cuantil), histograma.percentil(cuantil) * escala);
+        }
+        this.linea(sb, sufijo + "_sum", metrica, null, histograma.suma() * escala);
+        this.linea(sb, sufijo + "_count", metrica, null, histograma.cantidad());
+    }
+
+    private void linea(StringBuilder sb, String sufijo, MetricaOperacion metrica, String cuantil, double valor) {
+        sb.append(this.prefijo).append(sufijo).append("{operacion=\"").append(metrica.getNombre()).append('"');
+        if (cuantil != null) {
+            sb.append(",quantile=\"").append(cuantil).append('"');
+        }
+        sb.append("} ");
+        if (valor == Math.rint(valor) && Math.abs(valor) < 1e15) {
+            sb.append((long) valor);
+        } else {
+            sb.append(String.format(Locale.ROOT, "%.9g", valor));
+        }
+        sb.append('\n');
+    }
+
+}
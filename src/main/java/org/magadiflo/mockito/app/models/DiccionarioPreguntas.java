@@ -0,0 +1,93 @@
+package org.magadiflo.mockito.app.models;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Diccionario de preguntas: cada texto distinto se guarda una sola vez con un código int, así un
+ * examen puede representar sus preguntas como un int[] de códigos (ver PreguntasCodificadas) en vez
+ * de una lista con una referencia por pregunta. Los códigos son consecutivos desde 0 y nunca cambian.
+ * <p>
+ * Seguro entre hilos: leer un código no toma ningún lock, solo agregar una pregunta nueva.
+ */
+public final class DiccionarioPreguntas {
+
+    private static final int CAPACIDAD_INICIAL = 64;
+
+    private final Map<String, Integer> codigos = new ConcurrentHashMap<>();
+    /**
+     * Se vuelve a asignar después de cada pregunta agregada para publicarla a los lectores
+     */
+    private volatile String[] textos = new String[CAPACIDAD_INICIAL];
+    private int cantidad;
+
+    /**
+     * @return el código de la pregunta, agregándola si aún no está
+     * @throws NullPointerException si la pregunta es null
+     */
+    public int codigo(String pregunta) {
+        Integer codigo = this.codigos.get(pregunta);
+        return codigo != null ? codigo : this.codigos.computeIfAbsent(pregunta, this::agregar);
+    }
+
+    /**
+     * @return el código de la pregunta o -1 si no está en el diccionario
+     */
+    public int buscarCodigo(String pregunta) {
+        Integer codigo = pregunta == null ? null : this.codigos.get(pregunta);
+        return codigo == null ? -1 : codigo;
+    }
+
+    /**
+     * @throws IndexOutOfBoundsException si el código no es de este diccionario
+     */
+    public String pregunta(int codigo) {
+        String[] actuales = this.textos;
+        String texto = codigo >= 0 && codigo < actuales.length ? actuales[codigo] : null;
+        if (texto == null) {
+            throw new IndexOutOfBoundsException("Código de pregunta desconocido: " + codigo);
+        }
+        return texto;
+    }
+
+    /**
+     * Codifica las preguntas agregando al diccionario las que no estén. Si ya están codificadas con
+     * este diccionario se devuelven sin copiar.
+     *
+     * @throws NullPointerException si alguna pregunta es null
+     */
+    public PreguntasCodificadas codificar(Collection<String> preguntas) {
+        if (preguntas instanceof PreguntasCodificadas codificadas && codificadas.diccionario() == this) {
+            return codificadas;
+        }
+        int[] codigosPreguntas = new int[preguntas.size()];
+        int i = 0;
+        for (String pregunta : preguntas) {
+            codigosPreguntas[i++] = this.codigo(Objects.requireNonNull(pregunta, "pregunta"));
+        }
+        return new PreguntasCodificadas(this, codigosPreguntas);
+    }
+
+    /**
+     * @return número de preguntas distintas
+     */
+    public int size() {
+        return this.codigos.size();
+    }
+
+    private synchronized int agregar(String pregunta) {
+        String[] actuales = this.textos;
+        if (this.cantidad == actuales.length) {
+            actuales = Arrays.copyOf(actuales, this.cantidad * 2);
+        }
+        int codigo = this.cantidad++;
+        // El mismo texto que la clave del mapa: cada pregunta distinta queda una sola vez en memoria
+        actuales[codigo] = pregunta;
+        this.textos = actuales;
+        return codigo;
+    }
+
+}
@@ -0,0 +1,7 @@
+package org.magadiflo.mockito.app.models;
+
+/**
+ * @param registro número de registro (línea del archivo, empezando en 1)
+ */
+public record ErrorImportacion(long registro, String mensaje) {
+}
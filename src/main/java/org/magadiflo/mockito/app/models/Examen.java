@@ -1,26 +1,58 @@
 package org.magadiflo.mockito.app.models;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 public class Examen {
 
-    private Long id;
+    /**
+     * El id se guarda como long primitivo para no tener un objeto Long por examen,
+     * conId distingue un id null de un id con valor.
+     */
+    private long id;
+    private boolean conId;
     private String nombre;
     private List<String> preguntas;
+    /**
+     * Si no es null, las preguntas aún no se han cargado y se obtienen de aquí en el primer getPreguntas()
+     */
+    private volatile Supplier<List<String>> cargadorPreguntas;
 
     public Examen(Long id, String nombre) {
+        this.setId(id);
+        this.nombre = nombre;
+        this.preguntas = Preguntas.NINGUNA;
+    }
+
+    public Examen(long id, String nombre) {
         this.id = id;
+        this.conId = true;
         this.nombre = nombre;
-        this.preguntas = new ArrayList<>();
+        this.preguntas = Preguntas.NINGUNA;
     }
 
+    /**
+     * Crea un Long en cada llamada (salvo los ids pequeños que cachea Long.valueOf), en recorridos
+     * y comparaciones usar tieneId() y getIdPrimitivo().
+     */
     public Long getId() {
-        return id;
+        return this.conId ? this.id : null;
     }
 
     public void setId(Long id) {
-        this.id = id;
+        this.conId = id != null;
+        this.id = this.conId ? id : 0L;
+    }
+
+    public boolean tieneId() {
+        return this.conId;
+    }
+
+    /**
+     * Id sin boxing, solo tiene sentido si tieneId() es true.
+     */
+    public long getIdPrimitivo() {
+        return this.id;
     }
 
     public String getNombre() {
@@ -31,11 +63,76 @@ public class Examen {
         this.nombre = nombre;
     }
 
+    /**
+     * @return lista inmutable, nunca null. Si las preguntas son diferidas, la primera llamada las carga.
+     */
     public List<String> getPreguntas() {
+        if (this.cargadorPreguntas != null) {
+            this.cargarPreguntas();
+        }
         return preguntas;
     }
 
+    /**
+     * Guarda una copia inmutable de las preguntas, si ya son inmutables se comparten sin copiar.
+     *
+     * @throws NullPointerException si alguna pregunta es null
+     */
     public void setPreguntas(List<String> preguntas) {
-        this.preguntas = preguntas;
+        synchronized (this) {
+            this.preguntas = Preguntas.inmutables(preguntas);
+            this.cargadorPreguntas = null;
+        }
+    }
+
+    /**
+     * Las preguntas se obtendrán del cargador la primera vez que se pidan, una sola vez
+     * aunque varios hilos las pidan al mismo tiempo. Si el cargador falla se reintentará
+     * en la siguiente llamada a getPreguntas().
+     */
+    public void setPreguntasDiferidas(Supplier<List<String>> cargadorPreguntas) {
+        synchronized (this) {
+            this.preguntas = Preguntas.NINGUNA;
+            this.cargadorPreguntas = cargadorPreguntas;
+        }
+    }
+
+    /**
+     * Copia del examen con otras preguntas, el examen original no cambia.
+     */
+    public Examen conPreguntas(List<String> preguntas) {
+        Examen copia = this.conId ? new Examen(this.id, this.nombre) : new Examen(null, this.nombre);
+        copia.setPreguntas(preguntas);
+        return copia;
+    }
+
+    /**
+     * Copia del examen que comparte sus preguntas (inmutables). Si aún son diferidas, la copia
+     * las obtiene del original al pedirlas, así se cargan una sola vez para todas las copias.
+     */
+    public Examen copia() {
+        Examen copia = this.conId ? new Examen(this.id, this.nombre) : new Examen(null, this.nombre);
+        if (this.preguntasCargadas()) {
+            copia.preguntas = this.preguntas;
+        } else {
+            copia.setPreguntasDiferidas(this::getPreguntas);
+        }
+        return copia;
+    }
+
+    public ExamenValor aValor() {
+        return ExamenValor.de(this);
+    }
+
+    public boolean preguntasCargadas() {
+        return this.cargadorPreguntas == null;
+    }
+
+    private synchronized void cargarPreguntas() {
+        Supplier<List<String>> cargador = this.cargadorPreguntas;
+        if (cargador != null) {
+            this.preguntas = Preguntas.inmutables(cargador.get());
+            this.cargadorPreguntas = null;
+        }
     }
 }
@@ -0,0 +1,81 @@
+package org.magadiflo.mockito.app.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Examen inmutable: todos sus campos son final y las preguntas una lista inmutable, por lo que
+ * se puede compartir entre hilos sin locks ni copias (caches, índices, snapshots).
+ * Los cambios se hacen con los métodos con...(...), que devuelven un nuevo valor.
+ */
+public record ExamenValor(Long id, String nombre, List<String> preguntas) {
+
+    public ExamenValor {
+        preguntas = Preguntas.inmutables(preguntas);
+    }
+
+    public static ExamenValor de(Examen examen) {
+        return new ExamenValor(examen.getId(), examen.getNombre(), examen.getPreguntas());
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public ExamenValor conId(Long id) {
+        return new ExamenValor(id, this.nombre, this.preguntas);
+    }
+
+    public ExamenValor conNombre(String nombre) {
+        return new ExamenValor(this.id, nombre, this.preguntas);
+    }
+
+    public ExamenValor conPreguntas(List<String> preguntas) {
+        return new ExamenValor(this.id, this.nombre, preguntas);
+    }
+
+    /**
+     * Examen mutable con los mismos datos, las preguntas se comparten sin copiarlas.
+     */
+    public Examen aExamen() {
+        Examen examen = new Examen(this.id, this.nombre);
+        examen.setPreguntas(this.preguntas);
+        return examen;
+    }
+
+    public static final class Builder {
+
+        private Long id;
+        private String nombre;
+        private final List<String> preguntas = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder id(Long id) {
+            this.id = id;
+            return this;
+        }
+
+        public Builder nombre(String nombre) {
+            this.nombre = nombre;
+            return this;
+        }
+
+        public Builder pregunta(String pregunta) {
+            this.preguntas.add(pregunta);
+            return this;
+        }
+
+        public Builder preguntas(List<String> preguntas) {
+            this.preguntas.addAll(preguntas);
+            return this;
+        }
+
+        public ExamenValor build() {
+            return new ExamenValor(this.id, this.nombre, this.preguntas);
+        }
+
+    }
+
+}
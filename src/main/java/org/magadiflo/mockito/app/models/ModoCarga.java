@@ -0,0 +1,15 @@
+package org.magadiflo.mockito.app.models;
+
+/**
+ * Cuándo se cargan las preguntas de un examen.
+ */
+public enum ModoCarga {
+    /**
+     * Las preguntas se traen del repositorio antes de devolver el examen
+     */
+    INMEDIATA,
+    /**
+     * Las preguntas se traen la primera vez que se llama a getPreguntas(), y solo una vez
+     */
+    DIFERIDA
+}
@@ -0,0 +1,15 @@
+package org.magadiflo.mockito.app.models;
+
+import java.util.List;
+
+/**
+ * Una página de resultados y el cursor para pedir la siguiente.
+ * siguienteCursor es null cuando ya no hay más elementos.
+ */
+public record Pagina<T>(List<T> contenido, Long siguienteCursor) {
+
+    public boolean tieneSiguiente() {
+        return this.siguienteCursor != null;
+    }
+
+}
@@ -0,0 +1,48 @@
+package org.magadiflo.mockito.app.models;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Utilidades para compartir listas de preguntas entre exámenes sin duplicar memoria.
+ */
+public final class Preguntas {
+
+    /**
+     * Lista vacía compartida por todos los exámenes que aún no tienen preguntas
+     */
+    public static final List<String> NINGUNA = List.of();
+
+    private Preguntas() {
+    }
+
+    /**
+     * Copia inmutable de las preguntas. Si ya es una lista inmutable (List.of, List.copyOf)
+     * se devuelve la misma instancia, así varios exámenes comparten la lista sin copiarla.
+     * Las PreguntasInmutables (codificadas, vistas fuera del heap) también se comparten sin decodificarlas.
+     */
+    public static List<String> inmutables(Collection<String> preguntas) {
+        if (preguntas == null || preguntas.isEmpty()) {
+            return NINGUNA;
+        }
+        if (preguntas instanceof PreguntasInmutables compartibles) {
+            return compartibles;
+        }
+        return List.copyOf(preguntas);
+    }
+
+    /**
+     * Igual que inmutables(...) pero además deduplica el texto de cada pregunta con String.intern(),
+     * pensado para el momento de cargar o guardar preguntas, no para cada lectura.
+     */
+    public static List<String> internadas(Collection<String> preguntas) {
+        if (preguntas == null || preguntas.isEmpty()) {
+            return NINGUNA;
+        }
+        List<String> internadas = new ArrayList<>(preguntas.size());
+        preguntas.forEach(pregunta -> internadas.add(pregunta.intern()));
+        return List.copyOf(internadas);
+    }
+
+}
@@ -0,0 +1,38 @@
+package org.magadiflo.mockito.app.models;
+
+/**
+ * Preguntas de un examen como códigos de un DiccionarioPreguntas. Es una lista inmutable que
+ * obtiene el texto de cada pregunta del diccionario al pedirla, sin copiarlo.
+ * <p>
+ * Un examen con estas preguntas ocupa un int por pregunta, y varios exámenes comparten el mismo
+ * texto aunque sus listas sean distintas. Se crea con DiccionarioPreguntas.codificar(...).
+ */
+public final class PreguntasCodificadas extends PreguntasInmutables {
+
+    private final DiccionarioPreguntas diccionario;
+    private final int[] codigos;
+
+    PreguntasCodificadas(DiccionarioPreguntas diccionario, int[] codigos) {
+        this.diccionario = diccionario;
+        this.codigos = codigos;
+    }
+
+    @Override
+    public String get(int indice) {
+        return this.diccionario.pregunta(this.codigos[indice]);
+    }
+
+    @Override
+    public int size() {
+        return this.codigos.length;
+    }
+
+    public int codigo(int indice) {
+        return this.codigos[indice];
+    }
+
+    public DiccionarioPreguntas diccionario() {
+        return this.diccionario;
+    }
+
+}
@@ -0,0 +1,33 @@
+package org.magadiflo.mockito.app.models;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Base de las listas de preguntas que nunca cambian después de creadas y se pueden compartir entre
+ * exámenes tal cual: Preguntas.inmutables(...) las devuelve sin copiarlas, así una lista que obtiene el
+ * texto al pedirlo (de un diccionario, de memoria fuera del heap) no se decodifica entera al asignarla.
+ * <p>
+ * Las subclases solo implementan get(...) y size(), y deben devolver siempre lo mismo.
+ */
+public abstract class PreguntasInmutables extends AbstractList<String> implements RandomAccess {
+
+    protected PreguntasInmutables() {
+    }
+
+    @Override
+    public final String set(int indice, String pregunta) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public final void add(int indice, String pregunta) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public final String remove(int indice) {
+        throw new UnsupportedOperationException();
+    }
+
+}
@@ -0,0 +1,11 @@
+package org.magadiflo.mockito.app.models;
+
+import java.util.List;
+
+public record ResultadoImportacion(long importados, List<ErrorImportacion> errores) {
+
+    public boolean sinErrores() {
+        return this.errores.isEmpty();
+    }
+
+}
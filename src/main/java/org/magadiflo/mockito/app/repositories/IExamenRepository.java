@@ -1,13 +1,73 @@
 package org.magadiflo.mockito.app.repositories;
 
 import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.models.Pagina;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface IExamenRepository {
 
     List<Examen> findAll();
 
+    /**
+     * Recorre el catálogo bajo demanda, quien consume puede cortar el recorrido
+     * (findFirst, anyMatch, limit...) sin que se lean el resto de exámenes.
+     */
+    default Stream<Examen> streamAll() {
+        return this.findAll().stream();
+    }
+
+    /**
+     * El cursor es la posición en el orden de streamAll(), no un id: si mientras se pagina se
+     * insertan o quitan exámenes antes de esa posición, la página siguiente puede repetir u omitir
+     * exámenes. La implementación por defecto salta los primeros cursor exámenes en cada llamada,
+     * así que cada página cuesta O(cursor) y recorrer todo el catálogo página a página O(n²/tamanio);
+     * los repositorios con acceso por posición deberían sobrescribirla.
+     *
+     * @param cursor  0 para la primera página, luego el siguienteCursor de la página anterior
+     * @param tamanio número máximo de exámenes por página
+     */
+    default Pagina<Examen> findPage(long cursor, int tamanio) {
+        if (cursor < 0 || tamanio <= 0) {
+            throw new IllegalArgumentException("cursor debe ser >= 0 y tamanio > 0");
+        }
+        List<Examen> contenido = this.streamAll().skip(cursor).limit(tamanio + 1L).toList();
+        if (contenido.size() > tamanio) {
+            return new Pagina<>(contenido.subList(0, tamanio), cursor + tamanio);
+        }
+        return new Pagina<>(contenido, null);
+    }
+
+    /**
+     * true si el repositorio mantiene su propio índice por nombre y findByNombre(...) no recorre el catálogo
+     */
+    default boolean tieneIndicePorNombre() {
+        return false;
+    }
+
+    /**
+     * Primer examen con exactamente ese nombre, en el orden de findAll()
+     */
+    default Optional<Examen> findByNombre(String nombre) {
+        if (nombre == null) {
+            return Optional.empty();
+        }
+        return this.streamAll().filter(examen -> nombre.equals(examen.getNombre())).findFirst();
+    }
+
     Examen guardar(Examen examen);
 
+    /**
+     * Guarda un lote de exámenes en un solo viaje al almacén.
+     * Devuelve los exámenes guardados en el mismo orden en que se recibieron.
+     */
+    default List<Examen> guardarTodos(List<Examen> examenes) {
+        List<Examen> guardados = new ArrayList<>(examenes.size());
+        examenes.forEach(examen -> guardados.add(this.guardar(examen)));
+        return guardados;
+    }
+
 }
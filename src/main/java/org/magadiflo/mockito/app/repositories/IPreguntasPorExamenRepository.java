@@ -0,0 +1,20 @@
+package org.magadiflo.mockito.app.repositories;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Repositorio de preguntas que las guarda asociadas al id de su examen. El servicio lo detecta y
+ * guarda primero el examen, para que tenga id, y después sus preguntas con guardarPorExamen(...).
+ * <p>
+ * guardarVarias(...) y guardarVariasEnLote(...) no indican el examen, así que en estos repositorios
+ * no guardan nada: igual que en los repositorios que guardan las preguntas junto con su examen.
+ */
+public interface IPreguntasPorExamenRepository extends IPreguntasRepository {
+
+    /**
+     * Guarda las preguntas de cada examen, reemplazando las que tuviera, en un solo viaje al almacén.
+     */
+    void guardarPorExamen(Map<Long, List<String>> preguntasPorExamen);
+
+}
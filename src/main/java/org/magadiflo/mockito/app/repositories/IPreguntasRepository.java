@@ -1,11 +1,37 @@
 package org.magadiflo.mockito.app.repositories;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public interface IPreguntasRepository {
 
     List<String> findPreguntasByExamenId(Long id);
 
+    /**
+     * Obtiene en una sola llamada las preguntas de varios exámenes.
+     * Los ids sin preguntas pueden no estar presentes en el mapa resultante.
+     * Por defecto hace una llamada por id, los repositorios que puedan deben resolverlo en una sola.
+     */
+    default Map<Long, List<String>> findPreguntasByExamenIds(Collection<Long> ids) {
+        Map<Long, List<String>> preguntasPorExamen = new HashMap<>();
+        for (Long id : ids) {
+            List<String> preguntas = this.findPreguntasByExamenId(id);
+            if (preguntas != null && !preguntas.isEmpty()) {
+                preguntasPorExamen.put(id, preguntas);
+            }
+        }
+        return preguntasPorExamen;
+    }
+
     void guardarVarias(List<String> preguntas);
 
+    /**
+     * Guarda las preguntas de varios exámenes en un solo viaje al almacén.
+     */
+    default void guardarVariasEnLote(List<List<String>> lotes) {
+        lotes.forEach(this::guardarVarias);
+    }
+
 }
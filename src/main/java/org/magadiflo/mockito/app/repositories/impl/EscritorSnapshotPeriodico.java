@@ -0,0 +1,69 @@
+package org.magadiflo.mockito.app.repositories.impl;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escribe periódicamente el snapshot de un ExamenRepositorySnapshotImpl si hubo cambios,
+ * así el siguiente arranque (por ejemplo en un reinicio escalonado) parte de un catálogo reciente.
+ * close() detiene la tarea y escribe un último snapshot con lo pendiente. Si se interrumpe mientras
+ * espera a que termine la tarea en curso, igual escribe ese último snapshot y restaura el flag.
+ */
+public class EscritorSnapshotPeriodico implements AutoCloseable {
+
+    private static final System.Logger LOGGER = System.getLogger(EscritorSnapshotPeriodico.class.getName());
+
+    private final ExamenRepositorySnapshotImpl repository;
+    private final ScheduledExecutorService programador;
+
+    public EscritorSnapshotPeriodico(ExamenRepositorySnapshotImpl repository, Duration periodo) {
+        if (periodo.isZero() || periodo.isNegative()) {
+            throw new IllegalArgumentException("periodo debe ser mayor a cero");
+        }
+        this.repository = repository;
+        this.programador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "examen-snapshot");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        long nanos = periodo.toNanos();
+        this.programador.scheduleWithFixedDelay(this::escribirSiHayCambios, nanos, nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.programador.shutdown();
+        boolean interrumpido = false;
+        try {
+            this.programador.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            // guardarSnapshot() es synchronized, el último snapshot espera a la escritura en curso
+            interrumpido = true;
+        }
+        try {
+            if (this.repository.cambiosPendientes() > 0) {
+                this.repository.guardarSnapshot();
+            }
+        } finally {
+            // Se restaura al final: con el flag puesto los FileChannel fallan con ClosedByInterruptException
+            if (interrumpido) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void escribirSiHayCambios() {
+        try {
+            if (this.repository.cambiosPendientes() > 0) {
+                this.repository.guardarSnapshot();
+            }
+        } catch (IOException | RuntimeException e) {
+            // Se reintenta en el siguiente periodo, una excepción aquí cancelaría la tarea
+            LOGGER.log(System.Logger.Level.WARNING, "No se pudo escribir el snapshot del catálogo", e);
+        }
+    }
+
+}
@@ -2,22 +2,51 @@ package org.magadiflo.mockito.app.repositories.impl;
 
 import org.magadiflo.mockito.app.Datos;
 import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.models.Pagina;
 import org.magadiflo.mockito.app.repositories.IExamenRepository;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.Stream;
 
 public class ExameRepositoryImpl implements IExamenRepository {
 
+    private static final System.Logger LOGGER = System.getLogger(ExameRepositoryImpl.class.getName());
+
     @Override
     public List<Examen> findAll() {
-        System.out.println("ExameRepositoryImpl.findAll");
+        LOGGER.log(System.Logger.Level.DEBUG, "ExameRepositoryImpl.findAll");
         return Datos.EXAMENES;
     }
 
+    @Override
+    public Stream<Examen> streamAll() {
+        LOGGER.log(System.Logger.Level.DEBUG, "ExameRepositoryImpl.streamAll");
+        return Datos.EXAMENES.stream();
+    }
+
+    @Override
+    public Pagina<Examen> findPage(long cursor, int tamanio) {
+        LOGGER.log(System.Logger.Level.DEBUG, "ExameRepositoryImpl.findPage");
+        if (cursor < 0 || tamanio <= 0) {
+            throw new IllegalArgumentException("cursor debe ser >= 0 y tamanio > 0");
+        }
+        int total = Datos.EXAMENES.size();
+        int desde = (int) Math.min(cursor, total);
+        int hasta = Math.min(desde + tamanio, total);
+        return new Pagina<>(Datos.EXAMENES.subList(desde, hasta), hasta < total ? (long) hasta : null);
+    }
+
     @Override
     public Examen guardar(Examen examen) {
-        System.out.println("ExameRepositoryImpl.guardar");
+        LOGGER.log(System.Logger.Level.DEBUG, "ExameRepositoryImpl.guardar");
         return Datos.EXAMEN;
     }
 
+    @Override
+    public List<Examen> guardarTodos(List<Examen> examenes) {
+        LOGGER.log(System.Logger.Level.DEBUG, "ExameRepositoryImpl.guardarTodos");
+        return Collections.nCopies(examenes.size(), Datos.EXAMEN);
+    }
+
 }
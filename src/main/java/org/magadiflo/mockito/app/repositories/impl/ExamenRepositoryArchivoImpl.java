@@ -0,0 +1,320 @@
+package org.magadiflo.mockito.app.repositories.impl;
+
+import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.repositories.IExamenRepository;
+import org.magadiflo.mockito.app.repositories.IPreguntasRepository;
+import org.magadiflo.mockito.app.serializacion.Archivos;
+import org.magadiflo.mockito.app.serializacion.ExamenCodec;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * Repositorio persistente en un archivo local, sin base de datos externa.
+ * <p>
+ * El archivo es un log de solo-escritura-al-final mapeado en memoria (MappedByteBuffer):
+ * cada examen guardado agrega un registro [longitud][crc32][examen y sus preguntas codificados con ExamenCodec].
+ * Las lecturas decodifican directamente desde el mapeo, sin copiar el archivo al heap. findAll()
+ * decodifica el catálogo una vez por cada cambio y devuelve copias de esos exámenes.
+ * <p>
+ * - Ids: los exámenes sin id reciben el siguiente valor de una secuencia monótona.
+ * - Recuperación: al abrir se recorre el log y se descarta la cola de un registro incompleto
+ *   o corrupto (crc inválido), producto de una caída a mitad de una escritura.
+ * - Compactación: volver a guardar un id deja el registro anterior como basura; cuando la
+ *   basura supera a los datos vivos el log se reescribe solo con la última versión de cada examen.
+ * <p>
+ * Las preguntas se persisten junto con su examen en guardar(...), por eso guardarVarias(...)
+ * no hace nada. El tamaño del archivo está limitado a 2 GB (un único mapeo).
+ */
+public class ExamenRepositoryArchivoImpl implements IExamenRepository, IPreguntasRepository, AutoCloseable {
+
+    private static final int CABECERA = Integer.BYTES * 2;
+    private static final int CAPACIDAD_INICIAL = 1 << 20;
+    private static final int BASURA_MINIMA_PARA_COMPACTAR = 1 << 20;
+
+    private final Path archivo;
+    private final boolean sincronizarCadaEscritura;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private FileChannel canal;
+    private MappedByteBuffer mapeo;
+    private int fin;
+    private long bytesVivos;
+    private long secuencia;
+    private final Map<Long, Integer> posicionPorId = new LinkedHashMap<>();
+    /**
+     * Exámenes decodificados para findAll(), null si hubo cambios desde la última decodificación
+     */
+    private volatile List<Examen> decodificados;
+
+    /**
+     * @param sincronizarCadaEscritura si es true cada guardar(...) fuerza los datos a disco antes de retornar
+     */
+    public ExamenRepositoryArchivoImpl(Path archivo, boolean sincronizarCadaEscritura) {
+        this.archivo = archivo;
+        this.sincronizarCadaEscritura = sincronizarCadaEscritura;
+        try {
+            this.abrir();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir el repositorio " + archivo, e);
+        }
+    }
+
+    @Override
+    public List<Examen> findAll() {
+        this.lock.readLock().lock();
+        try {
+            List<Examen> examenes = this.decodificados;
+            if (examenes == null) {
+                // Con el lock de lectura varios hilos pueden decodificar a la vez, todos obtienen lo mismo
+                List<Examen> leidos = new ArrayList<>(this.posicionPorId.size());
+                this.posicionPorId.values().forEach(posicion -> leidos.add(this.leerExamen(posicion)));
+                examenes = leidos;
+                this.decodificados = examenes;
+            }
+            List<Examen> copias = new ArrayList<>(examenes.size());
+            examenes.forEach(examen -> copias.add(examen.copia()));
+            return copias;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Examen guardar(Examen examen) {
+        this.lock.writeLock().lock();
+        try {
+            Long id = examen.getId();
+            if (id == null) {
+                id = ++this.secuencia;
+                examen.setId(id);
+            } else {
+                this.secuencia = Math.max(this.secuencia, id);
+            }
+            this.agregarRegistro(examen);
+            this.compactarSiHayDemasiadaBasura();
+            return examen;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo guardar el examen " + examen.getNombre(), e);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<String> findPreguntasByExamenId(Long id) {
+        this.lock.readLock().lock();
+        try {
+            Integer posicion = this.posicionPorId.get(id);
+            return posicion == null ? List.of() : this.leerExamen(posicion).getPreguntas();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<Long, List<String>> findPreguntasByExamenIds(Collection<Long> ids) {
+        this.lock.readLock().lock();
+        try {
+            Map<Long, List<String>> preguntasPorExamen = new HashMap<>();
+            for (Long id : ids) {
+                Integer posicion = this.posicionPorId.get(id);
+                if (posicion != null) {
+                    preguntasPorExamen.put(id, this.leerExamen(posicion).getPreguntas());
+                }
+            }
+            return preguntasPorExamen;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void guardarVarias(List<String> preguntas) {
+        // Las preguntas se escriben junto con su examen en guardar(...)
+    }
+
+    /**
+     * Reescribe el log dejando solo la última versión de cada examen.
+     */
+    public void compactar() {
+        this.lock.writeLock().lock();
+        try {
+            Path temporal = this.archivo.resolveSibling(this.archivo.getFileName() + ".compactando");
+            Files.deleteIfExists(temporal);
+            List<Examen> vivos = new ArrayList<>(this.posicionPorId.size());
+            this.posicionPorId.values().forEach(posicion -> vivos.add(this.leerExamen(posicion)));
+            try (ExamenRepositoryArchivoImpl compactado = new ExamenRepositoryArchivoImpl(temporal, false)) {
+                vivos.forEach(compactado::guardar);
+            }
+            vivos.clear();
+            this.cerrarCanal();
+            // Se sueltan las referencias al mapeo para que se pueda liberar antes de reemplazar el archivo
+            this.mapeo = null;
+            this.decodificados = null;
+            try {
+                Archivos.reemplazar(temporal, this.archivo);
+            } finally {
+                this.abrir();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo compactar el repositorio " + this.archivo, e);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return bytes ocupados por registros (vivos y basura), sin contar la reserva al final del archivo
+     */
+    public long tamanioLog() {
+        this.lock.readLock().lock();
+        try {
+            return this.fin;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.lock.writeLock().lock();
+        try {
+            this.cerrarCanal();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    private void abrir() throws IOException {
+        this.canal = FileChannel.open(this.archivo, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.mapear((int) Math.max(CAPACIDAD_INICIAL, Math.min(this.canal.size(), Integer.MAX_VALUE)));
+        this.recuperar();
+    }
+
+    private void mapear(int capacidad) throws IOException {
+        this.mapeo = this.canal.map(FileChannel.MapMode.READ_WRITE, 0, capacidad);
+    }
+
+    /**
+     * Recorre el log reconstruyendo el índice en memoria, de cada registro solo se lee el id.
+     * El recorrido termina en la primera cabecera vacía o en el primer registro incompleto/corrupto,
+     * y esa cabecera se pone en cero: tras una caída el sistema operativo puede haber persistido
+     * páginas posteriores a un registro incompleto, y esos restos no deben revivir más adelante.
+     * Basta con la primera cabecera porque cada escritura deja en cero la cabecera siguiente.
+     */
+    private void recuperar() {
+        this.posicionPorId.clear();
+        this.decodificados = null;
+        this.bytesVivos = 0;
+        this.secuencia = 0;
+        int posicion = 0;
+        int capacidad = this.mapeo.capacity();
+        while (posicion + CABECERA <= capacidad) {
+            int longitud = this.mapeo.getInt(posicion);
+            if (longitud <= 0 || longitud > capacidad - posicion - CABECERA
+                    || this.mapeo.getInt(posicion + Integer.BYTES) != this.crc(posicion + CABECERA, longitud)) {
+                break;
+            }
+            Long id = ExamenCodec.leerId(this.mapeo.slice(posicion + CABECERA, longitud));
+            this.indexar(id, posicion, longitud);
+            this.secuencia = Math.max(this.secuencia, id);
+            posicion += CABECERA + longitud;
+        }
+        this.fin = posicion;
+        this.borrarCabecera(posicion);
+    }
+
+    private void borrarCabecera(int posicion) {
+        if (posicion + CABECERA <= this.mapeo.capacity()) {
+            this.mapeo.putLong(posicion, 0L);
+        }
+    }
+
+    private void agregarRegistro(Examen examen) throws IOException {
+        int longitud = ExamenCodec.tamanio(examen);
+        this.asegurarCapacidad(CABECERA + longitud);
+
+        ExamenCodec.codificar(examen, this.mapeo.slice(this.fin + CABECERA, longitud));
+        this.mapeo.putInt(this.fin + Integer.BYTES, this.crc(this.fin + CABECERA, longitud));
+        // Restos de un log anterior no deben quedar a continuación del registro, asegurarCapacidad reserva esa cabecera
+        this.borrarCabecera(this.fin + CABECERA + longitud);
+        // La longitud se escribe al final: hasta entonces el registro no existe para recuperar()
+        this.mapeo.putInt(this.fin, longitud);
+        if (this.sincronizarCadaEscritura) {
+            this.mapeo.force();
+        }
+
+        this.indexar(examen.getId(), this.fin, longitud);
+        this.fin += CABECERA + longitud;
+        this.decodificados = null;
+    }
+
+    /**
+     * Un id que se vuelve a guardar conserva su lugar en findAll(), su registro anterior pasa a ser basura.
+     */
+    private void indexar(Long id, int posicion, int longitud) {
+        Integer anterior = this.posicionPorId.put(id, posicion);
+        if (anterior != null) {
+            this.bytesVivos -= CABECERA + this.mapeo.getInt(anterior);
+        }
+        this.bytesVivos += CABECERA + longitud;
+    }
+
+    private void asegurarCapacidad(int bytes) throws IOException {
+        long requerido = (long) this.fin + bytes + CABECERA;
+        if (requerido <= this.mapeo.capacity()) {
+            return;
+        }
+        if (requerido > Integer.MAX_VALUE) {
+            throw new IOException("El repositorio superó el tamaño máximo de 2 GB, compáctelo o use otro archivo");
+        }
+        long nuevaCapacidad = Math.max(requerido, (long) this.mapeo.capacity() * 2);
+        this.mapeo.force();
+        this.mapear((int) Math.min(nuevaCapacidad, Integer.MAX_VALUE));
+    }
+
+    private void compactarSiHayDemasiadaBasura() {
+        long basura = this.fin - this.bytesVivos;
+        if (basura > BASURA_MINIMA_PARA_COMPACTAR && basura > this.bytesVivos) {
+            this.compactar();
+        }
+    }
+
+    /**
+     * Las preguntas del examen quedan diferidas sobre el mapeo, solo se decodifican si se piden.
+     * Es seguro porque el log nunca sobrescribe un registro ya escrito.
+     */
+    private Examen leerExamen(int posicion) {
+        return ExamenCodec.decodificarDiferido(this.mapeo.slice(posicion + CABECERA, this.mapeo.getInt(posicion)));
+    }
+
+    private int crc(int posicion, int longitud) {
+        CRC32 crc = new CRC32();
+        crc.update(this.mapeo.slice(posicion, longitud));
+        return (int) crc.getValue();
+    }
+
+    private void cerrarCanal() throws IOException {
+        if (this.canal != null && this.canal.isOpen()) {
+            this.mapeo.force();
+            this.canal.close();
+        }
+    }
+
+}
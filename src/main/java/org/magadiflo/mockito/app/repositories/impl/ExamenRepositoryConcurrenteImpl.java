@@ -0,0 +1,147 @@
+package org.magadiflo.mockito.app.repositories.impl;
+
+import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.repositories.IExamenRepository;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Repositorio en memoria seguro para compartir entre hilos.
+ * <p>
+ * - Los ids se generan dentro del lock de escritura, junto con el guardado: así un id generado
+ *   nunca coincide con un id explícito que se está guardando a la vez en otro hilo.
+ * - Los exámenes se guardan en segmentos de tamaño fijo que solo crecen al final. findAll()
+ *   devuelve una vista de solo lectura sobre los segmentos y el tamaño publicado en ese momento,
+ *   por eso no copia el catálogo y no ve los exámenes agregados después.
+ * - Las escrituras se serializan con un lock corto (reservar la posición y publicarla),
+ *   las lecturas nunca toman locks.
+ * <p>
+ * Se guarda una copia de cada examen para que el que llama no pueda modificar el catálogo
+ * con los setters del examen que envió, y por lo mismo findAll() y streamAll() entregan una
+ * copia de cada examen que se lee (sin copiar las preguntas, que son inmutables).
+ */
+public class ExamenRepositoryConcurrenteImpl implements IExamenRepository {
+
+    private static final int BITS_SEGMENTO = 10;
+    private static final int TAMANIO_SEGMENTO = 1 << BITS_SEGMENTO;
+
+    private final Map<Long, Integer> posicionPorId = new ConcurrentHashMap<>();
+    private final ReentrantLock lockEscritura = new ReentrantLock();
+    /**
+     * Mayor id guardado o generado, protegido por lockEscritura
+     */
+    private long secuencia;
+
+    private volatile Segmentos segmentos = new Segmentos(newSegmentos(1), 0);
+
+    public ExamenRepositoryConcurrenteImpl() {
+    }
+
+    public ExamenRepositoryConcurrenteImpl(Collection<Examen> examenesIniciales) {
+        examenesIniciales.forEach(this::guardar);
+    }
+
+    @Override
+    public List<Examen> findAll() {
+        return new Snapshot(this.segmentos);
+    }
+
+    @Override
+    public Stream<Examen> streamAll() {
+        return this.findAll().stream();
+    }
+
+    @Override
+    public Examen guardar(Examen examen) {
+        this.lockEscritura.lock();
+        try {
+            Long id = examen.getId();
+            if (id == null) {
+                id = ++this.secuencia;
+                examen.setId(id);
+            } else {
+                this.secuencia = Math.max(this.secuencia, id);
+            }
+            Examen copia = new Examen(id, examen.getNombre());
+            copia.setPreguntas(examen.getPreguntas());
+
+            Segmentos actuales = this.segmentos;
+            Integer posicion = this.posicionPorId.get(id);
+            if (posicion != null) {
+                actuales.get(posicion).set(posicion & (TAMANIO_SEGMENTO - 1), copia);
+                return examen;
+            }
+            int nuevaPosicion = actuales.tamanio;
+            int segmento = nuevaPosicion >>> BITS_SEGMENTO;
+            AtomicReferenceArray<Examen>[] arreglo = actuales.arreglo;
+            if (segmento == arreglo.length) {
+                arreglo = Arrays.copyOf(arreglo, arreglo.length * 2);
+            }
+            if (arreglo[segmento] == null) {
+                arreglo[segmento] = new AtomicReferenceArray<>(TAMANIO_SEGMENTO);
+            }
+            arreglo[segmento].set(nuevaPosicion & (TAMANIO_SEGMENTO - 1), copia);
+            this.posicionPorId.put(id, nuevaPosicion);
+            // Publicación: un nuevo objeto Segmentos en un campo volatile hace visible el examen a los lectores
+            this.segmentos = new Segmentos(arreglo, nuevaPosicion + 1);
+            return examen;
+        } finally {
+            this.lockEscritura.unlock();
+        }
+    }
+
+    public int size() {
+        return this.segmentos.tamanio;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static AtomicReferenceArray<Examen>[] newSegmentos(int cantidad) {
+        return (AtomicReferenceArray<Examen>[]) new AtomicReferenceArray<?>[cantidad];
+    }
+
+    private record Segmentos(AtomicReferenceArray<Examen>[] arreglo, int tamanio) {
+
+        AtomicReferenceArray<Examen> get(int posicion) {
+            return this.arreglo[posicion >>> BITS_SEGMENTO];
+        }
+
+    }
+
+    /**
+     * Vista de solo lectura del catálogo en el momento en que se pidió.
+     * Un examen actualizado con el mismo id se ve con su último valor.
+     * Cada get(...) devuelve una copia nueva del examen guardado.
+     */
+    private static final class Snapshot extends AbstractList<Examen> implements RandomAccess {
+
+        private final Segmentos segmentos;
+
+        private Snapshot(Segmentos segmentos) {
+            this.segmentos = segmentos;
+        }
+
+        @Override
+        public Examen get(int indice) {
+            if (indice < 0 || indice >= this.segmentos.tamanio) {
+                throw new IndexOutOfBoundsException(indice);
+            }
+            return this.segmentos.get(indice).get(indice & (TAMANIO_SEGMENTO - 1)).copia();
+        }
+
+        @Override
+        public int size() {
+            return this.segmentos.tamanio;
+        }
+
+    }
+
+}
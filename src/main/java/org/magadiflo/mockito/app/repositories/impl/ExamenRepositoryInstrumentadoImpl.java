@@ -0,0 +1,67 @@
+package org.magadiflo.mockito.app.repositories.impl;
+
+import org.magadiflo.mockito.app.metricas.RegistroMetricas;
+import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.models.Pagina;
+import org.magadiflo.mockito.app.repositories.IExamenRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Decorador de IExamenRepository que registra llamadas, errores, latencia y tamaño de resultados.
+ * Delega también tieneIndicePorNombre(), así decorar un repositorio con índice no lo desactiva.
+ */
+public class ExamenRepositoryInstrumentadoImpl implements IExamenRepository {
+
+    private final IExamenRepository examenRepository;
+    private final RegistroMetricas registroMetricas;
+
+    public ExamenRepositoryInstrumentadoImpl(IExamenRepository examenRepository, RegistroMetricas registroMetricas) {
+        this.examenRepository = examenRepository;
+        this.registroMetricas = registroMetricas;
+    }
+
+    @Override
+    public List<Examen> findAll() {
+        return this.registroMetricas.medir("examenRepository.findAll", this.examenRepository::findAll, List::size);
+    }
+
+    /**
+     * Solo se mide la apertura del stream, el recorrido lo hace quien lo consume.
+     */
+    @Override
+    public Stream<Examen> streamAll() {
+        return this.registroMetricas.medir("examenRepository.streamAll", this.examenRepository::streamAll, null);
+    }
+
+    @Override
+    public Pagina<Examen> findPage(long cursor, int tamanio) {
+        return this.registroMetricas.medir("examenRepository.findPage",
+                () -> this.examenRepository.findPage(cursor, tamanio), pagina -> pagina.contenido().size());
+    }
+
+    @Override
+    public boolean tieneIndicePorNombre() {
+        return this.examenRepository.tieneIndicePorNombre();
+    }
+
+    @Override
+    public Optional<Examen> findByNombre(String nombre) {
+        return this.registroMetricas.medir("examenRepository.findByNombre",
+                () -> this.examenRepository.findByNombre(nombre), examen -> examen.isPresent() ? 1 : 0);
+    }
+
+    @Override
+    public Examen guardar(Examen examen) {
+        return this.registroMetricas.medir("examenRepository.guardar", () -> this.examenRepository.guardar(examen), null);
+    }
+
+    @Override
+    public List<Examen> guardarTodos(List<Examen> examenes) {
+        return this.registroMetricas.medir("examenRepository.guardarTodos",
+                () -> this.examenRepository.guardarTodos(examenes), List::size);
+    }
+
+}
@@ -0,0 +1,355 @@
+package org.magadiflo.mockito.app.repositories.impl;
+
+import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.repositories.IExamenRepository;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+/**
+ * Reparte los exámenes entre N repositorios independientes (particiones), por ejemplo uno por núcleo,
+ * para que las escrituras concurrentes no compitan por un único almacén. Para el que lo usa es un
+ * IExamenRepository más.
+ * <p>
+ * - Los ids se generan aquí, con una secuencia global, y deciden la partición (hash del id).
+ * - guardar(...) va directo a su partición, guardarTodos(...) agrupa por partición y escribe un lote
+ *   por partición, una tras otra desde el hilo que llama (las particiones pueden bloquearse en disco).
+ * - Las escrituras a una misma partición se aplican en el orden en que se asignaron sus ids: un id
+ *   generado nunca pisa a un examen guardado después con ese mismo id explícito.
+ * - findAll(), streamAll() y findByNombre(...) consultan las particiones en orden.
+ *   findAll() devuelve los exámenes agrupados por partición, no en orden de guardado.
+ * <p>
+ * Se particiona por id y no por nombre: IExamenRepository no permite borrar, así que un examen
+ * renombrado no podría pasar a la partición de su nuevo nombre.
+ */
+public class ExamenRepositoryParticionadoImpl implements IExamenRepository {
+
+    /**
+     * Protege la secuencia y la toma de turnos: asignar el id y pedir turno en su partición es un
+     * único paso, así dos escrituras con el mismo id llegan a la partición en el orden en que se asignaron
+     */
+    private final ReentrantLock lockIds = new ReentrantLock();
+    /**
+     * Mayor id guardado o generado, protegido por lockIds
+     */
+    private long secuencia;
+    /**
+     * Las escrituras comparten el lock de lectura entre sí, reparticionar(...) toma el de escritura
+     * para que ningún examen se guarde en las particiones viejas mientras se copian
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile IExamenRepository[] particiones;
+    /**
+     * Un turno por partición, se reemplazan junto con las particiones al reparticionar
+     */
+    private volatile Turnos[] turnos;
+
+    /**
+     * @param fabrica crea la partición número i, cada partición debe ser segura entre hilos. Si las
+     *                particiones ya tienen exámenes que no están en la partición de su id, hay que
+     *                llamar a reparticionar(...) antes de guardar
+     */
+    public ExamenRepositoryParticionadoImpl(int numeroParticiones, IntFunction<? extends IExamenRepository> fabrica) {
+        this.particiones = crearParticiones(numeroParticiones, fabrica);
+        this.turnos = crearTurnos(numeroParticiones);
+        for (IExamenRepository particion : this.particiones) {
+            this.secuencia = Math.max(this.secuencia, particion.streamAll().filter(Examen::tieneId)
+                    .mapToLong(Examen::getIdPrimitivo).max().orElse(0));
+        }
+    }
+
+    @Override
+    public List<Examen> findAll() {
+        IExamenRepository[] actuales = this.particiones;
+        List<List<Examen>> porParticion = new ArrayList<>(actuales.length);
+        for (IExamenRepository particion : actuales) {
+            porParticion.add(particion.findAll());
+        }
+        return new Concatenacion(porParticion);
+    }
+
+    @Override
+    public Stream<Examen> streamAll() {
+        return Arrays.stream(this.particiones).flatMap(IExamenRepository::streamAll);
+    }
+
+    @Override
+    public boolean tieneIndicePorNombre() {
+        return Arrays.stream(this.particiones).allMatch(IExamenRepository::tieneIndicePorNombre);
+    }
+
+    /**
+     * Se consultan las particiones en orden y se detiene en la primera que lo tenga, igual que en findAll().
+     * Es secuencial a propósito: una búsqueda en paralelo ocuparía el pool común (compartido con el
+     * resto de la aplicación) con lecturas que pueden bloquearse, y cada búsqueda ya es barata.
+     */
+    @Override
+    public Optional<Examen> findByNombre(String nombre) {
+        if (nombre == null) {
+            return Optional.empty();
+        }
+        for (IExamenRepository particion : this.particiones) {
+            Optional<Examen> examen = particion.findByNombre(nombre);
+            if (examen.isPresent()) {
+                return examen;
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public Examen guardar(Examen examen) {
+        this.lock.readLock().lock();
+        try {
+            IExamenRepository[] actuales = this.particiones;
+            Turnos[] turnosActuales = this.turnos;
+            int numero;
+            long turno;
+            this.lockIds.lock();
+            try {
+                this.asignarId(examen);
+                numero = particion(examen.getIdPrimitivo(), actuales.length);
+                turno = turnosActuales[numero].tomar();
+            } finally {
+                this.lockIds.unlock();
+            }
+            turnosActuales[numero].esperar(turno);
+            try {
+                return actuales[numero].guardar(examen);
+            } finally {
+                turnosActuales[numero].terminar();
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Examen> guardarTodos(List<Examen> examenes) {
+        this.lock.readLock().lock();
+        try {
+            IExamenRepository[] actuales = this.particiones;
+            Turnos[] turnosActuales = this.turnos;
+            List<List<Integer>> posicionesPorParticion = new ArrayList<>(actuales.length);
+            for (int i = 0; i < actuales.length; i++) {
+                posicionesPorParticion.add(new ArrayList<>());
+            }
+            // -1 en las particiones que no reciben nada en este lote
+            long[] turnoPorParticion = new long[actuales.length];
+            Arrays.fill(turnoPorParticion, -1);
+            this.lockIds.lock();
+            try {
+                for (int i = 0; i < examenes.size(); i++) {
+                    Examen examen = examenes.get(i);
+                    this.asignarId(examen);
+                    posicionesPorParticion.get(particion(examen.getIdPrimitivo(), actuales.length)).add(i);
+                }
+                for (int numero = 0; numero < actuales.length; numero++) {
+                    if (!posicionesPorParticion.get(numero).isEmpty()) {
+                        turnoPorParticion[numero] = turnosActuales[numero].tomar();
+                    }
+                }
+            } finally {
+                this.lockIds.unlock();
+            }
+
+            // Los turnos se tomaron todos juntos, así que esperarlos en orden de partición no puede
+            // bloquearse con otro lote. Si una partición falla, las siguientes igual ceden su turno
+            Examen[] guardados = new Examen[examenes.size()];
+            RuntimeException error = null;
+            for (int numero = 0; numero < actuales.length; numero++) {
+                if (turnoPorParticion[numero] < 0) {
+                    continue;
+                }
+                turnosActuales[numero].esperar(turnoPorParticion[numero]);
+                try {
+                    if (error == null) {
+                        List<Integer> posiciones = posicionesPorParticion.get(numero);
+                        List<Examen> lote = new ArrayList<>(posiciones.size());
+                        posiciones.forEach(posicion -> lote.add(examenes.get(posicion)));
+                        List<Examen> resultado = actuales[numero].guardarTodos(lote);
+                        for (int i = 0; i < posiciones.size(); i++) {
+                            guardados[posiciones.get(i)] = resultado.get(i);
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    error = e;
+                } finally {
+                    turnosActuales[numero].terminar();
+                }
+            }
+            if (error != null) {
+                throw error;
+            }
+            return Arrays.asList(guardados);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    public int numeroParticiones() {
+        return this.particiones.length;
+    }
+
+    /**
+     * @return cuántos exámenes tiene cada partición, para detectar desbalance
+     */
+    public int[] tamanios() {
+        return Arrays.stream(this.particiones).mapToInt(particion -> particion.findAll().size()).toArray();
+    }
+
+    /**
+     * Copia todos los exámenes a un nuevo conjunto de particiones y pasa a usarlo.
+     * <p>
+     * Toma el lock de escritura durante toda la copia: guardar(...) y guardarTodos(...) quedan
+     * bloqueados hasta que termine, lo que con particiones en disco puede tardar. Las lecturas no
+     * toman el lock y siguen respondiendo desde las particiones anteriores. La copia se hace
+     * partición por partición desde el hilo que llama.
+     */
+    public void reparticionar(int numeroParticiones, IntFunction<? extends IExamenRepository> fabrica) {
+        IExamenRepository[] nuevas = crearParticiones(numeroParticiones, fabrica);
+        this.lock.writeLock().lock();
+        try {
+            List<List<Examen>> porParticion = new ArrayList<>(numeroParticiones);
+            for (int i = 0; i < numeroParticiones; i++) {
+                porParticion.add(new ArrayList<>());
+            }
+            for (IExamenRepository particion : this.particiones) {
+                particion.streamAll().forEach(examen ->
+                        porParticion.get(particion(examen.getIdPrimitivo(), numeroParticiones)).add(examen));
+            }
+            for (int numero = 0; numero < numeroParticiones; numero++) {
+                if (!porParticion.get(numero).isEmpty()) {
+                    nuevas[numero].guardarTodos(porParticion.get(numero));
+                }
+            }
+            this.particiones = nuevas;
+            this.turnos = crearTurnos(numeroParticiones);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Se llama con lockIds tomado
+     */
+    private void asignarId(Examen examen) {
+        if (examen.tieneId()) {
+            this.secuencia = Math.max(this.secuencia, examen.getIdPrimitivo());
+        } else {
+            examen.setId(++this.secuencia);
+        }
+    }
+
+    static int particion(long id, int numeroParticiones) {
+        long mezclado = id * 0x9E3779B97F4A7C15L;
+        return (int) ((mezclado >>> 32) % numeroParticiones);
+    }
+
+    private static IExamenRepository[] crearParticiones(int numeroParticiones, IntFunction<? extends IExamenRepository> fabrica) {
+        if (numeroParticiones <= 0) {
+            throw new IllegalArgumentException("numeroParticiones debe ser mayor a cero");
+        }
+        IExamenRepository[] particiones = new IExamenRepository[numeroParticiones];
+        for (int i = 0; i < numeroParticiones; i++) {
+            particiones[i] = fabrica.apply(i);
+        }
+        return particiones;
+    }
+
+    private static Turnos[] crearTurnos(int numeroParticiones) {
+        Turnos[] turnos = new Turnos[numeroParticiones];
+        for (int i = 0; i < numeroParticiones; i++) {
+            turnos[i] = new Turnos();
+        }
+        return turnos;
+    }
+
+    /**
+     * Ordena las escrituras de una partición por número de turno, como la fila de una ventanilla.
+     * El turno se toma con lockIds (rápido, no espera a nadie) y se espera después de soltarlo, así
+     * una partición lenta no frena la asignación de ids de las demás.
+     */
+    private static final class Turnos {
+
+        private long siguiente;
+        private long atendiendo;
+
+        synchronized long tomar() {
+            return this.siguiente++;
+        }
+
+        /**
+         * No responde a interrupciones: quien tomó un turno tiene que usarlo, si no la fila se detiene
+         */
+        synchronized void esperar(long turno) {
+            boolean interrumpido = false;
+            while (this.atendiendo != turno) {
+                try {
+                    this.wait();
+                } catch (InterruptedException e) {
+                    interrumpido = true;
+                }
+            }
+            if (interrumpido) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        synchronized void terminar() {
+            this.atendiendo++;
+            this.notifyAll();
+        }
+
+    }
+
+    /**
+     * Las listas de cada partición una detrás de otra, sin copiarlas.
+     */
+    private static final class Concatenacion extends AbstractList<Examen> implements RandomAccess {
+
+        private final List<List<Examen>> listas;
+        private final int[] inicios;
+
+        private Concatenacion(List<List<Examen>> listas) {
+            this.listas = listas;
+            this.inicios = new int[listas.size() + 1];
+            for (int i = 0; i < listas.size(); i++) {
+                this.inicios[i + 1] = this.inicios[i] + listas.get(i).size();
+            }
+        }
+
+        @Override
+        public Examen get(int indice) {
+            if (indice < 0 || indice >= this.size()) {
+                throw new IndexOutOfBoundsException(indice);
+            }
+            int lista = Arrays.binarySearch(this.inicios, indice);
+            // Con listas vacías varios inicios coinciden, se usa la última lista que empieza en ese índice
+            if (lista >= 0) {
+                while (lista + 1 < this.listas.size() && this.inicios[lista + 1] == indice) {
+                    lista++;
+                }
+            } else {
+                lista = -lista - 2;
+            }
+            return this.listas.get(lista).get(indice - this.inicios[lista]);
+        }
+
+        @Override
+        public int size() {
+            return this.inicios[this.inicios.length - 1];
+        }
+
+    }
+
+}
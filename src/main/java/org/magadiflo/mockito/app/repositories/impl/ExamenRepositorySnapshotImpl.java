@@ -0,0 +1,289 @@
+package org.magadiflo.mockito.app.repositories.impl;
+
+import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.repositories.IExamenRepository;
+import org.magadiflo.mockito.app.repositories.IPreguntasRepository;
+import org.magadiflo.mockito.app.serializacion.Archivos;
+import org.magadiflo.mockito.app.serializacion.SnapshotCatalogo;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Repositorio en memoria que arranca en caliente desde un snapshot del catálogo (SnapshotCatalogo).
+ * <p>
+ * Al crearlo solo se mapea el snapshot, los exámenes y sus preguntas se decodifican al pedirlos y las
+ * búsquedas por nombre o id usan los índices guardados en el archivo, sin recorrer el catálogo.
+ * Lo guardado después del snapshot vive en memoria hasta que guardarSnapshot() lo incorpora al archivo
+ * (ver EscritorSnapshotPeriodico), mientras tanto las búsquedas también lo recorren.
+ * <p>
+ * Las preguntas se guardan junto con su examen en guardar(...), por eso guardarVarias(...) no hace nada.
+ * <p>
+ * findAll() y findByNombre(...) entregan copias: modificar un examen leído no altera el catálogo.
+ */
+public class ExamenRepositorySnapshotImpl implements IExamenRepository, IPreguntasRepository {
+
+    private final Path archivo;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private SnapshotCatalogo snapshot;
+    /**
+     * Copias de los exámenes guardados después del snapshot, en orden de guardado
+     */
+    private final Map<Long, Examen> guardados = new LinkedHashMap<>();
+    private long secuencia;
+
+    /**
+     * @param archivo snapshot desde el que se arranca, si no existe se arranca con el catálogo vacío
+     */
+    public ExamenRepositorySnapshotImpl(Path archivo) {
+        this.archivo = archivo;
+        try {
+            this.snapshot = Files.exists(archivo) ? SnapshotCatalogo.abrir(archivo) : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir el snapshot " + archivo, e);
+        }
+        this.secuencia = this.snapshot == null ? 0 : this.snapshot.idMaximo();
+    }
+
+    @Override
+    public List<Examen> findAll() {
+        this.lock.readLock().lock();
+        try {
+            return new Vista(this.snapshot, new HashMap<>(this.guardados), this.examenesNuevos(), true);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean tieneIndicePorNombre() {
+        return true;
+    }
+
+    @Override
+    public Optional<Examen> findByNombre(String nombre) {
+        if (nombre == null) {
+            return Optional.empty();
+        }
+        this.lock.readLock().lock();
+        try {
+            int numero = this.snapshot == null ? -1 : this.snapshot.buscarPorNombre(nombre);
+            Examen encontrado = null;
+            if (numero >= 0) {
+                encontrado = this.versionVigente(this.snapshot.examen(numero));
+                if (!nombre.equals(encontrado.getNombre())) {
+                    // El examen del snapshot fue renombrado, puede haber otro con ese nombre más adelante
+                    return IExamenRepository.super.findByNombre(nombre);
+                }
+            } else {
+                numero = Integer.MAX_VALUE;
+            }
+            // Un examen del snapshot guardado con ese nombre, o uno nuevo, puede estar antes en findAll()
+            for (Examen examen : this.guardados.values()) {
+                if (nombre.equals(examen.getNombre())) {
+                    int posicion = this.snapshot == null ? -1 : this.snapshot.buscarPorId(examen.getIdPrimitivo());
+                    if (posicion >= 0 && posicion < numero) {
+                        numero = posicion;
+                        encontrado = examen;
+                    } else if (posicion < 0 && encontrado == null) {
+                        encontrado = examen;
+                    }
+                }
+            }
+            // Los guardados son las instancias del repositorio, los del snapshot se decodifican en cada lectura
+            return Optional.ofNullable(encontrado).map(Examen::copia);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Examen guardar(Examen examen) {
+        this.lock.writeLock().lock();
+        try {
+            Long id = examen.getId();
+            if (id == null) {
+                id = ++this.secuencia;
+                examen.setId(id);
+            } else {
+                this.secuencia = Math.max(this.secuencia, id);
+            }
+            Examen copia = new Examen(id, examen.getNombre());
+            copia.setPreguntas(examen.getPreguntas());
+            this.guardados.put(id, copia);
+            return examen;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<String> findPreguntasByExamenId(Long id) {
+        this.lock.readLock().lock();
+        try {
+            Examen examen = this.buscarPorId(id);
+            return examen == null ? List.of() : examen.getPreguntas();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<Long, List<String>> findPreguntasByExamenIds(Collection<Long> ids) {
+        this.lock.readLock().lock();
+        try {
+            Map<Long, List<String>> preguntasPorExamen = new HashMap<>();
+            for (Long id : ids) {
+                Examen examen = this.buscarPorId(id);
+                if (examen != null) {
+                    preguntasPorExamen.put(id, examen.getPreguntas());
+                }
+            }
+            return preguntasPorExamen;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void guardarVarias(List<String> preguntas) {
+        // Las preguntas se guardan junto con su examen en guardar(...)
+    }
+
+    /**
+     * Escribe un nuevo snapshot con el catálogo actual y pasa a leer de él. Las escrituras no se
+     * bloquean mientras se escribe el archivo, lo que se guarde en ese lapso queda para el siguiente.
+     * <p>
+     * Antes de reemplazar el archivo se suelta el snapshot anterior para que su mapeo se pueda
+     * liberar (en Windows no se puede reemplazar un archivo mapeado). Si alguien retiene todavía
+     * una vista de findAll() el reemplazo puede fallar, en ese caso se sigue con el snapshot anterior.
+     */
+    public synchronized void guardarSnapshot() throws IOException {
+        Vista catalogo;
+        this.lock.readLock().lock();
+        try {
+            catalogo = new Vista(this.snapshot, new HashMap<>(this.guardados), this.examenesNuevos(), false);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+
+        Path temporal = SnapshotCatalogo.escribirAparte(this.archivo, catalogo);
+        Map<Long, Examen> escritos = catalogo.guardados;
+        catalogo = null;
+
+        this.lock.writeLock().lock();
+        try {
+            this.snapshot = null;
+            try {
+                Archivos.reemplazar(temporal, this.archivo);
+            } catch (IOException e) {
+                Files.deleteIfExists(temporal);
+                this.snapshot = Files.exists(this.archivo) ? SnapshotCatalogo.abrir(this.archivo) : null;
+                throw e;
+            }
+            this.snapshot = SnapshotCatalogo.abrir(this.archivo);
+            // Solo se descarta lo que quedó en el archivo, no lo que se volvió a guardar mientras tanto
+            this.guardados.entrySet().removeIf(entrada -> escritos.get(entrada.getKey()) == entrada.getValue());
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return exámenes guardados que aún no están en el snapshot
+     */
+    public int cambiosPendientes() {
+        this.lock.readLock().lock();
+        try {
+            return this.guardados.size();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    private Examen buscarPorId(Long id) {
+        if (id == null) {
+            return null;
+        }
+        Examen examen = this.guardados.get(id);
+        if (examen != null || this.snapshot == null) {
+            return examen;
+        }
+        int numero = this.snapshot.buscarPorId(id);
+        return numero < 0 ? null : this.snapshot.examen(numero);
+    }
+
+    private Examen versionVigente(Examen delSnapshot) {
+        return this.guardados.getOrDefault(delSnapshot.getId(), delSnapshot);
+    }
+
+    /**
+     * Exámenes guardados cuyo id no estaba en el snapshot, van al final de findAll()
+     */
+    private List<Examen> examenesNuevos() {
+        List<Examen> nuevos = new ArrayList<>();
+        for (Examen examen : this.guardados.values()) {
+            if (this.snapshot == null || this.snapshot.buscarPorId(examen.getIdPrimitivo()) < 0) {
+                nuevos.add(examen);
+            }
+        }
+        return nuevos;
+    }
+
+    /**
+     * Catálogo en el momento en que se pidió: los exámenes del snapshot (con su última versión si se
+     * volvieron a guardar) seguidos de los nuevos. Los del snapshot se decodifican en cada get(...),
+     * los guardados se copian si la vista sale del repositorio (copias = true).
+     */
+    private static final class Vista extends AbstractList<Examen> implements RandomAccess {
+
+        private final SnapshotCatalogo snapshot;
+        private final Map<Long, Examen> guardados;
+        private final List<Examen> nuevos;
+        private final int enSnapshot;
+        private final boolean copias;
+
+        private Vista(SnapshotCatalogo snapshot, Map<Long, Examen> guardados, List<Examen> nuevos, boolean copias) {
+            this.snapshot = snapshot;
+            this.guardados = guardados;
+            this.nuevos = nuevos;
+            this.enSnapshot = snapshot == null ? 0 : snapshot.size();
+            this.copias = copias;
+        }
+
+        @Override
+        public Examen get(int indice) {
+            if (indice >= this.enSnapshot) {
+                return this.entregar(this.nuevos.get(indice - this.enSnapshot));
+            }
+            Examen examen = this.snapshot.examen(indice);
+            Examen guardado = this.guardados.get(examen.getId());
+            return guardado == null ? examen : this.entregar(guardado);
+        }
+
+        private Examen entregar(Examen guardado) {
+            return this.copias ? guardado.copia() : guardado;
+        }
+
+        @Override
+        public int size() {
+            return this.enSnapshot + this.nuevos.size();
+        }
+
+    }
+
+}
@@ -0,0 +1,122 @@
+package org.magadiflo.mockito.app.repositories.impl;
+
+import org.magadiflo.mockito.app.cache.CacheLocal;
+import org.magadiflo.mockito.app.cache.EstadisticasCache;
+import org.magadiflo.mockito.app.repositories.IPreguntasPorExamenRepository;
+import org.magadiflo.mockito.app.repositories.IPreguntasRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decorador de IPreguntasRepository que guarda en cache las preguntas de cada examen.
+ * Como guardarVarias(...) no indica a qué examen pertenecen las preguntas, esas escrituras
+ * invalidan la cache completa. Para un IPreguntasPorExamenRepository se usa PorExamen, cuyo
+ * guardarPorExamen(...) solo invalida los exámenes guardados.
+ */
+public class PreguntaRepositoryCacheImpl implements IPreguntasRepository {
+
+    private final IPreguntasRepository preguntasRepository;
+    private final CacheLocal<Long, List<String>> cache;
+
+    public PreguntaRepositoryCacheImpl(IPreguntasRepository preguntasRepository, int tamanioMaximo,
+                                       long ttl, TimeUnit unidad) {
+        this(preguntasRepository, new CacheLocal<>(tamanioMaximo, ttl, unidad));
+    }
+
+    public PreguntaRepositoryCacheImpl(IPreguntasRepository preguntasRepository, CacheLocal<Long, List<String>> cache) {
+        this.preguntasRepository = preguntasRepository;
+        this.cache = cache;
+    }
+
+    @Override
+    public List<String> findPreguntasByExamenId(Long id) {
+        return this.cache.obtener(id, this.preguntasRepository::findPreguntasByExamenId);
+    }
+
+    /**
+     * Responde desde la cache lo que pueda y pide al repositorio, en una sola llamada,
+     * únicamente los ids que faltan.
+     */
+    @Override
+    public Map<Long, List<String>> findPreguntasByExamenIds(Collection<Long> ids) {
+        Map<Long, List<String>> preguntasPorExamen = new HashMap<>();
+        List<Long> faltantes = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            List<String> preguntas = this.cache.buscar(id);
+            if (preguntas != null) {
+                preguntasPorExamen.put(id, preguntas);
+            } else {
+                faltantes.add(id);
+            }
+        }
+        if (!faltantes.isEmpty()) {
+            // Una escritura durante la carga invalida la cache: lo cargado se devuelve pero no se guarda
+            long versionLeida = this.cache.version();
+            Map<Long, List<String>> cargadas = this.preguntasRepository.findPreguntasByExamenIds(faltantes);
+            cargadas.forEach((id, preguntas) -> {
+                if (preguntas != null) {
+                    this.cache.ponerSiVigente(id, preguntas, versionLeida);
+                }
+            });
+            preguntasPorExamen.putAll(cargadas);
+        }
+        return preguntasPorExamen;
+    }
+
+    @Override
+    public void guardarVarias(List<String> preguntas) {
+        try {
+            this.preguntasRepository.guardarVarias(preguntas);
+        } finally {
+            this.cache.invalidarTodo();
+        }
+    }
+
+    @Override
+    public void guardarVariasEnLote(List<List<String>> lotes) {
+        try {
+            this.preguntasRepository.guardarVariasEnLote(lotes);
+        } finally {
+            this.cache.invalidarTodo();
+        }
+    }
+
+    public EstadisticasCache estadisticas() {
+        return this.cache.estadisticas();
+    }
+
+    /**
+     * La misma cache sobre un repositorio que guarda las preguntas por examen.
+     */
+    public static class PorExamen extends PreguntaRepositoryCacheImpl implements IPreguntasPorExamenRepository {
+
+        private final IPreguntasPorExamenRepository preguntasRepository;
+
+        public PorExamen(IPreguntasPorExamenRepository preguntasRepository, int tamanioMaximo,
+                         long ttl, TimeUnit unidad) {
+            this(preguntasRepository, new CacheLocal<>(tamanioMaximo, ttl, unidad));
+        }
+
+        public PorExamen(IPreguntasPorExamenRepository preguntasRepository, CacheLocal<Long, List<String>> cache) {
+            super(preguntasRepository, cache);
+            this.preguntasRepository = preguntasRepository;
+        }
+
+        @Override
+        public void guardarPorExamen(Map<Long, List<String>> preguntasPorExamen) {
+            try {
+                this.preguntasRepository.guardarPorExamen(preguntasPorExamen);
+            } finally {
+                preguntasPorExamen.keySet().forEach(super.cache::invalidar);
+            }
+        }
+
+    }
+
+}
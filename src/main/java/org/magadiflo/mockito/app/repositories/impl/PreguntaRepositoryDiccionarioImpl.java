@@ -0,0 +1,82 @@
+package org.magadiflo.mockito.app.repositories.impl;
+
+import org.magadiflo.mockito.app.models.DiccionarioPreguntas;
+import org.magadiflo.mockito.app.models.Preguntas;
+import org.magadiflo.mockito.app.models.PreguntasCodificadas;
+import org.magadiflo.mockito.app.repositories.IPreguntasPorExamenRepository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Repositorio de preguntas en memoria para catálogos donde el mismo texto se repite en muchos
+ * exámenes: cada pregunta distinta se guarda una vez en un DiccionarioPreguntas y cada examen
+ * solo guarda sus códigos (int[]).
+ * <p>
+ * Las listas devueltas son PreguntasCodificadas: el servicio las asigna a los exámenes sin copiarlas
+ * (ver Preguntas.inmutables(...)) y el texto se obtiene del diccionario en cada get(...).
+ * <p>
+ * Las preguntas se guardan por examen (ver IPreguntasPorExamenRepository): guardarVarias(...) no hace
+ * nada en vez de llenar el diccionario con preguntas que ningún examen usa.
+ */
+public class PreguntaRepositoryDiccionarioImpl implements IPreguntasPorExamenRepository {
+
+    private final DiccionarioPreguntas diccionario;
+    private final Map<Long, PreguntasCodificadas> preguntasPorExamen = new ConcurrentHashMap<>();
+
+    public PreguntaRepositoryDiccionarioImpl() {
+        this(new DiccionarioPreguntas());
+    }
+
+    /**
+     * @param diccionario se puede compartir entre varios repositorios
+     */
+    public PreguntaRepositoryDiccionarioImpl(DiccionarioPreguntas diccionario) {
+        this.diccionario = diccionario;
+    }
+
+    @Override
+    public List<String> findPreguntasByExamenId(Long id) {
+        List<String> preguntas = id == null ? null : this.preguntasPorExamen.get(id);
+        return preguntas == null ? Preguntas.NINGUNA : preguntas;
+    }
+
+    @Override
+    public Map<Long, List<String>> findPreguntasByExamenIds(Collection<Long> ids) {
+        Map<Long, List<String>> encontradas = new HashMap<>();
+        for (Long id : ids) {
+            List<String> preguntas = id == null ? null : this.preguntasPorExamen.get(id);
+            if (preguntas != null) {
+                encontradas.put(id, preguntas);
+            }
+        }
+        return encontradas;
+    }
+
+    @Override
+    public void guardarVarias(List<String> preguntas) {
+        // Sin el id del examen no hay a quién asociarlas, se guardan con guardarPorExamen(...)
+    }
+
+    @Override
+    public void guardarPorExamen(Map<Long, List<String>> preguntasPorExamen) {
+        preguntasPorExamen.forEach(this::guardar);
+    }
+
+    /**
+     * Guarda las preguntas del examen como códigos del diccionario, reemplazando las que tuviera.
+     *
+     * @throws NullPointerException si alguna pregunta es null, en ese caso no se guarda nada
+     */
+    public void guardar(long examenId, List<String> preguntas) {
+        this.preguntasPorExamen.put(examenId, this.diccionario.codificar(preguntas));
+    }
+
+    public DiccionarioPreguntas diccionario() {
+        return this.diccionario;
+    }
+
+}
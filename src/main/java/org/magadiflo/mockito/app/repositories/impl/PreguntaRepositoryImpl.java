@@ -3,19 +3,38 @@ package org.magadiflo.mockito.app.repositories.impl;
 import org.magadiflo.mockito.app.Datos;
 import org.magadiflo.mockito.app.repositories.IPreguntasRepository;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class PreguntaRepositoryImpl implements IPreguntasRepository {
 
+    private static final System.Logger LOGGER = System.getLogger(PreguntaRepositoryImpl.class.getName());
+
     @Override
     public List<String> findPreguntasByExamenId(Long id) {
-        System.out.println("PreguntaRepositoryImpl.findPreguntasByExamenId");
+        LOGGER.log(System.Logger.Level.DEBUG, "PreguntaRepositoryImpl.findPreguntasByExamenId");
         return Datos.PREGUNTAS;
     }
 
+    @Override
+    public Map<Long, List<String>> findPreguntasByExamenIds(Collection<Long> ids) {
+        LOGGER.log(System.Logger.Level.DEBUG, "PreguntaRepositoryImpl.findPreguntasByExamenIds");
+        Map<Long, List<String>> preguntasPorExamen = new HashMap<>();
+        ids.forEach(id -> preguntasPorExamen.put(id, Datos.PREGUNTAS));
+        return preguntasPorExamen;
+    }
+
     @Override
     public void guardarVarias(List<String> preguntas) {
-        System.out.println("PreguntaRepositoryImpl.guardarVarias");
+        LOGGER.log(System.Logger.Level.DEBUG, "PreguntaRepositoryImpl.guardarVarias");
+
+    }
+
+    @Override
+    public void guardarVariasEnLote(List<List<String>> lotes) {
+        LOGGER.log(System.Logger.Level.DEBUG, "PreguntaRepositoryImpl.guardarVariasEnLote");
 
     }
 
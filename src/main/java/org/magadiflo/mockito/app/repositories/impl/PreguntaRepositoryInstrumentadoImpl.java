@@ -0,0 +1,71 @@
+package org.magadiflo.mockito.app.repositories.impl;
+
+import org.magadiflo.mockito.app.metricas.RegistroMetricas;
+import org.magadiflo.mockito.app.repositories.IPreguntasPorExamenRepository;
+import org.magadiflo.mockito.app.repositories.IPreguntasRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decorador de IPreguntasRepository que registra llamadas, errores, latencia y tamaño de resultados.
+ * Para un IPreguntasPorExamenRepository se usa PorExamen, que además mide guardarPorExamen(...).
+ */
+public class PreguntaRepositoryInstrumentadoImpl implements IPreguntasRepository {
+
+    private final IPreguntasRepository preguntasRepository;
+    private final RegistroMetricas registroMetricas;
+
+    public PreguntaRepositoryInstrumentadoImpl(IPreguntasRepository preguntasRepository,
+                                               RegistroMetricas registroMetricas) {
+        this.preguntasRepository = preguntasRepository;
+        this.registroMetricas = registroMetricas;
+    }
+
+    @Override
+    public List<String> findPreguntasByExamenId(Long id) {
+        return this.registroMetricas.medir("preguntasRepository.findPreguntasByExamenId",
+                () -> this.preguntasRepository.findPreguntasByExamenId(id), List::size);
+    }
+
+    @Override
+    public Map<Long, List<String>> findPreguntasByExamenIds(Collection<Long> ids) {
+        return this.registroMetricas.medir("preguntasRepository.findPreguntasByExamenIds",
+                () -> this.preguntasRepository.findPreguntasByExamenIds(ids),
+                preguntasPorExamen -> preguntasPorExamen.values().stream().mapToInt(List::size).sum());
+    }
+
+    @Override
+    public void guardarVarias(List<String> preguntas) {
+        this.registroMetricas.medir("preguntasRepository.guardarVarias",
+                () -> this.preguntasRepository.guardarVarias(preguntas));
+    }
+
+    @Override
+    public void guardarVariasEnLote(List<List<String>> lotes) {
+        this.registroMetricas.medir("preguntasRepository.guardarVariasEnLote",
+                () -> this.preguntasRepository.guardarVariasEnLote(lotes));
+    }
+
+    /**
+     * El mismo decorador sobre un repositorio que guarda las preguntas por examen.
+     */
+    public static class PorExamen extends PreguntaRepositoryInstrumentadoImpl implements IPreguntasPorExamenRepository {
+
+        private final IPreguntasPorExamenRepository preguntasRepository;
+
+        public PorExamen(IPreguntasPorExamenRepository preguntasRepository, RegistroMetricas registroMetricas) {
+            super(preguntasRepository, registroMetricas);
+            this.preguntasRepository = preguntasRepository;
+        }
+
+        @Override
+        public void guardarPorExamen(Map<Long, List<String>> preguntasPorExamen) {
+            super.registroMetricas.medir("preguntasRepository.guardarPorExamen",
+                    () -> this.preguntasRepository.guardarPorExamen(preguntasPorExamen));
+        }
+
+    }
+
+}
@@ -0,0 +1,341 @@
+package org.magadiflo.mockito.app.repositories.impl;
+
+import org.magadiflo.mockito.app.models.PreguntasInmutables;
+import org.magadiflo.mockito.app.repositories.IPreguntasPorExamenRepository;
+import org.magadiflo.mockito.app.serializacion.Utf8;
+import org.magadiflo.mockito.app.serializacion.Varint;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Repositorio de preguntas para catálogos con decenas de millones de preguntas, guardadas fuera del
+ * heap para que las pausas del GC no crezcan con el tamaño del catálogo.
+ * <p>
+ * - Las preguntas de cada examen se guardan como un registro en bloques de memoria directa (ByteBuffer
+ *   directo): [cantidad: varint] y por cada pregunta [longitud: varint][texto en UTF-8].
+ * - El índice por id de examen es una tabla hash de direccionamiento abierto sobre dos long[], sin
+ *   Long ni entradas de mapa: en el heap quedan dos arreglos, no un objeto por examen o por pregunta.
+ * - findPreguntasByExamenId(...) devuelve una vista que decodifica cada pregunta al pedirla. Es
+ *   PreguntasInmutables, así los exámenes la comparten sin decodificarla (ver Preguntas.inmutables(...)).
+ * <p>
+ * Los registros nunca se modifican: volver a guardar un examen agrega un registro nuevo y el anterior
+ * queda como basura hasta compactar(), así las vistas ya entregadas siguen siendo válidas.
+ * La memoria directa está limitada por -XX:MaxDirectMemorySize.
+ * <p>
+ * Las preguntas se guardan por examen (ver IPreguntasPorExamenRepository), guardarVarias(...) no hace nada.
+ */
+public class PreguntaRepositoryOffHeapImpl implements IPreguntasPorExamenRepository {
+
+    public static final int TAMANIO_BLOQUE_POR_DEFECTO = 64 * 1024 * 1024;
+    private static final int CAPACIDAD_INICIAL = 1024;
+    private static final double CARGA_MAXIMA = 0.6;
+
+    private final int tamanioBloque;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] claves;
+    /**
+     * Ubicación del registro de cada clave: (bloque << 32 | posición) + 1, 0 = casilla libre
+     */
+    private long[] ubicaciones;
+    private int cantidad;
+
+    private List<ByteBuffer> bloques = new ArrayList<>();
+    private ByteBuffer bloqueActual;
+    private long bytesUsados;
+    private long bytesDescartados;
+
+    public PreguntaRepositoryOffHeapImpl() {
+        this(TAMANIO_BLOQUE_POR_DEFECTO);
+    }
+
+    /**
+     * @param tamanioBloque bytes de memoria directa que se reservan cada vez que se llena un bloque,
+     *                      un registro más grande recibe un bloque propio
+     */
+    public PreguntaRepositoryOffHeapImpl(int tamanioBloque) {
+        if (tamanioBloque <= 0) {
+            throw new IllegalArgumentException("tamanioBloque debe ser mayor a cero");
+        }
+        this.tamanioBloque = tamanioBloque;
+        this.claves = new long[CAPACIDAD_INICIAL];
+        this.ubicaciones = new long[CAPACIDAD_INICIAL];
+    }
+
+    @Override
+    public List<String> findPreguntasByExamenId(Long id) {
+        return id == null ? List.of() : this.findPreguntasByExamenId(id.longValue());
+    }
+
+    /**
+     * Igual que findPreguntasByExamenId(Long) pero sin crear un Long por consulta.
+     *
+     * @return vista de solo lectura, vacía si el examen no tiene preguntas guardadas
+     */
+    public List<String> findPreguntasByExamenId(long id) {
+        this.lock.readLock().lock();
+        try {
+            ByteBuffer registro = this.registro(id);
+            return registro == null ? List.of() : new Vista(registro);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<Long, List<String>> findPreguntasByExamenIds(Collection<Long> ids) {
+        Map<Long, List<String>> preguntasPorExamen = new HashMap<>();
+        this.lock.readLock().lock();
+        try {
+            for (Long id : ids) {
+                ByteBuffer registro = id == null ? null : this.registro(id);
+                if (registro != null) {
+                    preguntasPorExamen.put(id, new Vista(registro));
+                }
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+        return preguntasPorExamen;
+    }
+
+    @Override
+    public void guardarVarias(List<String> preguntas) {
+        // Sin el id del examen no hay dónde indexarlas, se guardan con guardarPorExamen(...)
+    }
+
+    @Override
+    public void guardarPorExamen(Map<Long, List<String>> preguntasPorExamen) {
+        this.lock.writeLock().lock();
+        try {
+            preguntasPorExamen.forEach(this::guardar);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Guarda las preguntas del examen, reemplazando las que tuviera.
+     *
+     * @throws NullPointerException si alguna pregunta es null, en ese caso no se guarda nada
+     */
+    public void guardar(long examenId, List<String> preguntas) {
+        int tamanio = tamanioRegistro(preguntas);
+        this.lock.writeLock().lock();
+        try {
+            ByteBuffer destino = this.reservar(tamanio);
+            Varint.escribir(destino, preguntas.size());
+            for (String pregunta : preguntas) {
+                Utf8.escribir(destino, pregunta);
+            }
+            long ubicacion = ubicacion(this.bloques.size() - 1, this.bloqueActual.position() - tamanio);
+            int casilla = this.casilla(examenId);
+            if (this.ubicaciones[casilla] != 0) {
+                this.bytesDescartados += this.leerRegistro(this.ubicaciones[casilla]).remaining();
+            } else {
+                this.claves[casilla] = examenId;
+                this.cantidad++;
+            }
+            this.ubicaciones[casilla] = ubicacion + 1;
+            this.bytesUsados += tamanio;
+            if (this.cantidad > this.claves.length * CARGA_MAXIMA) {
+                this.redimensionar(this.claves.length * 2);
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return número de exámenes con preguntas guardadas
+     */
+    public int size() {
+        this.lock.readLock().lock();
+        try {
+            return this.cantidad;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return bytes ocupados por registros, incluidos los reemplazados que aún no se compactan
+     */
+    public long bytesUsados() {
+        this.lock.readLock().lock();
+        try {
+            return this.bytesUsados;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return bytes de registros reemplazados por un guardar(...) posterior
+     */
+    public long bytesDescartados() {
+        this.lock.readLock().lock();
+        try {
+            return this.bytesDescartados;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Copia los registros vigentes a bloques nuevos y libera los anteriores cuando ya no quede ninguna
+     * vista que los use. Bloquea las escrituras y las lecturas mientras copia.
+     */
+    public void compactar() {
+        this.lock.writeLock().lock();
+        try {
+            List<ByteBuffer> anteriores = this.bloques;
+            long[] vigentes = this.ubicaciones;
+            this.bloques = new ArrayList<>();
+            this.bloqueActual = null;
+            this.bytesUsados = 0;
+            this.bytesDescartados = 0;
+            this.ubicaciones = new long[vigentes.length];
+            for (int casilla = 0; casilla < vigentes.length; casilla++) {
+                if (vigentes[casilla] == 0) {
+                    continue;
+                }
+                ByteBuffer origen = leerRegistro(anteriores, vigentes[casilla]);
+                int tamanio = origen.remaining();
+                this.reservar(tamanio).put(origen);
+                this.ubicaciones[casilla] = ubicacion(this.bloques.size() - 1, this.bloqueActual.position() - tamanio) + 1;
+                this.bytesUsados += tamanio;
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return el registro del examen como un buffer propio, o null si no tiene preguntas guardadas
+     */
+    private ByteBuffer registro(long id) {
+        long ubicacion = this.ubicaciones[this.casilla(id)];
+        return ubicacion == 0 ? null : this.leerRegistro(ubicacion);
+    }
+
+    private ByteBuffer leerRegistro(long ubicacion) {
+        return leerRegistro(this.bloques, ubicacion);
+    }
+
+    /**
+     * Recorre solo las longitudes para saber dónde termina el registro, sin decodificar los textos
+     */
+    private static ByteBuffer leerRegistro(List<ByteBuffer> bloques, long ubicacion) {
+        ByteBuffer bloque = bloques.get((int) ((ubicacion - 1) >>> 32));
+        int inicio = (int) (ubicacion - 1);
+        ByteBuffer lector = bloque.slice(inicio, bloque.capacity() - inicio);
+        long preguntas = Varint.leer(lector);
+        for (long i = 0; i < preguntas; i++) {
+            long longitud = Varint.leer(lector);
+            lector.position(lector.position() + (int) longitud);
+        }
+        return bloque.slice(inicio, lector.position());
+    }
+
+    /**
+     * @return casilla de la clave, o la casilla libre donde iría si no está
+     */
+    private int casilla(long id) {
+        int mascara = this.claves.length - 1;
+        int casilla = mezclar(id) & mascara;
+        while (this.ubicaciones[casilla] != 0 && this.claves[casilla] != id) {
+            casilla = (casilla + 1) & mascara;
+        }
+        return casilla;
+    }
+
+    private void redimensionar(int capacidad) {
+        long[] clavesAnteriores = this.claves;
+        long[] ubicacionesAnteriores = this.ubicaciones;
+        this.claves = new long[capacidad];
+        this.ubicaciones = new long[capacidad];
+        for (int i = 0; i < clavesAnteriores.length; i++) {
+            if (ubicacionesAnteriores[i] != 0) {
+                int casilla = this.casilla(clavesAnteriores[i]);
+                this.claves[casilla] = clavesAnteriores[i];
+                this.ubicaciones[casilla] = ubicacionesAnteriores[i];
+            }
+        }
+    }
+
+    /**
+     * @return un buffer de exactamente {@code tamanio} bytes en el bloque actual, o en uno nuevo si no cabe
+     */
+    private ByteBuffer reservar(int tamanio) {
+        if (this.bloqueActual == null || this.bloqueActual.remaining() < tamanio) {
+            this.bloqueActual = ByteBuffer.allocateDirect(Math.max(this.tamanioBloque, tamanio));
+            this.bloques.add(this.bloqueActual);
+        }
+        ByteBuffer destino = this.bloqueActual.slice(this.bloqueActual.position(), tamanio);
+        this.bloqueActual.position(this.bloqueActual.position() + tamanio);
+        return destino;
+    }
+
+    private static int tamanioRegistro(List<String> preguntas) {
+        long tamanio = Varint.tamanio(preguntas.size());
+        for (String pregunta : preguntas) {
+            tamanio += Utf8.tamanio(Objects.requireNonNull(pregunta, "pregunta"));
+        }
+        if (tamanio > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Las preguntas del examen superan los 2 GB");
+        }
+        return (int) tamanio;
+    }
+
+    private static long ubicacion(int bloque, int posicion) {
+        return (long) bloque << 32 | posicion;
+    }
+
+    private static int mezclar(long id) {
+        long mezclado = id * 0x9E3779B97F4A7C15L;
+        return (int) (mezclado ^ (mezclado >>> 32));
+    }
+
+    /**
+     * Preguntas de un examen sobre su registro fuera del heap, cada get(...) decodifica una pregunta.
+     * Solo guarda la posición de cada pregunta dentro del registro.
+     */
+    private static final class Vista extends PreguntasInmutables {
+
+        private final ByteBuffer registro;
+        private final int[] posiciones;
+
+        private Vista(ByteBuffer registro) {
+            this.registro = registro;
+            ByteBuffer lector = registro.duplicate();
+            this.posiciones = new int[(int) Varint.leer(lector)];
+            for (int i = 0; i < this.posiciones.length; i++) {
+                this.posiciones[i] = lector.position();
+                long longitud = Varint.leer(lector);
+                lector.position(lector.position() + (int) longitud);
+            }
+        }
+
+        @Override
+        public String get(int indice) {
+            Objects.checkIndex(indice, this.posiciones.length);
+            return Utf8.leer(this.registro.slice(this.posiciones[indice], this.registro.limit() - this.posiciones[indice]));
+        }
+
+        @Override
+        public int size() {
+            return this.posiciones.length;
+        }
+
+    }
+
+}
@@ -0,0 +1,68 @@
+package org.magadiflo.mockito.app.serializacion;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Reemplazo de archivos que se leen mapeados en memoria (SnapshotCatalogo, ExamenRepositoryArchivoImpl).
+ * <p>
+ * Java no tiene una forma segura de liberar un MappedByteBuffer: el mapeo se libera cuando el
+ * recolector junta el buffer y todas sus vistas. En Windows un archivo con un mapeo vivo no se
+ * puede reemplazar (ni de forma atómica ni sin ella), por eso reemplazar(...) pide una recolección
+ * y reintenta unas pocas veces antes de rendirse. Quien llama debe soltar antes sus referencias
+ * al mapeo anterior, si otro las retiene el reemplazo falla con la excepción original.
+ */
+public final class Archivos {
+
+    private static final int INTENTOS_REEMPLAZO = 5;
+
+    private Archivos() {
+    }
+
+    /**
+     * Mueve origen sobre destino, de forma atómica si el sistema de archivos lo permite.
+     */
+    public static void reemplazar(Path origen, Path destino) throws IOException {
+        for (int intento = 1; ; intento++) {
+            try {
+                mover(origen, destino);
+                return;
+            } catch (NoSuchFileException e) {
+                throw e;
+            } catch (FileSystemException e) {
+                if (intento == INTENTOS_REEMPLAZO) {
+                    throw e;
+                }
+                // Probablemente el destino sigue mapeado, se espera a que se libere el mapeo anterior
+                System.gc();
+                esperar(10L * intento);
+            }
+        }
+    }
+
+    private static void mover(Path origen, Path destino) throws IOException {
+        try {
+            Files.move(origen, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(origen, destino, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void esperar(long milisegundos) throws InterruptedIOException {
+        try {
+            Thread.sleep(milisegundos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException interrumpido = new InterruptedIOException("Se interrumpió el reemplazo del archivo");
+            interrumpido.initCause(e);
+            throw interrumpido;
+        }
+    }
+
+}
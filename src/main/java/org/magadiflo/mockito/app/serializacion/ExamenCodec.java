@@ -0,0 +1,225 @@
+package org.magadiflo.mockito.app.serializacion;
+
+import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.models.Preguntas;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Formato binario compacto y versionado de un Examen con sus preguntas.
+ * <pre>
+ * [versión: 1 byte] y luego campos [etiqueta varint = número << 3 | tipo][valor]
+ *   tipo 0: varint          tipo 2: longitud varint + bytes
+ *   campo 1 (tipo 0): id en zigzag, se omite si el examen no tiene id
+ *   campo 2 (tipo 2): nombre en UTF-8, se omite si es null
+ *   campo 3 (tipo 2): una pregunta en UTF-8, se repite por cada pregunta en orden
+ * </pre>
+ * Evolución del esquema: un lector ignora los campos que no conoce, así se pueden agregar campos
+ * nuevos sin romper los datos ni los lectores anteriores. La versión solo cambia ante un cambio
+ * incompatible y un lector rechaza versiones mayores a la suya.
+ * <p>
+ * El mensaje ocupa desde la posición hasta el límite del buffer, el que llama se encarga de delimitarlo.
+ * decodificar(...) lee todo y no retiene el origen, que se puede reutilizar o devolver al pool.
+ * decodificarDiferido(...) no copia las preguntas ni las convierte a String hasta el primer
+ * getPreguntas(), pero retiene una vista del origen: solo sirve para datos que no cambian.
+ */
+public final class ExamenCodec {
+
+    public static final int VERSION = 1;
+
+    private static final int TIPO_VARINT = 0;
+    private static final int TIPO_BYTES = 2;
+    private static final int CAMPO_ID = 1;
+    private static final int CAMPO_NOMBRE = 2;
+    private static final int CAMPO_PREGUNTA = 3;
+
+    private static final int ETIQUETA_ID = CAMPO_ID << 3 | TIPO_VARINT;
+    private static final int ETIQUETA_NOMBRE = CAMPO_NOMBRE << 3 | TIPO_BYTES;
+    private static final int ETIQUETA_PREGUNTA = CAMPO_PREGUNTA << 3 | TIPO_BYTES;
+
+    private ExamenCodec() {
+    }
+
+    /**
+     * @return bytes exactos que ocupará el examen codificado
+     */
+    public static int tamanio(Examen examen) {
+        int tamanio = 1;
+        if (examen.tieneId()) {
+            tamanio += 1 + Varint.tamanio(Varint.zigzag(examen.getIdPrimitivo()));
+        }
+        if (examen.getNombre() != null) {
+            tamanio += 1 + Utf8.tamanio(examen.getNombre());
+        }
+        for (String pregunta : examen.getPreguntas()) {
+            tamanio += 1 + Utf8.tamanio(pregunta);
+        }
+        return tamanio;
+    }
+
+    /**
+     * Escribe el examen a partir de la posición actual del destino y la avanza.
+     *
+     * @throws java.nio.BufferOverflowException si no hay tamanio(examen) bytes disponibles
+     */
+    public static void codificar(Examen examen, ByteBuffer destino) {
+        destino.put((byte) VERSION);
+        if (examen.tieneId()) {
+            destino.put((byte) ETIQUETA_ID);
+            Varint.escribir(destino, Varint.zigzag(examen.getIdPrimitivo()));
+        }
+        if (examen.getNombre() != null) {
+            destino.put((byte) ETIQUETA_NOMBRE);
+            Utf8.escribir(destino, examen.getNombre());
+        }
+        for (String pregunta : examen.getPreguntas()) {
+            destino.put((byte) ETIQUETA_PREGUNTA);
+            Utf8.escribir(destino, pregunta);
+        }
+    }
+
+    /**
+     * Codifica el examen en un buffer del pool, listo para leer (posición 0, límite al final del mensaje).
+     * El que llama debe devolverlo al pool cuando termine.
+     */
+    public static ByteBuffer codificar(Examen examen, PoolBuffers pool) {
+        ByteBuffer buffer = pool.tomar(tamanio(examen));
+        codificar(examen, buffer);
+        return buffer.flip();
+    }
+
+    public static byte[] codificar(Examen examen) {
+        byte[] bytes = new byte[tamanio(examen)];
+        codificar(examen, ByteBuffer.wrap(bytes));
+        return bytes;
+    }
+
+    /**
+     * Lee un examen con sus preguntas desde la posición hasta el límite del origen, dejando la
+     * posición en el límite. El examen no retiene el origen.
+     *
+     * @throws IllegalArgumentException si la versión no es soportada o el mensaje está mal formado
+     */
+    public static Examen decodificar(ByteBuffer origen) {
+        return decodificar(origen, false);
+    }
+
+    /**
+     * Igual que decodificar(...) pero las preguntas quedan diferidas sobre una vista del origen
+     * (sin copiarlo). Pensado para archivos mapeados de solo agregar: el contenido de ese rango
+     * no debe cambiar mientras el examen se siga usando, nunca usarlo con buffers del pool.
+     *
+     * @throws IllegalArgumentException si la versión no es soportada o el mensaje está mal formado
+     */
+    public static Examen decodificarDiferido(ByteBuffer origen) {
+        return decodificar(origen, true);
+    }
+
+    public static Examen decodificar(byte[] bytes) {
+        return decodificar(ByteBuffer.wrap(bytes));
+    }
+
+    private static Examen decodificar(ByteBuffer origen, boolean diferido) {
+        ByteBuffer mensaje = origen.slice();
+        origen.position(origen.limit());
+        try {
+            int version = mensaje.get() & 0xFF;
+            if (version == 0 || version > VERSION) {
+                throw new IllegalArgumentException("Versión de examen no soportada: " + version);
+            }
+            Long id = null;
+            String nombre = null;
+            int[] preguntas = new int[8];
+            String[] leidas = diferido ? null : new String[8];
+            int numeroPreguntas = 0;
+            while (mensaje.hasRemaining()) {
+                int etiqueta = (int) Varint.leer(mensaje);
+                switch (etiqueta) {
+                    case ETIQUETA_ID -> id = Varint.deshacerZigzag(Varint.leer(mensaje));
+                    case ETIQUETA_NOMBRE -> nombre = Utf8.leer(mensaje);
+                    case ETIQUETA_PREGUNTA -> {
+                        if (!diferido) {
+                            if (numeroPreguntas == leidas.length) {
+                                leidas = Arrays.copyOf(leidas, numeroPreguntas * 2);
+                            }
+                            leidas[numeroPreguntas++] = Utf8.leer(mensaje);
+                            continue;
+                        }
+                        if (numeroPreguntas == preguntas.length) {
+                            preguntas = Arrays.copyOf(preguntas, numeroPreguntas * 2);
+                        }
+                        // Solo se recuerda dónde empieza la pregunta, el texto se decodifica al pedirlo
+                        preguntas[numeroPreguntas++] = mensaje.position();
+                        saltar(mensaje, Varint.leer(mensaje));
+                    }
+                    default -> saltarCampoDesconocido(mensaje, etiqueta);
+                }
+            }
+            Examen examen = new Examen(id, nombre);
+            if (!diferido) {
+                examen.setPreguntas(Arrays.asList(leidas).subList(0, numeroPreguntas));
+            } else if (numeroPreguntas > 0) {
+                int[] posiciones = preguntas;
+                int cantidad = numeroPreguntas;
+                examen.setPreguntasDiferidas(() -> leerPreguntas(mensaje, posiciones, cantidad));
+            }
+            return examen;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Examen codificado incompleto", e);
+        }
+    }
+
+    /**
+     * Lee solo el id, sin decodificar el nombre ni recorrer las preguntas. No mueve la posición del origen.
+     *
+     * @return el id o null si el examen no tiene
+     */
+    public static Long leerId(ByteBuffer origen) {
+        ByteBuffer mensaje = origen.slice();
+        try {
+            int version = mensaje.get() & 0xFF;
+            if (version == 0 || version > VERSION) {
+                throw new IllegalArgumentException("Versión de examen no soportada: " + version);
+            }
+            while (mensaje.hasRemaining()) {
+                int etiqueta = (int) Varint.leer(mensaje);
+                if (etiqueta == ETIQUETA_ID) {
+                    return Varint.deshacerZigzag(Varint.leer(mensaje));
+                }
+                saltarCampoDesconocido(mensaje, etiqueta);
+            }
+            return null;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Examen codificado incompleto", e);
+        }
+    }
+
+    private static List<String> leerPreguntas(ByteBuffer mensaje, int[] posiciones, int cantidad) {
+        ByteBuffer lector = mensaje.duplicate();
+        String[] preguntas = new String[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            lector.position(posiciones[i]);
+            preguntas[i] = Utf8.leer(lector);
+        }
+        return Preguntas.inmutables(Arrays.asList(preguntas));
+    }
+
+    private static void saltarCampoDesconocido(ByteBuffer mensaje, int etiqueta) {
+        switch (etiqueta & 0x7) {
+            case TIPO_VARINT -> Varint.leer(mensaje);
+            case TIPO_BYTES -> saltar(mensaje, Varint.leer(mensaje));
+            default -> throw new IllegalArgumentException("Tipo de campo desconocido en la etiqueta " + etiqueta);
+        }
+    }
+
+    private static void saltar(ByteBuffer mensaje, long bytes) {
+        if (bytes < 0 || bytes > mensaje.remaining()) {
+            throw new IllegalArgumentException("Longitud de campo inválida: " + bytes);
+        }
+        mensaje.position(mensaje.position() + (int) bytes);
+    }
+
+}
@@ -0,0 +1,88 @@
+package org.magadiflo.mockito.app.serializacion;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Pool de ByteBuffers reutilizables agrupados por capacidad en potencias de dos,
+ * para no asignar un buffer nuevo en cada codificación.
+ * Los pedidos más grandes que la clase máxima se asignan y se descartan sin pasar por el pool.
+ */
+public class PoolBuffers {
+
+    private static final int CLASE_MINIMA = 8;   // 256 bytes
+    private static final int CLASE_MAXIMA = 20;  // 1 MB
+
+    private final boolean directos;
+    private final int retenidosPorClase;
+    private final ConcurrentLinkedQueue<ByteBuffer>[] libres;
+    private final AtomicIntegerArray cantidadLibres;
+
+    /**
+     * @param directos          true para buffers fuera del heap (ByteBuffer.allocateDirect)
+     * @param retenidosPorClase máximo de buffers libres que se guardan por cada capacidad
+     */
+    @SuppressWarnings("unchecked")
+    public PoolBuffers(boolean directos, int retenidosPorClase) {
+        if (retenidosPorClase <= 0) {
+            throw new IllegalArgumentException("retenidosPorClase debe ser mayor a cero");
+        }
+        this.directos = directos;
+        this.retenidosPorClase = retenidosPorClase;
+        this.libres = (ConcurrentLinkedQueue<ByteBuffer>[]) new ConcurrentLinkedQueue<?>[CLASE_MAXIMA - CLASE_MINIMA + 1];
+        for (int i = 0; i < this.libres.length; i++) {
+            this.libres[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.cantidadLibres = new AtomicIntegerArray(this.libres.length);
+    }
+
+    /**
+     * @return buffer limpio (posición 0, límite = capacidad) con al menos capacidadMinima bytes
+     */
+    public ByteBuffer tomar(int capacidadMinima) {
+        int clase = clase(capacidadMinima);
+        if (clase > CLASE_MAXIMA) {
+            return this.asignar(capacidadMinima);
+        }
+        int indice = clase - CLASE_MINIMA;
+        ByteBuffer buffer = this.libres[indice].poll();
+        if (buffer == null) {
+            return this.asignar(1 << clase);
+        }
+        this.cantidadLibres.decrementAndGet(indice);
+        return buffer.clear();
+    }
+
+    /**
+     * Devuelve el buffer al pool, el que llama no debe volver a usarlo.
+     */
+    public void devolver(ByteBuffer buffer) {
+        int capacidad = buffer.capacity();
+        if (buffer.isDirect() != this.directos || Integer.bitCount(capacidad) != 1) {
+            return;
+        }
+        int clase = Integer.numberOfTrailingZeros(capacidad);
+        if (clase < CLASE_MINIMA || clase > CLASE_MAXIMA) {
+            return;
+        }
+        int indice = clase - CLASE_MINIMA;
+        if (this.cantidadLibres.incrementAndGet(indice) > this.retenidosPorClase) {
+            this.cantidadLibres.decrementAndGet(indice);
+            return;
+        }
+        this.libres[indice].offer(buffer);
+    }
+
+    private ByteBuffer asignar(int capacidad) {
+        return this.directos ? ByteBuffer.allocateDirect(capacidad) : ByteBuffer.allocate(capacidad);
+    }
+
+    private static int clase(int capacidad) {
+        if (capacidad <= 1 << CLASE_MINIMA) {
+            return CLASE_MINIMA;
+        }
+        return Integer.SIZE - Integer.numberOfLeadingZeros(capacidad - 1);
+    }
+
+}
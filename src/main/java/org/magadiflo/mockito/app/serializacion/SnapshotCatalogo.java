@@ -0,0 +1,283 @@
+package org.magadiflo.mockito.app.serializacion;
+
+import org.magadiflo.mockito.app.models.Examen;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Foto del catálogo en un archivo, con los índices ya construidos para poder arrancar sin recorrerlo.
+ * <pre>
+ * cabecera:  [magia][versión][cantidad][capacidad índices][inicio tablas: long][id máximo: long]
+ * registros: [longitud: int][examen con ExamenCodec] por cada examen, en el orden de findAll()
+ * tablas:    posición de cada registro: long[cantidad]
+ *            índice por nombre: [hash del nombre: int][número de examen + 1: int] x capacidad
+ *            índice por id:     [id: long][número de examen + 1: int] x capacidad
+ * </pre>
+ * Los índices son tablas hash de direccionamiento abierto (sondeo lineal, 0 = libre) con el primer
+ * examen de cada nombre o id, igual que un findFirst() sobre findAll().
+ * <p>
+ * abrir(...) solo mapea el archivo en memoria, los exámenes se decodifican cuando se piden,
+ * por eso el arranque no depende del tamaño del catálogo. El archivo está limitado a 2 GB.
+ * Los exámenes entregados no retienen el mapeo, que se libera cuando ya nadie usa el catálogo
+ * ni sus vistas (ver Archivos).
+ */
+public final class SnapshotCatalogo {
+
+    private static final int MAGIA = 0x4558534E; // "EXSN"
+    private static final int VERSION = 1;
+    private static final int CABECERA = Integer.BYTES * 4 + Long.BYTES * 2;
+    private static final int ENTRADA_NOMBRE = Integer.BYTES * 2;
+    private static final int ENTRADA_ID = Long.BYTES + Integer.BYTES;
+
+    private final MappedByteBuffer mapeo;
+    private final int cantidad;
+    private final int mascara;
+    private final int inicioPosiciones;
+    private final int inicioNombres;
+    private final int inicioIds;
+    private final long idMaximo;
+
+    private SnapshotCatalogo(MappedByteBuffer mapeo) {
+        if (mapeo.capacity() < CABECERA || mapeo.getInt(0) != MAGIA) {
+            throw new IllegalArgumentException("El archivo no es un snapshot del catálogo");
+        }
+        if (mapeo.getInt(Integer.BYTES) != VERSION) {
+            throw new IllegalArgumentException("Versión de snapshot no soportada: " + mapeo.getInt(Integer.BYTES));
+        }
+        this.mapeo = mapeo;
+        this.cantidad = mapeo.getInt(Integer.BYTES * 2);
+        int capacidad = mapeo.getInt(Integer.BYTES * 3);
+        long inicioTablas = mapeo.getLong(Integer.BYTES * 4);
+        long fin = inicioTablas + (long) Long.BYTES * this.cantidad + (long) (ENTRADA_NOMBRE + ENTRADA_ID) * capacidad;
+        if (this.cantidad < 0 || Integer.bitCount(capacidad) != 1 || inicioTablas < CABECERA || fin != mapeo.capacity()) {
+            throw new IllegalArgumentException("Snapshot del catálogo incompleto o corrupto");
+        }
+        this.mascara = capacidad - 1;
+        this.inicioPosiciones = (int) inicioTablas;
+        this.inicioNombres = this.inicioPosiciones + Long.BYTES * this.cantidad;
+        this.inicioIds = this.inicioNombres + ENTRADA_NOMBRE * capacidad;
+        this.idMaximo = mapeo.getLong(Integer.BYTES * 4 + Long.BYTES);
+    }
+
+    /**
+     * Mapea el snapshot en memoria de solo lectura, sin leer los exámenes.
+     *
+     * @throws IllegalArgumentException si el archivo no es un snapshot válido
+     */
+    public static SnapshotCatalogo abrir(Path archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            if (canal.size() > Integer.MAX_VALUE) {
+                throw new IOException("El snapshot supera el tamaño máximo de 2 GB: " + archivo);
+            }
+            // El mapeo sigue siendo válido después de cerrar el canal
+            return new SnapshotCatalogo(canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size()));
+        }
+    }
+
+    /**
+     * Escribe el snapshot en un archivo temporal y lo mueve sobre el destino al terminar,
+     * así un lector nunca ve un snapshot a medio escribir.
+     */
+    public static void escribir(Path archivo, List<Examen> examenes) throws IOException {
+        Archivos.reemplazar(escribirAparte(archivo, examenes), archivo);
+    }
+
+    /**
+     * Escribe el snapshot en un archivo temporal junto a archivo, sin tocarlo, y devuelve el temporal.
+     * Sirve para quien tiene mapeado el snapshot actual: lo suelta y recién entonces mueve el
+     * temporal con Archivos.reemplazar(...).
+     */
+    public static Path escribirAparte(Path archivo, List<Examen> examenes) throws IOException {
+        int cantidad = examenes.size();
+        int capacidad = Integer.highestOneBit(Math.max(2, cantidad) * 2 - 1) << 1;
+        long[] posiciones = new long[cantidad];
+        int[] nombres = new int[capacidad * 2];
+        long[] ids = new long[capacidad];
+        int[] numerosPorId = new int[capacidad];
+        long idMaximo = 0;
+
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".escribiendo");
+        try (DataOutputStream salida = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporal), 1 << 16))) {
+            salida.write(new byte[CABECERA]);
+            long posicion = CABECERA;
+            ByteBuffer buffer = ByteBuffer.allocate(1 << 12);
+            for (int i = 0; i < cantidad; i++) {
+                Examen examen = examenes.get(i);
+                int longitud = ExamenCodec.tamanio(examen);
+                if (longitud > buffer.capacity()) {
+                    buffer = ByteBuffer.allocate(Integer.highestOneBit(longitud) << 1);
+                }
+                ExamenCodec.codificar(examen, buffer.clear());
+                salida.writeInt(longitud);
+                salida.write(buffer.array(), 0, longitud);
+                posiciones[i] = posicion;
+                posicion += Integer.BYTES + longitud;
+
+                indexarNombre(nombres, examenes, i);
+                if (examen.tieneId()) {
+                    indexarId(ids, numerosPorId, examen.getIdPrimitivo(), i);
+                    idMaximo = Math.max(idMaximo, examen.getIdPrimitivo());
+                }
+            }
+            for (long posicionRegistro : posiciones) {
+                salida.writeLong(posicionRegistro);
+            }
+            for (int valor : nombres) {
+                salida.writeInt(valor);
+            }
+            for (int slot = 0; slot < capacidad; slot++) {
+                salida.writeLong(ids[slot]);
+                salida.writeInt(numerosPorId[slot]);
+            }
+            if (posicion + (long) Long.BYTES * cantidad + (long) (ENTRADA_NOMBRE + ENTRADA_ID) * capacidad > Integer.MAX_VALUE) {
+                throw new IOException("El snapshot supera el tamaño máximo de 2 GB");
+            }
+
+            salida.flush();
+            ByteBuffer cabecera = ByteBuffer.allocate(CABECERA)
+                    .putInt(MAGIA).putInt(VERSION).putInt(cantidad).putInt(capacidad)
+                    .putLong(posicion).putLong(idMaximo)
+                    .flip();
+            try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.WRITE)) {
+                canal.write(cabecera, 0);
+                canal.force(true);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporal);
+            throw e;
+        }
+        return temporal;
+    }
+
+    public int size() {
+        return this.cantidad;
+    }
+
+    public long idMaximo() {
+        return this.idMaximo;
+    }
+
+    /**
+     * Decodifica el examen número {@code numero} con sus preguntas, sin retener el mapeo.
+     */
+    public Examen examen(int numero) {
+        Objects.checkIndex(numero, this.cantidad);
+        return ExamenCodec.decodificar(this.registro(numero));
+    }
+
+    /**
+     * Vista de solo lectura de todos los exámenes, cada get(...) decodifica el examen pedido.
+     */
+    public List<Examen> examenes() {
+        return new Vista();
+    }
+
+    /**
+     * @return número del primer examen con ese nombre o -1 si no hay ninguno
+     */
+    public int buscarPorNombre(String nombre) {
+        if (nombre == null) {
+            return -1;
+        }
+        int hash = nombre.hashCode();
+        for (int slot = mezclar(hash) & this.mascara; ; slot = (slot + 1) & this.mascara) {
+            int entrada = this.inicioNombres + ENTRADA_NOMBRE * slot;
+            int numero = this.mapeo.getInt(entrada + Integer.BYTES) - 1;
+            if (numero < 0) {
+                return -1;
+            }
+            // Solo se compara el nombre, las preguntas diferidas nunca se leen
+            if (this.mapeo.getInt(entrada) == hash
+                    && nombre.equals(ExamenCodec.decodificarDiferido(this.registro(numero)).getNombre())) {
+                return numero;
+            }
+        }
+    }
+
+    /**
+     * @return número del examen con ese id o -1 si no hay ninguno
+     */
+    public int buscarPorId(long id) {
+        for (int slot = mezclar(Long.hashCode(id)) & this.mascara; ; slot = (slot + 1) & this.mascara) {
+            int entrada = this.inicioIds + ENTRADA_ID * slot;
+            int numero = this.mapeo.getInt(entrada + Long.BYTES) - 1;
+            if (numero < 0) {
+                return -1;
+            }
+            if (this.mapeo.getLong(entrada) == id) {
+                return numero;
+            }
+        }
+    }
+
+    private ByteBuffer registro(int numero) {
+        int posicion = (int) this.mapeo.getLong(this.inicioPosiciones + Long.BYTES * numero);
+        return this.mapeo.slice(posicion + Integer.BYTES, this.mapeo.getInt(posicion));
+    }
+
+    private static void indexarNombre(int[] nombres, List<Examen> examenes, int numero) {
+        String nombre = examenes.get(numero).getNombre();
+        if (nombre == null) {
+            return;
+        }
+        int hash = nombre.hashCode();
+        int mascara = nombres.length / 2 - 1;
+        int slot = mezclar(hash) & mascara;
+        while (nombres[slot * 2 + 1] != 0) {
+            if (nombres[slot * 2] == hash && nombre.equals(examenes.get(nombres[slot * 2 + 1] - 1).getNombre())) {
+                return;
+            }
+            slot = (slot + 1) & mascara;
+        }
+        nombres[slot * 2] = hash;
+        nombres[slot * 2 + 1] = numero + 1;
+    }
+
+    private static void indexarId(long[] ids, int[] numerosPorId, long id, int numero) {
+        int mascara = ids.length - 1;
+        int slot = mezclar(Long.hashCode(id)) & mascara;
+        while (numerosPorId[slot] != 0) {
+            if (ids[slot] == id) {
+                return;
+            }
+            slot = (slot + 1) & mascara;
+        }
+        ids[slot] = id;
+        numerosPorId[slot] = numero + 1;
+    }
+
+    /**
+     * Reparte mejor los bits del hash, las tablas se indexan con los bits bajos
+     */
+    private static int mezclar(int hash) {
+        int mezclado = hash * 0x9E3779B9;
+        return mezclado ^ (mezclado >>> 16);
+    }
+
+    private final class Vista extends AbstractList<Examen> implements RandomAccess {
+
+        @Override
+        public Examen get(int indice) {
+            return SnapshotCatalogo.this.examen(indice);
+        }
+
+        @Override
+        public int size() {
+            return SnapshotCatalogo.this.cantidad;
+        }
+
+    }
+
+}
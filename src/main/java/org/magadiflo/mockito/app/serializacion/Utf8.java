@@ -0,0 +1,93 @@
+package org.magadiflo.mockito.app.serializacion;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Textos en UTF-8 con su longitud como prefijo varint, escritos y leídos directamente sobre un ByteBuffer.
+ */
+public final class Utf8 {
+
+    private Utf8() {
+    }
+
+    /**
+     * @return bytes que ocupa el texto con su longitud como prefijo
+     */
+    public static int tamanio(String texto) {
+        int bytes = longitud(texto);
+        return Varint.tamanio(bytes) + bytes;
+    }
+
+    /**
+     * Igual que texto.getBytes(UTF_8).length pero sin crear el arreglo.
+     * Un surrogate sin pareja se codifica como '?', igual que String.getBytes(...).
+     */
+    public static int longitud(String texto) {
+        int largo = texto.length();
+        int bytes = largo;
+        for (int i = 0; i < largo; i++) {
+            char c = texto.charAt(i);
+            if (c < 0x80) {
+                continue;
+            }
+            if (c < 0x800) {
+                bytes += 1;
+            } else if (!Character.isSurrogate(c)) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < largo && Character.isLowSurrogate(texto.charAt(i + 1))) {
+                bytes += 2;
+                i++;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Escribe la longitud y el texto en UTF-8 directamente en el destino, sin pasar por un byte[] intermedio.
+     */
+    public static void escribir(ByteBuffer destino, String texto) {
+        Varint.escribir(destino, longitud(texto));
+        int largo = texto.length();
+        for (int i = 0; i < largo; i++) {
+            char c = texto.charAt(i);
+            if (c < 0x80) {
+                destino.put((byte) c);
+            } else if (c < 0x800) {
+                destino.put((byte) (0xC0 | c >> 6)).put((byte) (0x80 | c & 0x3F));
+            } else if (!Character.isSurrogate(c)) {
+                destino.put((byte) (0xE0 | c >> 12)).put((byte) (0x80 | c >> 6 & 0x3F)).put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < largo && Character.isLowSurrogate(texto.charAt(i + 1))) {
+                int codigo = Character.toCodePoint(c, texto.charAt(++i));
+                destino.put((byte) (0xF0 | codigo >> 18)).put((byte) (0x80 | codigo >> 12 & 0x3F))
+                        .put((byte) (0x80 | codigo >> 6 & 0x3F)).put((byte) (0x80 | codigo & 0x3F));
+            } else {
+                destino.put((byte) '?');
+            }
+        }
+    }
+
+    /**
+     * Lee un texto escrito con escribir(...) desde la posición actual y la avanza.
+     *
+     * @throws IllegalArgumentException si la longitud no cabe en lo que queda del origen
+     */
+    public static String leer(ByteBuffer origen) {
+        long longitud = Varint.leer(origen);
+        if (longitud < 0 || longitud > origen.remaining()) {
+            throw new IllegalArgumentException("Longitud de texto inválida: " + longitud);
+        }
+        int bytes = (int) longitud;
+        String texto;
+        if (origen.hasArray()) {
+            texto = new String(origen.array(), origen.arrayOffset() + origen.position(), bytes, StandardCharsets.UTF_8);
+        } else {
+            byte[] copia = new byte[bytes];
+            origen.get(origen.position(), copia);
+            texto = new String(copia, StandardCharsets.UTF_8);
+        }
+        origen.position(origen.position() + bytes);
+        return texto;
+    }
+
+}
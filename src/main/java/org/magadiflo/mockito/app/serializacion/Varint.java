@@ -0,0 +1,46 @@
+package org.magadiflo.mockito.app.serializacion;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Enteros de longitud variable (7 bits por byte, el bit alto indica que sigue otro byte)
+ * y codificación zigzag para que los negativos pequeños también ocupen pocos bytes.
+ */
+public final class Varint {
+
+    private Varint() {
+    }
+
+    public static void escribir(ByteBuffer destino, long valor) {
+        while ((valor & ~0x7FL) != 0) {
+            destino.put((byte) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        destino.put((byte) valor);
+    }
+
+    public static long leer(ByteBuffer origen) {
+        long valor = 0;
+        for (int desplazamiento = 0; desplazamiento < Long.SIZE; desplazamiento += 7) {
+            byte actual = origen.get();
+            valor |= (long) (actual & 0x7F) << desplazamiento;
+            if ((actual & 0x80) == 0) {
+                return valor;
+            }
+        }
+        throw new IllegalArgumentException("Varint mal formado, tiene más de 10 bytes");
+    }
+
+    public static int tamanio(long valor) {
+        return (Long.SIZE - Long.numberOfLeadingZeros(valor | 1) + 6) / 7;
+    }
+
+    public static long zigzag(long valor) {
+        return (valor << 1) ^ (valor >> 63);
+    }
+
+    public static long deshacerZigzag(long valor) {
+        return (valor >>> 1) ^ -(valor & 1);
+    }
+
+}
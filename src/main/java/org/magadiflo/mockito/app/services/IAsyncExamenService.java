@@ -0,0 +1,23 @@
+package org.magadiflo.mockito.app.services;
+
+import org.magadiflo.mockito.app.models.Examen;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+public interface IAsyncExamenService {
+
+    CompletableFuture<Optional<Examen>> findExamenByNombre(String nombre);
+
+    CompletableFuture<Examen> findExamenByNombreWithPreguntas(String nombre);
+
+    CompletableFuture<Map<String, Examen>> findExamenesByNombresWithPreguntas(Collection<String> nombres);
+
+    CompletableFuture<Examen> guardar(Examen examen);
+
+    CompletableFuture<List<Examen>> guardarTodos(List<Examen> examenes);
+
+}
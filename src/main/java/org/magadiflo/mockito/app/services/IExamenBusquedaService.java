@@ -0,0 +1,16 @@
+package org.magadiflo.mockito.app.services;
+
+import org.magadiflo.mockito.app.busqueda.ResultadoBusqueda;
+
+import java.util.List;
+
+public interface IExamenBusquedaService {
+
+    /**
+     * Búsqueda de texto libre sobre el nombre y las preguntas, sin importar mayúsculas ni tildes.
+     */
+    List<ResultadoBusqueda> buscar(String consulta, int limite);
+
+    List<String> autocompletar(String prefijo, int limite);
+
+}
@@ -1,7 +1,12 @@
 package org.magadiflo.mockito.app.services;
 
 import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.models.ModoCarga;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface IExamenService {
@@ -10,6 +15,30 @@ public interface IExamenService {
 
     Examen findExamenByNombreWithPreguntas(String nombre);
 
+    /**
+     * Con ModoCarga.DIFERIDA las preguntas no se traen hasta que se llame a getPreguntas()
+     * del examen devuelto, ideal para listados que casi nunca muestran las preguntas.
+     */
+    Examen findExamenByNombreWithPreguntas(String nombre, ModoCarga modoCarga);
+
+    /**
+     * Versión por lotes de findExamenByNombreWithPreguntas: resuelve todos los nombres
+     * y trae las preguntas de todos los exámenes encontrados en una sola llamada al repositorio.
+     * Los nombres que no existen no aparecen en el mapa resultante.
+     */
+    Map<String, Examen> findExamenesByNombresWithPreguntas(Collection<String> nombres);
+
     Examen guardar(Examen examen);
 
+    /**
+     * Guarda varios exámenes con un solo viaje a cada repositorio.
+     * Devuelve los exámenes guardados en el mismo orden en que se recibieron.
+     * Por defecto guarda de a uno, las implementaciones que puedan deben hacerlo en un solo viaje.
+     */
+    default List<Examen> guardarTodos(List<Examen> examenes) {
+        List<Examen> guardados = new ArrayList<>(examenes.size());
+        examenes.forEach(examen -> guardados.add(this.guardar(examen)));
+        return guardados;
+    }
+
 }
@@ -0,0 +1,24 @@
+package org.magadiflo.mockito.app.services;
+
+import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.models.ResultadoImportacion;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+public interface IImportacionExamenesService {
+
+    /**
+     * Importa los exámenes con sus preguntas. Los registros inválidos o duplicados se reportan
+     * en el resultado sin detener la importación del resto.
+     */
+    ResultadoImportacion importar(Stream<Examen> examenes);
+
+    /**
+     * Importa un archivo de texto UTF-8 con un examen por línea: id|nombre|pregunta1;pregunta2;...
+     * El id puede ir vacío para que se genere al guardar.
+     */
+    ResultadoImportacion importar(Path archivo) throws IOException;
+
+}
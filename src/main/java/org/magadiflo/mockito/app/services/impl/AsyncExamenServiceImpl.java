@@ -0,0 +1,173 @@
+package org.magadiflo.mockito.app.services.impl;
+
+import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.services.IAsyncExamenService;
+import org.magadiflo.mockito.app.services.IExamenService;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta las operaciones de un IExamenService fuera del hilo que las invoca.
+ * - Concurrencia acotada: como máximo maxConcurrencia llamadas al servicio a la vez. El permiso se
+ *   toma antes de enviar la tarea al executor y sin esperar: si no hay uno libre el futuro falla de
+ *   inmediato con RejectedExecutionException, así no se acumulan tareas ni se bloquea a quien llama.
+ * - Timeout: si la operación no termina a tiempo el futuro falla con TimeoutException
+ *   y se interrumpe la tarea. Como no se espera el permiso, el timeout es el tiempo total de la llamada.
+ * - Cancelación: cancelar el futuro devuelto interrumpe la tarea en curso.
+ */
+public class AsyncExamenServiceImpl implements IAsyncExamenService, AutoCloseable {
+
+    private final IExamenService examenService;
+    private final ExecutorService executor;
+    private final boolean executorPropio;
+    private final int maxConcurrencia;
+    private final Semaphore permisos;
+    private final Duration timeout;
+
+    /**
+     * Usa hilos virtuales si el JDK en ejecución los soporta (Java 21+),
+     * en caso contrario un pool de como máximo maxConcurrencia hilos.
+     */
+    public AsyncExamenServiceImpl(IExamenService examenService, int maxConcurrencia, Duration timeout) {
+        this(examenService, crearExecutorPorDefecto(maxConcurrencia), true, maxConcurrencia, timeout);
+    }
+
+    /**
+     * @param executor executor provisto por quien llama, no se cierra con close()
+     */
+    public AsyncExamenServiceImpl(IExamenService examenService, ExecutorService executor, int maxConcurrencia,
+                                  Duration timeout) {
+        this(examenService, executor, false, maxConcurrencia, timeout);
+    }
+
+    private AsyncExamenServiceImpl(IExamenService examenService, ExecutorService executor, boolean executorPropio,
+                                   int maxConcurrencia, Duration timeout) {
+        if (maxConcurrencia <= 0) {
+            throw new IllegalArgumentException("maxConcurrencia debe ser mayor a cero");
+        }
+        this.examenService = examenService;
+        this.executor = executor;
+        this.executorPropio = executorPropio;
+        this.maxConcurrencia = maxConcurrencia;
+        this.permisos = new Semaphore(maxConcurrencia);
+        this.timeout = timeout;
+    }
+
+    @Override
+    public CompletableFuture<Optional<Examen>> findExamenByNombre(String nombre) {
+        return this.ejecutar(() -> this.examenService.findExamenByNombre(nombre));
+    }
+
+    @Override
+    public CompletableFuture<Examen> findExamenByNombreWithPreguntas(String nombre) {
+        return this.ejecutar(() -> this.examenService.findExamenByNombreWithPreguntas(nombre));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Examen>> findExamenesByNombresWithPreguntas(Collection<String> nombres) {
+        return this.ejecutar(() -> this.examenService.findExamenesByNombresWithPreguntas(nombres));
+    }
+
+    @Override
+    public CompletableFuture<Examen> guardar(Examen examen) {
+        return this.ejecutar(() -> this.examenService.guardar(examen));
+    }
+
+    @Override
+    public CompletableFuture<List<Examen>> guardarTodos(List<Examen> examenes) {
+        return this.ejecutar(() -> this.examenService.guardarTodos(examenes));
+    }
+
+    private <T> CompletableFuture<T> ejecutar(Supplier<T> operacion) {
+        CompletableFuture<T> resultado = new CompletableFuture<>();
+        if (!this.permisos.tryAcquire()) {
+            resultado.completeExceptionally(new RejectedExecutionException(
+                    "No hay permisos libres, ya hay " + this.maxConcurrencia + " operaciones en curso"));
+            return resultado;
+        }
+        // Lo toma la tarea al empezar o el futuro si termina antes, el que llegue primero libera el permiso
+        AtomicBoolean iniciada = new AtomicBoolean();
+        Future<?> tarea;
+        try {
+            tarea = this.executor.submit(() -> {
+                if (!iniciada.compareAndSet(false, true)) {
+                    return;
+                }
+                // El permiso se libera antes de completar el futuro: quien espera el resultado ya
+                // puede enviar la siguiente operación sin que la rechacen
+                T valor = null;
+                Throwable error = null;
+                try {
+                    valor = operacion.get();
+                } catch (Throwable e) {
+                    error = e;
+                } finally {
+                    this.permisos.release();
+                }
+                if (error != null) {
+                    resultado.completeExceptionally(error);
+                } else {
+                    resultado.complete(valor);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            this.permisos.release();
+            resultado.completeExceptionally(e);
+            return resultado;
+        }
+        // Si el futuro termina antes que la tarea (timeout o cancelación), se interrumpe la tarea
+        resultado.whenComplete((valor, error) -> {
+            if (error instanceof CancellationException || error instanceof TimeoutException) {
+                tarea.cancel(true);
+                if (iniciada.compareAndSet(false, true)) {
+                    this.permisos.release();
+                }
+            }
+        });
+        return this.timeout == null ? resultado : resultado.orTimeout(this.timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void close() {
+        if (this.executorPropio) {
+            this.executor.shutdown();
+        }
+    }
+
+    /**
+     * Los permisos ya limitan las tareas enviadas a maxConcurrencia, la cola acotada es solo un resguardo
+     */
+    private static ExecutorService crearExecutorPorDefecto(int maxConcurrencia) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            int hilos = Math.max(1, maxConcurrencia);
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(hilos, hilos, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(hilos), runnable -> {
+                Thread hilo = new Thread(runnable, "async-examen-service");
+                hilo.setDaemon(true);
+                return hilo;
+            });
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
+
+}
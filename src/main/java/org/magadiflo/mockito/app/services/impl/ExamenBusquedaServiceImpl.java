@@ -0,0 +1,101 @@
+package org.magadiflo.mockito.app.services.impl;
+
+import org.magadiflo.mockito.app.busqueda.IndiceInvertido;
+import org.magadiflo.mockito.app.busqueda.ResultadoBusqueda;
+import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.models.ModoCarga;
+import org.magadiflo.mockito.app.repositories.IExamenRepository;
+import org.magadiflo.mockito.app.repositories.IPreguntasRepository;
+import org.magadiflo.mockito.app.services.IExamenBusquedaService;
+import org.magadiflo.mockito.app.services.IExamenService;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Decorador de IExamenService que además permite buscar exámenes por texto.
+ * El índice se construye al crear el servicio con el catálogo y sus preguntas, y se actualiza
+ * con cada guardar(...)/guardarTodos(...). Las preguntas se indexan a este nivel porque
+ * IPreguntasRepository.guardarVarias(...) no indica a qué examen pertenecen.
+ */
+public class ExamenBusquedaServiceImpl implements IExamenService, IExamenBusquedaService {
+
+    private final IExamenService examenService;
+    private final IndiceInvertido indiceInvertido = new IndiceInvertido();
+
+    public ExamenBusquedaServiceImpl(IExamenService examenService, IExamenRepository examenRepository,
+                                     IPreguntasRepository preguntasRepository) {
+        this.examenService = examenService;
+        List<Examen> examenes = examenRepository.findAll();
+        List<Long> ids = new ArrayList<>(examenes.size());
+        examenes.forEach(examen -> ids.add(examen.getId()));
+        Map<Long, List<String>> preguntasPorExamen = preguntasRepository.findPreguntasByExamenIds(ids);
+        for (Examen examen : examenes) {
+            Examen indexado = new Examen(examen.getId(), examen.getNombre());
+            indexado.setPreguntas(preguntasPorExamen.getOrDefault(examen.getId(), List.of()));
+            this.indiceInvertido.indexar(indexado);
+        }
+    }
+
+    @Override
+    public List<ResultadoBusqueda> buscar(String consulta, int limite) {
+        return this.indiceInvertido.buscar(consulta, limite);
+    }
+
+    @Override
+    public List<String> autocompletar(String prefijo, int limite) {
+        return this.indiceInvertido.autocompletar(prefijo, limite);
+    }
+
+    @Override
+    public Optional<Examen> findExamenByNombre(String nombre) {
+        return this.examenService.findExamenByNombre(nombre);
+    }
+
+    @Override
+    public Examen findExamenByNombreWithPreguntas(String nombre) {
+        return this.examenService.findExamenByNombreWithPreguntas(nombre);
+    }
+
+    @Override
+    public Examen findExamenByNombreWithPreguntas(String nombre, ModoCarga modoCarga) {
+        return this.examenService.findExamenByNombreWithPreguntas(nombre, modoCarga);
+    }
+
+    @Override
+    public Map<String, Examen> findExamenesByNombresWithPreguntas(Collection<String> nombres) {
+        return this.examenService.findExamenesByNombresWithPreguntas(nombres);
+    }
+
+    @Override
+    public Examen guardar(Examen examen) {
+        Examen guardado = this.examenService.guardar(examen);
+        this.indexar(examen, guardado);
+        return guardado;
+    }
+
+    @Override
+    public List<Examen> guardarTodos(List<Examen> examenes) {
+        List<Examen> guardados = this.examenService.guardarTodos(examenes);
+        for (int i = 0; i < guardados.size() && i < examenes.size(); i++) {
+            this.indexar(examenes.get(i), guardados.get(i));
+        }
+        return guardados;
+    }
+
+    /**
+     * El repositorio puede devolver el examen sin preguntas, se indexan las que se enviaron a guardar.
+     */
+    private void indexar(Examen enviado, Examen guardado) {
+        if (guardado == null) {
+            return;
+        }
+        Examen indexado = new Examen(guardado.getId(), guardado.getNombre());
+        indexado.setPreguntas(guardado.getPreguntas().isEmpty() ? enviado.getPreguntas() : guardado.getPreguntas());
+        this.indiceInvertido.indexar(indexado);
+    }
+
+}
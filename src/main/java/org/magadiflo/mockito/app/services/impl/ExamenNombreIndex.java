@@ -0,0 +1,160 @@
+package org.magadiflo.mockito.app.services.impl;
+
+import org.magadiflo.mockito.app.busqueda.Tokenizador;
+import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.models.ExamenValor;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice nombre -> Examen basado en hash.
+ * Se construye una sola vez a partir del catálogo (findAll()) y luego se mantiene
+ * actualizado con cada examen guardado, de esa manera las búsquedas por nombre
+ * son O(1) en vez de recorrer todo el catálogo en cada llamada.
+ * <p>
+ * Las búsquedas no toman locks, las escrituras se serializan entre sí.
+ */
+public class ExamenNombreIndex {
+
+    public enum Normalizacion {
+        /**
+         * Compara el nombre tal cual, igual que String.equals(...)
+         */
+        EXACTA,
+        /**
+         * Ignora mayúsculas/minúsculas y tildes: "Matemáticas" == "matematicas"
+         */
+        SIN_MAYUSCULAS_NI_TILDES
+    }
+
+    private final Normalizacion normalizacion;
+    /**
+     * Se guardan valores inmutables y no los exámenes recibidos: el que llama puede seguir
+     * modificando su instancia (setNombre(...)) sin pasar por el índice
+     */
+    private final Map<String, ExamenValor> examenesPorNombre = new ConcurrentHashMap<>();
+    /**
+     * Exámenes que comparten nombre con el indexado, en orden de catálogo: si el indexado se
+     * renombra, el siguiente pasa a ocupar su lugar. Van por id (o por una clave única si no
+     * tienen) para que guardar k veces con el mismo nombre no recorra la lista en cada guardado
+     */
+    private final Map<String, LinkedHashMap<Object, ExamenValor>> ocultos = new HashMap<>();
+    /**
+     * Clave con la que está cada examen con id, para quitarlo de ella si se renombra
+     */
+    private final Map<Long, String> clavePorId = new HashMap<>();
+
+    public ExamenNombreIndex(Normalizacion normalizacion) {
+        this.normalizacion = normalizacion;
+    }
+
+    public ExamenNombreIndex(Normalizacion normalizacion, Collection<Examen> examenes) {
+        this(normalizacion);
+        examenes.forEach(this::agregarSiNoExiste);
+    }
+
+    public Optional<Examen> buscar(String nombre) {
+        if (nombre == null) {
+            return Optional.empty();
+        }
+        // Cada llamada recibe su propia instancia mutable
+        return Optional.ofNullable(this.examenesPorNombre.get(this.clave(nombre))).map(ExamenValor::aExamen);
+    }
+
+    /**
+     * Igual que el findFirst() sobre findAll(): si dos exámenes comparten nombre gana el primero.
+     */
+    public synchronized void agregarSiNoExiste(Examen examen) {
+        if (examen == null || examen.getNombre() == null) {
+            return;
+        }
+        String clave = this.clave(examen.getNombre());
+        ExamenValor valor = ExamenValor.de(examen);
+        if (this.examenesPorNombre.putIfAbsent(clave, valor) != null) {
+            this.ocultos.computeIfAbsent(clave, k -> new LinkedHashMap<>()).put(claveOculto(valor), valor);
+        }
+        if (valor.id() != null) {
+            this.clavePorId.put(valor.id(), clave);
+        }
+    }
+
+    /**
+     * Registra un examen recién guardado. Si ya existía una entrada con el mismo id
+     * se reemplaza (actualización), en caso contrario se respeta la entrada previa.
+     * Si el examen cambió de nombre, su nombre anterior deja de encontrarlo.
+     */
+    public synchronized void actualizar(Examen examen) {
+        if (examen == null) {
+            return;
+        }
+        ExamenValor valor = ExamenValor.de(examen);
+        String clave = valor.nombre() == null ? null : this.clave(valor.nombre());
+        if (valor.id() != null) {
+            String anterior = clave == null ? this.clavePorId.remove(valor.id()) : this.clavePorId.put(valor.id(), clave);
+            if (anterior != null && !anterior.equals(clave)) {
+                this.quitar(anterior, valor.id());
+            }
+        }
+        if (clave == null) {
+            return;
+        }
+        ExamenValor actual = this.examenesPorNombre.get(clave);
+        if (actual == null || mismoId(actual, valor)) {
+            this.examenesPorNombre.put(clave, valor);
+            return;
+        }
+        // Si ya estaba oculto con ese id se reemplaza en su sitio, si no va al final
+        this.ocultos.computeIfAbsent(clave, k -> new LinkedHashMap<>()).put(claveOculto(valor), valor);
+    }
+
+    public int size() {
+        return this.examenesPorNombre.size();
+    }
+
+    /**
+     * Quita el examen con ese id de la clave, si era el indexado lo reemplaza el siguiente con ese nombre
+     */
+    private void quitar(String clave, Long id) {
+        LinkedHashMap<Object, ExamenValor> mismoNombre = this.ocultos.get(clave);
+        ExamenValor actual = this.examenesPorNombre.get(clave);
+        if (actual != null && id.equals(actual.id())) {
+            if (mismoNombre == null) {
+                this.examenesPorNombre.remove(clave);
+                return;
+            }
+            Iterator<ExamenValor> siguientes = mismoNombre.values().iterator();
+            this.examenesPorNombre.put(clave, siguientes.next());
+            siguientes.remove();
+        } else if (mismoNombre != null) {
+            mismoNombre.remove(id);
+        }
+        if (mismoNombre != null && mismoNombre.isEmpty()) {
+            this.ocultos.remove(clave);
+        }
+    }
+
+    /**
+     * Los exámenes sin id no se pueden actualizar ni renombrar, cada uno ocupa su propia entrada
+     */
+    private static Object claveOculto(ExamenValor valor) {
+        return valor.id() != null ? valor.id() : new Object();
+    }
+
+    private static boolean mismoId(ExamenValor actual, ExamenValor nuevo) {
+        return actual.id() != null && actual.id().equals(nuevo.id());
+    }
+
+    /**
+     * Clave con la que se indexa el nombre: dos nombres con la misma clave son el mismo examen
+     */
+    String clave(String nombre) {
+        return this.normalizacion == Normalizacion.EXACTA ? nombre : Tokenizador.normalizar(nombre);
+    }
+
+}
@@ -0,0 +1,333 @@
+package org.magadiflo.mockito.app.services.impl;
+
+import org.magadiflo.mockito.app.busqueda.Tokenizador;
+import org.magadiflo.mockito.app.cache.CacheLocal;
+import org.magadiflo.mockito.app.cache.EstadisticasCache;
+import org.magadiflo.mockito.app.cache.PoliticaDesalojo;
+import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.models.ExamenValor;
+import org.magadiflo.mockito.app.models.ModoCarga;
+import org.magadiflo.mockito.app.services.IExamenService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Decorador de IExamenService que guarda en cache los exámenes buscados por nombre.
+ * <p>
+ * - Lectura: un acierto no llega al servicio decorado. Los nombres que no existen también se
+ *   guardan (cache negativa) con su propio TTL, normalmente más corto.
+ * - Escritura: guardar(...) y guardarTodos(...) actualizan la cache con lo guardado (write-through),
+ *   con las preguntas que se enviaron a guardar: el servicio puede devolver el examen sin ellas.
+ *   El servicio decorado puede normalizar los nombres (mayúsculas, tildes), así que un examen puede
+ *   estar en cache con varias grafías: al guardarlo se invalidan las demás, y de la cache negativa
+ *   las grafías de su nombre (las que sin mayúsculas ni tildes son iguales a él).
+ * - Desalojo LRU o LFU, con el peso de cada examen igual a 1 + su número de preguntas.
+ * - Cada llamada recibe su propia copia del examen, modificarla no altera lo que está en cache.
+ * <p>
+ * Las preguntas diferidas (ModoCarga.DIFERIDA) no se guardan en cache, solo se responden desde
+ * ella si el examen ya estaba con sus preguntas.
+ */
+public class ExamenServiceCacheImpl implements IExamenService {
+
+    private final IExamenService examenService;
+    private final CacheLocal<String, EnCache> examenes;
+    private final CacheLocal<String, Boolean> inexistentes;
+    /**
+     * Nombres con los que está en cache cada examen, para invalidarlos al guardarlo. Se mantiene con
+     * el aviso de la cache al quitar una entrada, así no crece con lo desalojado o expirado.
+     */
+    private final Map<Long, Set<String>> nombresPorId = new ConcurrentHashMap<>();
+    /**
+     * Grafías en la cache negativa por su nombre sin mayúsculas ni tildes, para invalidar solo las de
+     * un examen guardado. Se mantiene igual que nombresPorId, con el aviso de la cache al quitarlas.
+     */
+    private final Map<String, Set<String>> inexistentesPorClave = new ConcurrentHashMap<>();
+
+    /**
+     * Cambia con cada escritura: una lectura que empezó antes no guarda su resultado, podría estar desactualizado.
+     * La comprobación y la escritura en cache se hacen con el lock del objeto, igual que las escrituras.
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    public ExamenServiceCacheImpl(IExamenService examenService, PoliticaDesalojo politica, long pesoMaximo,
+                                  Duration ttl, int maximoInexistentes, Duration ttlInexistentes) {
+        this(examenService, politica, pesoMaximo, ttl, maximoInexistentes, ttlInexistentes, System::nanoTime);
+    }
+
+    /**
+     * @param reloj fuente de tiempo en nanosegundos, se puede reemplazar en las pruebas
+     */
+    public ExamenServiceCacheImpl(IExamenService examenService, PoliticaDesalojo politica, long pesoMaximo,
+                                  Duration ttl, int maximoInexistentes, Duration ttlInexistentes, LongSupplier reloj) {
+        this.examenService = examenService;
+        this.examenes = new CacheLocal<>(politica, pesoMaximo, EnCache::peso, ttl.toNanos(), TimeUnit.NANOSECONDS, reloj,
+                this::olvidarNombre);
+        this.inexistentes = new CacheLocal<>(PoliticaDesalojo.LRU, maximoInexistentes, valor -> 1,
+                ttlInexistentes.toNanos(), TimeUnit.NANOSECONDS, reloj, (nombre, valor) -> this.olvidarInexistente(nombre));
+    }
+
+    @Override
+    public Optional<Examen> findExamenByNombre(String nombre) {
+        EnCache entrada = this.examenes.buscar(nombre);
+        if (entrada != null) {
+            return Optional.of(entrada.examen().aExamen());
+        }
+        if (this.inexistentes.buscar(nombre) != null) {
+            return Optional.empty();
+        }
+        long versionLeida = this.version.get();
+        Optional<Examen> examen = this.examenService.findExamenByNombre(nombre);
+        this.guardarEnCache(nombre, examen.map(EnCache::sinPreguntas).orElse(null), versionLeida);
+        return examen.map(EnCache::sinPreguntas).map(EnCache::examen).map(ExamenValor::aExamen);
+    }
+
+    @Override
+    public Examen findExamenByNombreWithPreguntas(String nombre) {
+        EnCache entrada = this.examenes.buscar(nombre);
+        if (entrada != null && entrada.conPreguntas()) {
+            return entrada.examen().aExamen();
+        }
+        if (entrada == null && this.inexistentes.buscar(nombre) != null) {
+            return null;
+        }
+        long versionLeida = this.version.get();
+        Examen examen = this.examenService.findExamenByNombreWithPreguntas(nombre);
+        EnCache nueva = examen == null ? null : EnCache.conPreguntas(examen);
+        this.guardarEnCache(nombre, nueva, versionLeida);
+        return nueva == null ? null : nueva.examen().aExamen();
+    }
+
+    @Override
+    public Examen findExamenByNombreWithPreguntas(String nombre, ModoCarga modoCarga) {
+        if (modoCarga != ModoCarga.DIFERIDA) {
+            return this.findExamenByNombreWithPreguntas(nombre);
+        }
+        EnCache entrada = this.examenes.buscar(nombre);
+        if (entrada != null && entrada.conPreguntas()) {
+            return entrada.examen().aExamen();
+        }
+        if (entrada == null && this.inexistentes.buscar(nombre) != null) {
+            return null;
+        }
+        return this.examenService.findExamenByNombreWithPreguntas(nombre, modoCarga);
+    }
+
+    /**
+     * Solo los nombres que no están en cache llegan al servicio decorado, en una sola llamada.
+     */
+    @Override
+    public Map<String, Examen> findExamenesByNombresWithPreguntas(Collection<String> nombres) {
+        Map<String, Examen> resultado = new LinkedHashMap<>();
+        List<String> faltantes = new ArrayList<>();
+        for (String nombre : nombres) {
+            EnCache entrada = this.examenes.buscar(nombre);
+            if (entrada != null && entrada.conPreguntas()) {
+                resultado.put(nombre, entrada.examen().aExamen());
+            } else if (entrada != null || this.inexistentes.buscar(nombre) == null) {
+                faltantes.add(nombre);
+            }
+        }
+        if (faltantes.isEmpty()) {
+            return this.enOrden(nombres, resultado);
+        }
+        long versionLeida = this.version.get();
+        Map<String, Examen> encontrados = this.examenService.findExamenesByNombresWithPreguntas(faltantes);
+        for (String nombre : faltantes) {
+            Examen examen = encontrados.get(nombre);
+            EnCache entrada = examen == null ? null : EnCache.conPreguntas(examen);
+            this.guardarEnCache(nombre, entrada, versionLeida);
+            if (entrada != null) {
+                resultado.put(nombre, entrada.examen().aExamen());
+            }
+        }
+        return this.enOrden(nombres, resultado);
+    }
+
+    @Override
+    public Examen guardar(Examen examen) {
+        Examen guardado = this.examenService.guardar(examen);
+        this.actualizarCache(guardado, examen.getPreguntas());
+        return guardado;
+    }
+
+    /**
+     * guardarTodos(...) devuelve los exámenes en el mismo orden en que se enviaron
+     */
+    @Override
+    public List<Examen> guardarTodos(List<Examen> examenes) {
+        List<Examen> guardados = this.examenService.guardarTodos(examenes);
+        for (int i = 0; i < guardados.size(); i++) {
+            this.actualizarCache(guardados.get(i), examenes.get(i).getPreguntas());
+        }
+        return guardados;
+    }
+
+    public EstadisticasCache estadisticas() {
+        return this.examenes.estadisticas();
+    }
+
+    public EstadisticasCache estadisticasInexistentes() {
+        return this.inexistentes.estadisticas();
+    }
+
+    /**
+     * Write-through. Un nombre que no existía pasa a ser este examen y un examen en cache con el mismo
+     * id se reemplaza. Si hay otro examen con ese nombre se deja, el servicio devuelve el primero.
+     * Las otras grafías o el nombre anterior del examen se invalidan, el servicio decide a quién
+     * corresponden ahora.
+     */
+    private synchronized void actualizarCache(Examen guardado, List<String> preguntas) {
+        if (guardado == null) {
+            return;
+        }
+        this.version.incrementAndGet();
+        String nombre = guardado.getNombre();
+        if (guardado.tieneId()) {
+            for (String cacheado : this.nombresPorId.getOrDefault(guardado.getId(), Set.of())) {
+                if (!cacheado.equals(nombre)) {
+                    this.examenes.invalidar(cacheado);
+                }
+            }
+        }
+        if (nombre == null) {
+            return;
+        }
+        EnCache actual = this.examenes.buscar(nombre);
+        boolean eraInexistente = this.inexistentes.buscar(nombre) != null;
+        // Un examen nuevo puede responder a otras grafías de su nombre que estaban como inexistentes
+        for (String grafia : this.inexistentesPorClave.getOrDefault(clave(nombre), Set.of())) {
+            this.inexistentes.invalidar(grafia);
+        }
+        if (eraInexistente || (actual != null && Objects.equals(actual.id(), guardado.getId()))) {
+            this.ponerEntrada(nombre, EnCache.conPreguntas(guardado, preguntas));
+        }
+    }
+
+    /**
+     * Con el mismo lock que actualizarCache(...): si hubo una escritura desde que se leyó, no se guarda nada
+     */
+    private synchronized void guardarEnCache(String nombre, EnCache entrada, long versionLeida) {
+        if (nombre == null || this.version.get() != versionLeida) {
+            return;
+        }
+        if (entrada == null) {
+            // Primero se registra la grafía: el aviso al quitarla de la cache siempre llega después
+            this.inexistentesPorClave.compute(clave(nombre), (clave, grafias) -> agregar(grafias, nombre));
+            this.inexistentes.poner(nombre, Boolean.TRUE);
+        } else {
+            this.ponerEntrada(nombre, entrada);
+        }
+    }
+
+    private void ponerEntrada(String nombre, EnCache entrada) {
+        this.examenes.poner(nombre, entrada);
+        if (entrada.id() != null) {
+            this.nombresPorId.compute(entrada.id(), (id, nombres) -> agregar(nombres, nombre));
+        }
+    }
+
+    /**
+     * Aviso de la cache, con su lock tomado, cuando una entrada se desaloja, expira, invalida o reemplaza
+     */
+    private void olvidarNombre(String nombre, EnCache entrada) {
+        if (entrada.id() == null) {
+            return;
+        }
+        this.nombresPorId.computeIfPresent(entrada.id(), (id, nombres) -> quitar(nombres, nombre));
+    }
+
+    /**
+     * Aviso de la cache negativa, con su lock tomado, cuando una grafía se desaloja, expira o invalida
+     */
+    private void olvidarInexistente(String nombre) {
+        this.inexistentesPorClave.computeIfPresent(clave(nombre), (clave, grafias) -> quitar(grafias, nombre));
+    }
+
+    /**
+     * Clave común a todas las grafías de un nombre, para cualquier normalización del servicio decorado
+     */
+    private static String clave(String nombre) {
+        return Tokenizador.normalizar(nombre);
+    }
+
+    /**
+     * Los conjuntos de nombres son inmutables: se reemplazan al cambiar y se pueden recorrer sin copiarlos
+     */
+    private static Set<String> agregar(Set<String> nombres, String nombre) {
+        if (nombres != null && nombres.contains(nombre)) {
+            return nombres;
+        }
+        Set<String> nuevos = nombres == null ? new HashSet<>() : new HashSet<>(nombres);
+        nuevos.add(nombre);
+        return Set.copyOf(nuevos);
+    }
+
+    private static Set<String> quitar(Set<String> nombres, String nombre) {
+        if (!nombres.contains(nombre)) {
+            return nombres;
+        }
+        Set<String> restantes = new HashSet<>(nombres);
+        restantes.remove(nombre);
+        return restantes.isEmpty() ? null : Set.copyOf(restantes);
+    }
+
+    /**
+     * Exámenes con al menos un nombre en cache, para comprobar que no se retienen los desalojados
+     */
+    int examenesConNombreEnCache() {
+        return this.nombresPorId.size();
+    }
+
+    private Map<String, Examen> enOrden(Collection<String> nombres, Map<String, Examen> encontrados) {
+        Map<String, Examen> ordenados = new LinkedHashMap<>();
+        for (String nombre : nombres) {
+            Examen examen = encontrados.get(nombre);
+            if (examen != null) {
+                ordenados.put(nombre, examen);
+            }
+        }
+        return ordenados;
+    }
+
+    /**
+     * Examen en cache: el valor inmutable se comparte entre hilos, conPreguntas es false si las
+     * preguntas no se pidieron (entonces el valor no tiene ninguna).
+     */
+    private record EnCache(ExamenValor examen, boolean conPreguntas) {
+
+        static EnCache sinPreguntas(Examen examen) {
+            return new EnCache(new ExamenValor(examen.getId(), examen.getNombre(), null), false);
+        }
+
+        static EnCache conPreguntas(Examen examen) {
+            return new EnCache(examen.aValor(), true);
+        }
+
+        static EnCache conPreguntas(Examen examen, List<String> preguntas) {
+            return new EnCache(new ExamenValor(examen.getId(), examen.getNombre(), preguntas), true);
+        }
+
+        Long id() {
+            return this.examen.id();
+        }
+
+        int peso() {
+            return 1 + this.examen.preguntas().size();
+        }
+
+    }
+
+}
@@ -0,0 +1,220 @@
+package org.magadiflo.mockito.app.services.impl;
+
+import org.magadiflo.mockito.app.busqueda.EstadisticasFiltro;
+import org.magadiflo.mockito.app.busqueda.FiltroBloom;
+import org.magadiflo.mockito.app.busqueda.Tokenizador;
+import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.models.ModoCarga;
+import org.magadiflo.mockito.app.repositories.IExamenRepository;
+import org.magadiflo.mockito.app.services.IExamenService;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Decorador de IExamenService que descarta en tiempo constante las búsquedas de nombres que no
+ * existen (bots, errores de tipeo) con un filtro de Bloom de los nombres del catálogo, sin llegar
+ * al servicio ni al repositorio.
+ * <p>
+ * Sirve sobre todo cuando un fallo es caro: un servicio sin índice propio, o un repositorio que
+ * busca en disco o en varias particiones. Todas las escrituras deben pasar por este decorador para
+ * que el filtro las conozca. Un examen renombrado deja su nombre anterior en el filtro, eso solo
+ * produce falsos positivos. Cuando se supera la capacidad el filtro se reconstruye con el doble de
+ * los nombres distintos del repositorio, más los aceptados por guardar(...) que el repositorio aún
+ * no devuelve (por ejemplo detrás de un write-behind), así la reconstrucción no produce falsos negativos.
+ */
+public class ExamenServiceFiltroBloomImpl implements IExamenService {
+
+    private static final int CAPACIDAD_MINIMA = 1024;
+
+    private final IExamenService examenService;
+    private final IExamenRepository examenRepository;
+    private final ExamenNombreIndex.Normalizacion normalizacion;
+    private final double tasaFalsosPositivos;
+
+    /**
+     * Las escrituras comparten el lock de lectura, la reconstrucción toma el de escritura
+     * para no perder un nombre que se esté guardando mientras se recorre el catálogo
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile FiltroBloom filtro;
+    /**
+     * Nombres agregados desde la última reconstrucción que el repositorio todavía no devolvía
+     */
+    private final Set<String> pendientes = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder consultas = new LongAdder();
+    private final LongAdder descartados = new LongAdder();
+    private final LongAdder falsosPositivos = new LongAdder();
+
+    /**
+     * @param normalizacion la misma con la que compara nombres el servicio decorado, null es EXACTA
+     */
+    public ExamenServiceFiltroBloomImpl(IExamenService examenService, IExamenRepository examenRepository,
+                                        ExamenNombreIndex.Normalizacion normalizacion, double tasaFalsosPositivos) {
+        this.examenService = examenService;
+        this.examenRepository = examenRepository;
+        this.normalizacion = normalizacion == null ? ExamenNombreIndex.Normalizacion.EXACTA : normalizacion;
+        this.tasaFalsosPositivos = tasaFalsosPositivos;
+        this.filtro = this.construirFiltro();
+    }
+
+    @Override
+    public Optional<Examen> findExamenByNombre(String nombre) {
+        if (this.descartar(nombre)) {
+            return Optional.empty();
+        }
+        Optional<Examen> examen = this.examenService.findExamenByNombre(nombre);
+        this.contarFalsoPositivo(examen.isEmpty());
+        return examen;
+    }
+
+    @Override
+    public Examen findExamenByNombreWithPreguntas(String nombre) {
+        if (this.descartar(nombre)) {
+            return null;
+        }
+        Examen examen = this.examenService.findExamenByNombreWithPreguntas(nombre);
+        this.contarFalsoPositivo(examen == null);
+        return examen;
+    }
+
+    @Override
+    public Examen findExamenByNombreWithPreguntas(String nombre, ModoCarga modoCarga) {
+        if (this.descartar(nombre)) {
+            return null;
+        }
+        Examen examen = this.examenService.findExamenByNombreWithPreguntas(nombre, modoCarga);
+        this.contarFalsoPositivo(examen == null);
+        return examen;
+    }
+
+    @Override
+    public Map<String, Examen> findExamenesByNombresWithPreguntas(Collection<String> nombres) {
+        List<String> posibles = new ArrayList<>();
+        for (String nombre : nombres) {
+            if (!this.descartar(nombre)) {
+                posibles.add(nombre);
+            }
+        }
+        if (posibles.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+        Map<String, Examen> examenes = this.examenService.findExamenesByNombresWithPreguntas(posibles);
+        posibles.forEach(nombre -> this.contarFalsoPositivo(!examenes.containsKey(nombre)));
+        return examenes;
+    }
+
+    @Override
+    public Examen guardar(Examen examen) {
+        Examen guardado;
+        this.lock.readLock().lock();
+        try {
+            // Se agrega antes de guardar: un falso positivo momentáneo es inofensivo, un falso negativo no
+            this.agregar(examen.getNombre());
+            guardado = this.examenService.guardar(examen);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+        this.reconstruirSiSuperaCapacidad();
+        return guardado;
+    }
+
+    @Override
+    public List<Examen> guardarTodos(List<Examen> examenes) {
+        List<Examen> guardados;
+        this.lock.readLock().lock();
+        try {
+            examenes.forEach(examen -> this.agregar(examen.getNombre()));
+            guardados = this.examenService.guardarTodos(examenes);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+        this.reconstruirSiSuperaCapacidad();
+        return guardados;
+    }
+
+    public EstadisticasFiltro estadisticas() {
+        FiltroBloom actual = this.filtro;
+        return new EstadisticasFiltro(this.consultas.sum(), this.descartados.sum(), this.falsosPositivos.sum(),
+                actual.elementos(), actual.tasaFalsosPositivosEstimada());
+    }
+
+    private boolean descartar(String nombre) {
+        this.consultas.increment();
+        if (nombre != null && this.filtro.puedeContener(this.clave(nombre))) {
+            return false;
+        }
+        this.descartados.increment();
+        return true;
+    }
+
+    private void contarFalsoPositivo(boolean noEncontrado) {
+        if (noEncontrado) {
+            this.falsosPositivos.increment();
+        }
+    }
+
+    /**
+     * Un nombre que el filtro ya puede contener no se vuelve a agregar, así volver a guardar el mismo
+     * examen no cuenta como un elemento más ni adelanta la reconstrucción
+     */
+    private void agregar(String nombre) {
+        if (nombre == null) {
+            return;
+        }
+        String clave = this.clave(nombre);
+        this.pendientes.add(clave);
+        FiltroBloom actual = this.filtro;
+        if (!actual.puedeContener(clave)) {
+            actual.agregar(clave);
+        }
+    }
+
+    private void reconstruirSiSuperaCapacidad() {
+        if (this.filtro.elementos() <= this.filtro.capacidad()) {
+            return;
+        }
+        this.lock.writeLock().lock();
+        try {
+            FiltroBloom actual = this.filtro;
+            if (actual.elementos() > actual.capacidad()) {
+                this.filtro = this.construirFiltro();
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Se llama con el lock de escritura tomado (o desde el constructor): nadie agrega mientras tanto
+     */
+    private FiltroBloom construirFiltro() {
+        Set<String> claves = new HashSet<>();
+        this.examenRepository.streamAll()
+                .map(Examen::getNombre)
+                .filter(nombre -> nombre != null)
+                .forEach(nombre -> claves.add(this.clave(nombre)));
+        this.pendientes.removeIf(claves::contains);
+        claves.addAll(this.pendientes);
+        // Se dimensiona por los nombres distintos, no por elementos(), que crece con cada guardado
+        FiltroBloom nuevo = new FiltroBloom(Math.max(CAPACIDAD_MINIMA, claves.size() * 2L), this.tasaFalsosPositivos);
+        claves.forEach(nuevo::agregar);
+        return nuevo;
+    }
+
+    private String clave(String nombre) {
+        return this.normalizacion == ExamenNombreIndex.Normalizacion.EXACTA ? nombre : Tokenizador.normalizar(nombre);
+    }
+
+}
@@ -1,50 +1,224 @@
 package org.magadiflo.mockito.app.services.impl;
 
+import org.magadiflo.mockito.app.cache.SingleFlight;
 import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.models.ExamenValor;
+import org.magadiflo.mockito.app.models.ModoCarga;
 import org.magadiflo.mockito.app.repositories.IExamenRepository;
+import org.magadiflo.mockito.app.repositories.IPreguntasPorExamenRepository;
 import org.magadiflo.mockito.app.repositories.IPreguntasRepository;
 import org.magadiflo.mockito.app.services.IExamenService;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 public class ExamenServiceImpl implements IExamenService {
 
     private final IExamenRepository examenRepository;
     private final IPreguntasRepository preguntasRepository;
+    private final ExamenNombreIndex.Normalizacion normalizacion;
+
+    /**
+     * Se construye de forma perezosa en la primera búsqueda por nombre, salvo que el repositorio
+     * tenga su propio índice (por ejemplo cargado desde un snapshot) y la comparación sea EXACTA
+     */
+    private volatile ExamenNombreIndex examenNombreIndex;
+    private volatile boolean usaIndiceDelRepositorio;
+
+    /**
+     * Si la llamada compartida tarda más que esto, quien espera hace la suya
+     */
+    private static final Duration ESPERA_MAXIMA_LLAMADA_EN_CURSO = Duration.ofSeconds(10);
+
+    /**
+     * Búsquedas concurrentes del mismo nombre (según la normalización del índice) o de las
+     * preguntas del mismo examen comparten una sola llamada al repositorio
+     */
+    private final SingleFlight<String, ExamenValor> busquedasEnCurso = new SingleFlight<>(ESPERA_MAXIMA_LLAMADA_EN_CURSO);
+    private final SingleFlight<Long, List<String>> preguntasEnCurso = new SingleFlight<>(ESPERA_MAXIMA_LLAMADA_EN_CURSO);
 
     public ExamenServiceImpl(IExamenRepository examenRepository, IPreguntasRepository preguntasRepository) {
+        this(examenRepository, preguntasRepository, ExamenNombreIndex.Normalizacion.EXACTA);
+    }
+
+    /**
+     * @param normalizacion cómo se comparan los nombres en el índice, si es null se usa EXACTA
+     */
+    public ExamenServiceImpl(IExamenRepository examenRepository, IPreguntasRepository preguntasRepository,
+                             ExamenNombreIndex.Normalizacion normalizacion) {
         this.examenRepository = examenRepository;
         this.preguntasRepository = preguntasRepository;
+        this.normalizacion = normalizacion == null ? ExamenNombreIndex.Normalizacion.EXACTA : normalizacion;
     }
 
     @Override
     public Optional<Examen> findExamenByNombre(String nombre) {
-        return examenRepository.findAll().stream().filter(examen -> examen.getNombre().equals(nombre)).findFirst();
+        ExamenNombreIndex indice = this.indice();
+        return indice != null ? indice.buscar(nombre) : this.examenRepository.findByNombre(nombre);
     }
 
+    /**
+     * Devuelve una copia del examen del catálogo con sus preguntas: el examen del catálogo es
+     * compartido entre hilos y no se modifica. Las búsquedas agrupadas comparten un ExamenValor
+     * inmutable y cada llamada recibe su propia copia mutable.
+     */
     @Override
     public Examen findExamenByNombreWithPreguntas(String nombre) {
-        Optional<Examen> examenOptional = this.findExamenByNombre(nombre);
-        Examen examen = null;
-        if (examenOptional.isPresent()) {
-            examen = examenOptional.orElseThrow();
-            List<String> preguntas = this.preguntasRepository.findPreguntasByExamenId(examen.getId());
+        ExamenValor valor = this.busquedasEnCurso.ejecutar(this.claveBusqueda(nombre), () -> {
+            Optional<Examen> examenOptional = this.findExamenByNombre(nombre);
+            ExamenValor encontrado = null;
+            if (examenOptional.isPresent()) {
+                Examen examen = examenOptional.orElseThrow();
+                List<String> preguntas = this.findPreguntasByExamenId(examen.getId());
+                encontrado = new ExamenValor(examen.getId(), examen.getNombre(), preguntas);
+            }
+            return encontrado;
+        });
+        return valor == null ? null : valor.aExamen();
+    }
 
-            // Duplicamos la llamada a este método para probar el número de invocaciones
-            this.preguntasRepository.findPreguntasByExamenId(examen.getId());
+    /**
+     * En modo DIFERIDA se devuelve una copia del examen del catálogo, así el examen compartido
+     * no queda atado al repositorio de preguntas.
+     */
+    @Override
+    public Examen findExamenByNombreWithPreguntas(String nombre, ModoCarga modoCarga) {
+        if (modoCarga != ModoCarga.DIFERIDA) {
+            return this.findExamenByNombreWithPreguntas(nombre);
+        }
+        return this.findExamenByNombre(nombre).map(examen -> {
+            Long id = examen.getId();
+            Examen diferido = new Examen(id, examen.getNombre());
+            diferido.setPreguntasDiferidas(() -> this.findPreguntasByExamenId(id));
+            return diferido;
+        }).orElse(null);
+    }
 
-            examen.setPreguntas(preguntas);
+    @Override
+    public Map<String, Examen> findExamenesByNombresWithPreguntas(Collection<String> nombres) {
+        Map<String, Examen> examenes = new LinkedHashMap<>();
+        Set<Long> ids = new HashSet<>();
+        for (String nombre : nombres) {
+            this.findExamenByNombre(nombre).ifPresent(examen -> {
+                examenes.put(nombre, examen);
+                ids.add(examen.getId());
+            });
         }
-        return examen;
+        if (!ids.isEmpty()) {
+            Map<Long, List<String>> preguntasPorExamen = this.preguntasRepository.findPreguntasByExamenIds(ids);
+            examenes.replaceAll((nombre, examen) ->
+                    examen.conPreguntas(preguntasPorExamen.getOrDefault(examen.getId(), Collections.emptyList())));
+        }
+        return examenes;
     }
 
+    /**
+     * Si el repositorio de preguntas las guarda por examen (IPreguntasPorExamenRepository), las
+     * preguntas se guardan después del examen, cuando ya tiene id.
+     */
     @Override
     public Examen guardar(Examen examen) {
-        if(!examen.getPreguntas().isEmpty()) {
+        boolean porExamen = this.preguntasRepository instanceof IPreguntasPorExamenRepository;
+        if (!porExamen && !examen.getPreguntas().isEmpty()) {
             this.preguntasRepository.guardarVarias(examen.getPreguntas());
         }
-        return this.examenRepository.guardar(examen);
+        Examen examenGuardado = this.examenRepository.guardar(examen);
+        if (porExamen) {
+            this.guardarPreguntasPorExamen(List.of(examenGuardado));
+        }
+        this.olvidarLlamadasEnCurso();
+        ExamenNombreIndex indice = this.examenNombreIndex;
+        if (indice != null) {
+            indice.actualizar(examenGuardado);
+        }
+        return examenGuardado;
+    }
+
+    @Override
+    public List<Examen> guardarTodos(List<Examen> examenes) {
+        boolean porExamen = this.preguntasRepository instanceof IPreguntasPorExamenRepository;
+        List<List<String>> preguntas = new ArrayList<>();
+        for (Examen examen : examenes) {
+            if (!porExamen && !examen.getPreguntas().isEmpty()) {
+                preguntas.add(examen.getPreguntas());
+            }
+        }
+        if (!preguntas.isEmpty()) {
+            this.preguntasRepository.guardarVariasEnLote(preguntas);
+        }
+        List<Examen> examenesGuardados = this.examenRepository.guardarTodos(examenes);
+        if (porExamen) {
+            this.guardarPreguntasPorExamen(examenesGuardados);
+        }
+        this.olvidarLlamadasEnCurso();
+        ExamenNombreIndex indice = this.examenNombreIndex;
+        if (indice != null) {
+            examenesGuardados.forEach(indice::actualizar);
+        }
+        return examenesGuardados;
+    }
+
+    private void guardarPreguntasPorExamen(List<Examen> guardados) {
+        Map<Long, List<String>> preguntasPorExamen = new LinkedHashMap<>();
+        for (Examen examen : guardados) {
+            if (!examen.tieneId()) {
+                throw new IllegalStateException("El repositorio de exámenes no asignó id a " + examen.getNombre()
+                        + ", sus preguntas no se pueden guardar");
+            }
+            preguntasPorExamen.put(examen.getId(), examen.getPreguntas());
+        }
+        ((IPreguntasPorExamenRepository) this.preguntasRepository).guardarPorExamen(preguntasPorExamen);
+    }
+
+    private List<String> findPreguntasByExamenId(Long id) {
+        return this.preguntasEnCurso.ejecutar(id, () -> this.preguntasRepository.findPreguntasByExamenId(id));
+    }
+
+    /**
+     * Los nombres que el índice considera iguales comparten la búsqueda; con el índice del
+     * repositorio la comparación es exacta y la clave es el nombre tal cual
+     */
+    private String claveBusqueda(String nombre) {
+        ExamenNombreIndex indice = this.indice();
+        return nombre == null || indice == null ? nombre : indice.clave(nombre);
+    }
+
+    /**
+     * Las búsquedas que empiecen después de una escritura no deben unirse a una que empezó antes
+     */
+    private void olvidarLlamadasEnCurso() {
+        this.busquedasEnCurso.olvidarTodo();
+        this.preguntasEnCurso.olvidarTodo();
+    }
+
+    /**
+     * @return el índice propio del servicio o null si se busca directamente en el índice del repositorio
+     */
+    private ExamenNombreIndex indice() {
+        ExamenNombreIndex indice = this.examenNombreIndex;
+        if (indice == null && !this.usaIndiceDelRepositorio) {
+            synchronized (this) {
+                indice = this.examenNombreIndex;
+                if (indice == null && !this.usaIndiceDelRepositorio) {
+                    if (this.normalizacion == ExamenNombreIndex.Normalizacion.EXACTA
+                            && this.examenRepository.tieneIndicePorNombre()) {
+                        this.usaIndiceDelRepositorio = true;
+                    } else {
+                        indice = new ExamenNombreIndex(this.normalizacion, this.examenRepository.findAll());
+                        this.examenNombreIndex = indice;
+                    }
+                }
+            }
+        }
+        return indice;
     }
 
 }
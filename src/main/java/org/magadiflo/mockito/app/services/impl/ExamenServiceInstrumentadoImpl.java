@@ -0,0 +1,61 @@
+package org.magadiflo.mockito.app.services.impl;
+
+import org.magadiflo.mockito.app.metricas.RegistroMetricas;
+import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.models.ModoCarga;
+import org.magadiflo.mockito.app.services.IExamenService;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Decorador de IExamenService que registra llamadas, errores, latencia y tamaño de resultados.
+ */
+public class ExamenServiceInstrumentadoImpl implements IExamenService {
+
+    private final IExamenService examenService;
+    private final RegistroMetricas registroMetricas;
+
+    public ExamenServiceInstrumentadoImpl(IExamenService examenService, RegistroMetricas registroMetricas) {
+        this.examenService = examenService;
+        this.registroMetricas = registroMetricas;
+    }
+
+    @Override
+    public Optional<Examen> findExamenByNombre(String nombre) {
+        return this.registroMetricas.medir("examenService.findExamenByNombre",
+                () -> this.examenService.findExamenByNombre(nombre), examen -> examen.isPresent() ? 1 : 0);
+    }
+
+    @Override
+    public Examen findExamenByNombreWithPreguntas(String nombre) {
+        return this.registroMetricas.medir("examenService.findExamenByNombreWithPreguntas",
+                () -> this.examenService.findExamenByNombreWithPreguntas(nombre), examen -> examen.getPreguntas().size());
+    }
+
+    @Override
+    public Examen findExamenByNombreWithPreguntas(String nombre, ModoCarga modoCarga) {
+        return this.registroMetricas.medir("examenService.findExamenByNombreWithPreguntas." + modoCarga,
+                () -> this.examenService.findExamenByNombreWithPreguntas(nombre, modoCarga), null);
+    }
+
+    @Override
+    public Map<String, Examen> findExamenesByNombresWithPreguntas(Collection<String> nombres) {
+        return this.registroMetricas.medir("examenService.findExamenesByNombresWithPreguntas",
+                () -> this.examenService.findExamenesByNombresWithPreguntas(nombres), Map::size);
+    }
+
+    @Override
+    public Examen guardar(Examen examen) {
+        return this.registroMetricas.medir("examenService.guardar", () -> this.examenService.guardar(examen), null);
+    }
+
+    @Override
+    public List<Examen> guardarTodos(List<Examen> examenes) {
+        return this.registroMetricas.medir("examenService.guardarTodos",
+                () -> this.examenService.guardarTodos(examenes), List::size);
+    }
+
+}
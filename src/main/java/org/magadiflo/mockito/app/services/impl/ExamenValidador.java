@@ -0,0 +1,32 @@
+package org.magadiflo.mockito.app.services.impl;
+
+import org.magadiflo.mockito.app.models.Examen;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reglas que debe cumplir un examen antes de guardarse. El id null es válido
+ * (el repositorio lo genera), un id negativo o cero no lo es.
+ */
+public final class ExamenValidador {
+
+    private ExamenValidador() {
+    }
+
+    public static List<String> validar(Examen examen) {
+        List<String> errores = new ArrayList<>();
+        if (examen == null) {
+            errores.add("el examen es null");
+            return errores;
+        }
+        if (examen.tieneId() && examen.getIdPrimitivo() <= 0) {
+            errores.add("el id debe ser mayor a cero, se recibió " + examen.getIdPrimitivo());
+        }
+        if (examen.getNombre() == null || examen.getNombre().isBlank()) {
+            errores.add("el nombre es obligatorio");
+        }
+        return errores;
+    }
+
+}
@@ -0,0 +1,159 @@
+package org.magadiflo.mockito.app.services.impl;
+
+import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.services.IExamenService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Modo write-behind para cargas masivas: encola los exámenes y los escribe por lotes
+ * con IExamenService.guardarTodos(...) cuando el lote se llena o vence la ventana de tiempo.
+ * - Contrapresión: si la cola está llena, guardar(...) bloquea hasta que haya espacio.
+ * - close() deja de aceptar exámenes y no retorna hasta haber escrito todo lo encolado. Si se
+ *   interrumpe mientras espera, retorna con el flag restaurado y el escritor sigue vaciando la cola.
+ * - El escritor es un hilo daemon: si no se llamó a close() antes de que termine la JVM, un
+ *   shutdown hook lo llama para no perder lo encolado. Aun así se debe cerrar explícitamente
+ *   (try-with-resources), el hook no corre si la JVM termina de forma abrupta.
+ */
+public class ExamenWriteBehindServiceImpl implements AutoCloseable {
+
+    private final IExamenService examenService;
+    private final BlockingQueue<Pendiente> cola;
+    private final int tamanioLote;
+    private final long ventanaNanos;
+    private final Thread escritor;
+    private final Thread ganchoApagado;
+
+    /**
+     * Protege el flag cerrado: guardar(...) encola con el lock de lectura y close() lo cambia
+     * con el de escritura, así ningún examen queda en la cola después de que el escritor termine.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean cerrado;
+
+    public ExamenWriteBehindServiceImpl(IExamenService examenService, int capacidadCola, int tamanioLote,
+                                        Duration ventana) {
+        if (capacidadCola <= 0 || tamanioLote <= 0) {
+            throw new IllegalArgumentException("capacidadCola y tamanioLote deben ser mayores a cero");
+        }
+        this.examenService = examenService;
+        this.cola = new ArrayBlockingQueue<>(capacidadCola);
+        this.tamanioLote = tamanioLote;
+        this.ventanaNanos = ventana.toNanos();
+        this.escritor = new Thread(this::escribirMientrasHayaPendientes, "examen-write-behind");
+        this.escritor.setDaemon(true);
+        this.escritor.start();
+        this.ganchoApagado = new Thread(this::close, "examen-write-behind-apagado");
+        Runtime.getRuntime().addShutdownHook(this.ganchoApagado);
+    }
+
+    /**
+     * Encola el examen para ser guardado.
+     *
+     * @return futuro que se completa con el id generado cuando el lote se haya escrito
+     */
+    public CompletableFuture<Long> guardar(Examen examen) {
+        Pendiente pendiente = new Pendiente(examen, new CompletableFuture<>());
+        this.lock.readLock().lock();
+        try {
+            if (this.cerrado) {
+                throw new IllegalStateException("El servicio write-behind ya fue cerrado");
+            }
+            this.cola.put(pendiente);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pendiente.resultado.completeExceptionally(e);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+        return pendiente.resultado;
+    }
+
+    public int pendientes() {
+        return this.cola.size();
+    }
+
+    @Override
+    public void close() {
+        this.lock.writeLock().lock();
+        try {
+            this.cerrado = true;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+        try {
+            Runtime.getRuntime().removeShutdownHook(this.ganchoApagado);
+        } catch (IllegalStateException e) {
+            // La JVM ya se está apagando, close() lo llamó el propio hook
+        }
+        try {
+            this.escritor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void escribirMientrasHayaPendientes() {
+        List<Pendiente> lote = new ArrayList<>(this.tamanioLote);
+        while (!this.cerrado || !this.cola.isEmpty()) {
+            try {
+                this.juntarLote(lote);
+            } catch (InterruptedException e) {
+                // Sólo close() detiene al escritor: se escribe lo ya juntado y se sigue con la cola
+            }
+            if (!lote.isEmpty()) {
+                this.escribir(lote);
+                lote.clear();
+            }
+        }
+    }
+
+    /**
+     * Espera el primer examen y junta hasta tamanioLote o hasta que venza la ventana
+     */
+    private void juntarLote(List<Pendiente> lote) throws InterruptedException {
+        Pendiente primero = this.cola.poll(100, TimeUnit.MILLISECONDS);
+        if (primero == null) {
+            return;
+        }
+        lote.add(primero);
+        long limite = System.nanoTime() + this.ventanaNanos;
+        while (lote.size() < this.tamanioLote) {
+            long restante = limite - System.nanoTime();
+            Pendiente siguiente = this.cerrado || restante <= 0
+                    ? this.cola.poll()
+                    : this.cola.poll(restante, TimeUnit.NANOSECONDS);
+            if (siguiente == null) {
+                return;
+            }
+            lote.add(siguiente);
+        }
+    }
+
+    private void escribir(List<Pendiente> lote) {
+        List<Examen> examenes = new ArrayList<>(lote.size());
+        lote.forEach(pendiente -> examenes.add(pendiente.examen));
+        try {
+            List<Examen> guardados = this.examenService.guardarTodos(examenes);
+            for (int i = 0; i < lote.size(); i++) {
+                Examen guardado = i < guardados.size() ? guardados.get(i) : null;
+                lote.get(i).resultado.complete(guardado == null ? null : guardado.getId());
+            }
+        } catch (RuntimeException | Error e) {
+            // También los Error: si el escritor muriera, los futuros de este lote y los siguientes no terminarían nunca
+            lote.forEach(pendiente -> pendiente.resultado.completeExceptionally(e));
+        }
+    }
+
+    private record Pendiente(Examen examen, CompletableFuture<Long> resultado) {
+    }
+
+}
@@ -0,0 +1,188 @@
+package org.magadiflo.mockito.app.services.impl;
+
+import org.magadiflo.mockito.app.busqueda.Tokenizador;
+import org.magadiflo.mockito.app.models.ErrorImportacion;
+import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.models.Preguntas;
+import org.magadiflo.mockito.app.models.ResultadoImportacion;
+import org.magadiflo.mockito.app.services.IExamenService;
+import org.magadiflo.mockito.app.services.IImportacionExamenesService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Importación masiva por tramos de tamanioLote registros, así la memoria usada no depende del
+ * tamaño de la entrada (el archivo se lee línea a línea con Files.lines). En cada tramo:
+ * 1. En paralelo (ForkJoinPool): interpretar, validar y normalizar cada registro.
+ * 2. En orden: deduplicar por nombre, sin importar mayúsculas ni tildes, contra todo lo ya leído;
+ *    gana el primer registro. Solo se recuerda la clave y el número de cada nombre. No se compara
+ *    con los exámenes que ya están en el catálogo: un nombre que ya existe se guarda otra vez como
+ *    un examen más.
+ * 3. Escribir el tramo con un solo IExamenService.guardarTodos(...). Si el lote falla no se sabe
+ *    qué exámenes llegaron a guardarse, por eso no se reintenta (podría duplicarlos): todos sus
+ *    registros se reportan como fallidos.
+ */
+public class ImportacionExamenesServiceImpl implements IImportacionExamenesService {
+
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+    private static final Pattern SEPARADOR_CAMPOS = Pattern.compile("\\|");
+    private static final Pattern SEPARADOR_PREGUNTAS = Pattern.compile(";");
+
+    private final IExamenService examenService;
+    private final ForkJoinPool pool;
+    private final int tamanioLote;
+
+    public ImportacionExamenesServiceImpl(IExamenService examenService, ForkJoinPool pool, int tamanioLote) {
+        if (tamanioLote <= 0) {
+            throw new IllegalArgumentException("tamanioLote debe ser mayor a cero");
+        }
+        this.examenService = examenService;
+        this.pool = pool;
+        this.tamanioLote = tamanioLote;
+    }
+
+    public ImportacionExamenesServiceImpl(IExamenService examenService) {
+        this(examenService, ForkJoinPool.commonPool(), 1_000);
+    }
+
+    @Override
+    public ResultadoImportacion importar(Stream<Examen> examenes) {
+        return this.importar(examenes.iterator(), this::normalizar);
+    }
+
+    @Override
+    public ResultadoImportacion importar(Path archivo) throws IOException {
+        try (Stream<String> lineas = Files.lines(archivo, StandardCharsets.UTF_8)) {
+            return this.importar(lineas.iterator(), this::interpretar);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private <T> ResultadoImportacion importar(Iterator<T> entrada, Etapa<T> etapaNormalizacion) {
+        List<ErrorImportacion> errores = new ArrayList<>();
+        Map<String, Long> primeroPorNombre = new HashMap<>();
+        List<T> tramo = new ArrayList<>(this.tamanioLote);
+        long numero = 0;
+        long importados = 0;
+        while (entrada.hasNext()) {
+            tramo.add(entrada.next());
+            if (tramo.size() == this.tamanioLote || !entrada.hasNext()) {
+                long primerNumero = numero + 1;
+                numero += tramo.size();
+                List<Registro> unicos = this.deduplicar(this.normalizar(tramo, primerNumero, etapaNormalizacion),
+                        primeroPorNombre, errores);
+                importados += this.escribirLote(unicos, errores);
+                tramo.clear();
+            }
+        }
+        errores.sort(Comparator.comparingLong(ErrorImportacion::registro));
+        return new ResultadoImportacion(importados, errores);
+    }
+
+    private <T> List<Registro> normalizar(List<T> tramo, long primerNumero, Etapa<T> etapaNormalizacion) {
+        return this.pool.submit(() -> IntStream.range(0, tramo.size()).parallel()
+                .mapToObj(i -> etapaNormalizacion.aplicar(primerNumero + i, tramo.get(i)))
+                .collect(Collectors.toList())).join();
+    }
+
+    private List<Registro> deduplicar(List<Registro> registros, Map<String, Long> primeroPorNombre,
+                                      List<ErrorImportacion> errores) {
+        List<Registro> unicos = new ArrayList<>(registros.size());
+        for (Registro registro : registros) {
+            if (registro.error != null) {
+                errores.add(new ErrorImportacion(registro.numero, registro.error));
+                continue;
+            }
+            Long primero = primeroPorNombre.putIfAbsent(registro.clave, registro.numero);
+            if (primero != null) {
+                errores.add(new ErrorImportacion(registro.numero, "nombre duplicado, ya aparece en el registro " + primero));
+                continue;
+            }
+            unicos.add(registro);
+        }
+        return unicos;
+    }
+
+    private long escribirLote(List<Registro> lote, List<ErrorImportacion> errores) {
+        if (lote.isEmpty()) {
+            return 0;
+        }
+        try {
+            this.examenService.guardarTodos(lote.stream().map(Registro::examen).collect(Collectors.toList()));
+            return lote.size();
+        } catch (RuntimeException e) {
+            lote.forEach(registro -> errores.add(new ErrorImportacion(registro.numero,
+                    "no se pudo guardar el lote: " + e.getMessage())));
+            return 0;
+        }
+    }
+
+    private Registro interpretar(long numero, String linea) {
+        String[] campos = SEPARADOR_CAMPOS.split(linea, -1);
+        if (campos.length < 2 || campos.length > 3) {
+            return Registro.conError(numero, "se esperaba id|nombre|preguntas");
+        }
+        Long id = null;
+        if (!campos[0].isBlank()) {
+            try {
+                id = Long.parseLong(campos[0].strip());
+            } catch (NumberFormatException e) {
+                return Registro.conError(numero, "id no numérico: " + campos[0]);
+            }
+        }
+        Examen examen = new Examen(id, campos[1]);
+        if (campos.length == 3 && !campos[2].isBlank()) {
+            examen.setPreguntas(List.of(SEPARADOR_PREGUNTAS.split(campos[2])));
+        }
+        return this.normalizar(numero, examen);
+    }
+
+    private Registro normalizar(long numero, Examen original) {
+        List<String> errores = ExamenValidador.validar(original);
+        if (!errores.isEmpty()) {
+            return Registro.conError(numero, String.join(", ", errores));
+        }
+        String nombre = ESPACIOS.matcher(original.getNombre().strip()).replaceAll(" ");
+        Set<String> preguntas = new LinkedHashSet<>();
+        for (String pregunta : original.getPreguntas()) {
+            if (pregunta != null && !pregunta.isBlank()) {
+                preguntas.add(ESPACIOS.matcher(pregunta.strip()).replaceAll(" "));
+            }
+        }
+        Examen examen = new Examen(original.getId(), nombre);
+        examen.setPreguntas(Preguntas.internadas(preguntas));
+        return new Registro(numero, examen, Tokenizador.normalizar(nombre), null);
+    }
+
+    @FunctionalInterface
+    private interface Etapa<T> {
+        Registro aplicar(long numero, T entrada);
+    }
+
+    private record Registro(long numero, Examen examen, String clave, String error) {
+
+        static Registro conError(long numero, String error) {
+            return new Registro(numero, null, null, error);
+        }
+
+    }
+
+}
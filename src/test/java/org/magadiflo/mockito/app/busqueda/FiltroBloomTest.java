@@ -0,0 +1,30 @@
+package org.magadiflo.mockito.app.busqueda;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FiltroBloomTest {
+
+    @Test
+    void testSinFalsosNegativosYTasaCercanaALaPedida() {
+        FiltroBloom filtro = new FiltroBloom(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filtro.agregar("Examen " + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filtro.puedeContener("Examen " + i));
+        }
+        int falsosPositivos = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filtro.puedeContener("Inexistente " + i)) {
+                falsosPositivos++;
+            }
+        }
+        assertTrue(falsosPositivos < 2_000, "falsos positivos: " + falsosPositivos);
+        assertEquals(0.01, filtro.tasaFalsosPositivosEstimada(), 0.005);
+        assertEquals(7, filtro.numeroHashes());
+    }
+
+}
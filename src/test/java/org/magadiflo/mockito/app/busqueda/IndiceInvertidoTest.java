@@ -0,0 +1,106 @@
+package org.magadiflo.mockito.app.busqueda;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.magadiflo.mockito.app.Datos;
+import org.magadiflo.mockito.app.models.Examen;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceInvertidoTest {
+
+    IndiceInvertido indiceInvertido;
+
+    @BeforeEach
+    void setUp() {
+        this.indiceInvertido = new IndiceInvertido();
+        for (Examen examen : Datos.EXAMENES) {
+            Examen indexado = new Examen(examen.getId(), examen.getNombre());
+            if (examen.getId() == 1L) {
+                indexado.setPreguntas(Datos.PREGUNTAS);
+            }
+            this.indiceInvertido.indexar(indexado);
+        }
+    }
+
+    @Test
+    void testBuscaPorPrefijoSinTildesNiMayusculas() {
+        List<ResultadoBusqueda> resultados = this.indiceInvertido.buscar("matem", 10);
+
+        assertEquals(1, resultados.size());
+        assertEquals("Matemáticas", resultados.get(0).examen().getNombre());
+        assertEquals("Religión", this.indiceInvertido.buscar("RELIGION", 10).get(0).examen().getNombre());
+    }
+
+    @Test
+    void testBuscaEnLasPreguntas() {
+        List<ResultadoBusqueda> resultados = this.indiceInvertido.buscar("integrales derivadas", 10);
+
+        assertEquals(1, resultados.size());
+        assertEquals(1L, resultados.get(0).examen().getId());
+        assertTrue(this.indiceInvertido.buscar("integrales química", 10).isEmpty());
+    }
+
+    @Test
+    void testCadaResultadoEsUnaCopia() {
+        Examen primero = this.indiceInvertido.buscar("matematicas", 10).get(0).examen();
+        primero.setNombre("Modificado");
+
+        Examen segundo = this.indiceInvertido.buscar("matematicas", 10).get(0).examen();
+
+        assertNotSame(primero, segundo);
+        assertEquals("Matemáticas", segundo.getNombre());
+    }
+
+    @Test
+    void testAutocompletar() {
+        assertEquals(List.of("personal"), this.indiceInvertido.autocompletar("Pers", 5));
+        assertEquals(List.of("geometria"), this.indiceInvertido.autocompletar("geo", 5));
+        assertTrue(this.indiceInvertido.autocompletar("xyz", 5).isEmpty());
+    }
+
+    @Test
+    void testReindexarReemplazaLaVersionAnterior() {
+        Examen historia = new Examen(3L, "Historia Universal");
+        historia.setPreguntas(List.of("Revolución francesa"));
+
+        this.indiceInvertido.indexar(historia);
+
+        assertEquals("Historia Universal", this.indiceInvertido.buscar("revolucion", 10).get(0).examen().getNombre());
+        assertEquals(6, this.indiceInvertido.numeroExamenes());
+        this.indiceInvertido.eliminar(3L);
+        assertTrue(this.indiceInvertido.buscar("historia", 10).isEmpty());
+        assertTrue(this.indiceInvertido.autocompletar("hist", 5).isEmpty());
+    }
+
+    @Test
+    void testPrefijoEncuentraTodosLosTerminosSinTruncar() {
+        IndiceInvertido indice = new IndiceInvertido();
+        for (long id = 1; id <= 200; id++) {
+            indice.indexar(new Examen(id, "Tema" + id));
+        }
+
+        assertEquals(200, indice.buscar("tema", 500).size());
+        assertEquals(List.of("tema1", "tema10", "tema100"), indice.autocompletar("tema1", 3));
+    }
+
+    @Test
+    void testEliminarPodaLosNodosDelTrie() {
+        TrieTerminos trie = new TrieTerminos();
+        trie.agregar("historia", 1L, 3);
+        trie.agregar("hito", 2L, 1);
+        int nodos = trie.numeroNodos();
+
+        trie.agregar("historial", 3L, 1);
+        trie.quitar("historial", 3L);
+        assertEquals(nodos, trie.numeroNodos());
+
+        trie.quitar("historia", 1L);
+        trie.quitar("hito", 2L);
+        assertEquals(0, trie.numeroNodos());
+        assertTrue(trie.conPrefijo("hi", 5).isEmpty());
+    }
+
+}
@@ -0,0 +1,143 @@
+package org.magadiflo.mockito.app.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    @Test
+    void testLlamadasConcurrentesCompartenUnaSolaEjecucion() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        AtomicInteger ejecuciones = new AtomicInteger();
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        List<Future<String>> resultados = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            resultados.add(executor.submit(() -> singleFlight.ejecutar("Matemáticas", () -> {
+                ejecuciones.incrementAndGet();
+                try {
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "resultado";
+            })));
+        }
+        // Uno ejecuta y los otros siete esperan su resultado
+        while (singleFlight.esperando() < 7) {
+            Thread.onSpinWait();
+        }
+        liberar.countDown();
+
+        for (Future<String> resultado : resultados) {
+            assertEquals("resultado", resultado.get(1, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        assertEquals(1, ejecuciones.get());
+        assertEquals(0, singleFlight.llamadasEnCurso());
+    }
+
+    @Test
+    void testLosQueEsperanRecibenLaMismaExcepcion() throws Exception {
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>();
+        CountDownLatch liberar = new CountDownLatch(1);
+        IllegalArgumentException error = new IllegalArgumentException("id inválido");
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        Future<?> lider = executor.submit(() -> singleFlight.ejecutar(1L, () -> {
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw error;
+        }));
+        while (singleFlight.llamadasEnCurso() == 0) {
+            Thread.onSpinWait();
+        }
+        Future<?> seguidor = executor.submit(() -> singleFlight.ejecutar(1L, () -> "no debería ejecutarse"));
+        while (singleFlight.esperando() == 0) {
+            Thread.onSpinWait();
+        }
+        liberar.countDown();
+
+        Exception exceptionLider = assertThrows(Exception.class, () -> lider.get(1, TimeUnit.SECONDS));
+        Exception exceptionSeguidor = assertThrows(Exception.class, () -> seguidor.get(1, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertSame(error, exceptionLider.getCause());
+        assertSame(error, exceptionSeguidor.getCause());
+    }
+
+    @Test
+    void testSiLaLlamadaEnCursoTardaDemasiadoSeHaceUnaPropia() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(Duration.ofMillis(50));
+        CountDownLatch enCurso = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        Future<String> colgada = executor.submit(() -> singleFlight.ejecutar("Matemáticas", () -> {
+            enCurso.countDown();
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "colgada";
+        }));
+        assertTrue(enCurso.await(1, TimeUnit.SECONDS));
+
+        assertEquals("propia", singleFlight.ejecutar("Matemáticas", () -> "propia"));
+        liberar.countDown();
+        assertEquals("colgada", colgada.get(1, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertEquals(0, singleFlight.esperando());
+    }
+
+    @Test
+    void testInterrumpirAlQueEsperaCancelaSuEspera() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        CountDownLatch enCurso = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        executor.submit(() -> singleFlight.ejecutar("Matemáticas", () -> {
+            enCurso.countDown();
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "resultado";
+        }));
+        assertTrue(enCurso.await(1, TimeUnit.SECONDS));
+        Future<?> seguidor = executor.submit(() -> singleFlight.ejecutar("Matemáticas", () -> "no debería ejecutarse"));
+        while (singleFlight.esperando() == 0) {
+            Thread.onSpinWait();
+        }
+
+        seguidor.cancel(true);
+        // Deja de esperar aunque la llamada en curso siga bloqueada
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (singleFlight.esperando() > 0 && System.nanoTime() < limite) {
+            Thread.onSpinWait();
+        }
+        assertEquals(0, singleFlight.esperando());
+        assertEquals(1, singleFlight.llamadasEnCurso());
+        liberar.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+    }
+
+}
@@ -0,0 +1,129 @@
+package org.magadiflo.mockito.app.carga;
+
+import org.junit.jupiter.api.Test;
+import org.magadiflo.mockito.app.metricas.HistogramaLatencia;
+import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.repositories.impl.ExamenRepositoryConcurrenteImpl;
+import org.magadiflo.mockito.app.repositories.impl.PreguntaRepositoryImpl;
+import org.magadiflo.mockito.app.services.IExamenService;
+import org.magadiflo.mockito.app.services.impl.ExamenServiceImpl;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class GeneradorCargaTest {
+
+    @Test
+    void testZipfConcentraLasConsultasEnLosPrimerosRangos() {
+        DistribucionZipf zipf = new DistribucionZipf(1_000, 0.99);
+        SplittableRandom random = new SplittableRandom(1);
+        int[] veces = new int[1_000];
+        for (int i = 0; i < 100_000; i++) {
+            veces[zipf.siguiente(random)]++;
+        }
+
+        assertEquals(zipf.probabilidad(0) * 100_000, veces[0], 1_000);
+        assertTrue(veces[0] > veces[1] && veces[1] > veces[10] && veces[10] > veces[500]);
+        assertEquals(0, zipf.rango(0.0));
+        assertEquals(999, zipf.rango(0.9999999999));
+        assertEquals(1.0 / 1_000, new DistribucionZipf(1_000, 0).probabilidad(500), 1e-9);
+    }
+
+    @Test
+    void testModeloCerradoContraUnServicioReal() throws InterruptedException {
+        ExamenServiceImpl examenService = new ExamenServiceImpl(new ExamenRepositoryConcurrenteImpl(), new PreguntaRepositoryImpl());
+        List<Examen> catalogo = GeneradorCarga.catalogoSintetico(500);
+        examenService.guardarTodos(catalogo);
+
+        ResultadoCarga resultado = new GeneradorCarga(examenService, catalogo.stream().map(Examen::getNombre).toList(),
+                ConfiguracionCarga.builder()
+                        .cerrado(2)
+                        .duracion(Duration.ofMillis(300))
+                        .calentamiento(Duration.ofMillis(100))
+                        .proporcionInexistentes(0.2)
+                        .build())
+                .ejecutar();
+
+        assertEquals("Matemáticas", catalogo.get(0).getNombre());
+        assertEquals("Examen 500", catalogo.get(499).getNombre());
+        assertTrue(resultado.operaciones() > 0);
+        assertEquals(0, resultado.errores());
+        assertTrue(resultado.operacionesPorSegundo() > 0);
+        assertEquals(resultado.servicio(), resultado.latencia(), "Sin intervalo esperado no se corrige");
+        assertEquals(3, resultado.porOperacion().size());
+        assertTrue(examenService.findExamenByNombre("Examen carga 1").isPresent());
+        assertTrue(resultado.resumen().contains("BUSCAR_CON_PREGUNTAS"));
+    }
+
+    @Test
+    void testModeloAbiertoIncluyeLaEsperaDeUnServicioLento() throws InterruptedException {
+        IExamenService examenService = mock(IExamenService.class);
+        when(examenService.findExamenByNombre(anyString())).thenAnswer(invocation -> {
+            Thread.sleep(20);
+            return Optional.empty();
+        });
+
+        // 100 operaciones por segundo con un único usuario y un servicio que solo atiende 50
+        ResultadoCarga resultado = new GeneradorCarga(examenService, List.of("Matemáticas", "Lenguaje"),
+                ConfiguracionCarga.builder()
+                        .abierto(100, 1)
+                        .duracion(Duration.ofMillis(300))
+                        .calentamiento(Duration.ZERO)
+                        .mezcla(1, 0, 0)
+                        .build())
+                .ejecutar();
+
+        assertEquals(30, resultado.operaciones());
+        assertTrue(resultado.servicio().p99() < Duration.ofMillis(100).toNanos());
+        assertTrue(resultado.latencia().p99() > Duration.ofMillis(200).toNanos());
+        assertEquals(Set.of(OperacionCarga.BUSCAR), resultado.porOperacion().keySet());
+    }
+
+    @Test
+    void testErroresDelServicioSeCuentanYSeMiden() throws InterruptedException {
+        IExamenService examenService = mock(IExamenService.class);
+        when(examenService.guardar(any())).thenThrow(new IllegalStateException("sin conexión"));
+
+        ResultadoCarga resultado = new GeneradorCarga(examenService, List.of("Matemáticas"),
+                ConfiguracionCarga.builder()
+                        .cerrado(1)
+                        .duracion(Duration.ofMillis(100))
+                        .calentamiento(Duration.ZERO)
+                        .tiempoPensamiento(Duration.ofMillis(5))
+                        .mezcla(0, 0, 1)
+                        .build())
+                .ejecutar();
+
+        assertTrue(resultado.operaciones() > 0);
+        assertEquals(resultado.operaciones(), resultado.errores());
+        verify(examenService, never()).findExamenByNombre(anyString());
+    }
+
+    @Test
+    void testCorreccionPorIntervaloEsperado() {
+        HistogramaLatencia histograma = new HistogramaLatencia();
+        histograma.registrar(1_000, 100);
+        histograma.registrar(50, 100);
+
+        // 1000, 900, 800, ..., 100 y luego 50
+        assertEquals(11, histograma.cantidad());
+        assertEquals(1_000, histograma.maximo());
+        assertEquals(5_550, histograma.suma());
+    }
+
+    @Test
+    void testConfiguracionInvalida() {
+        assertThrows(IllegalArgumentException.class, () -> ConfiguracionCarga.builder().abierto(0, 4).build());
+        assertThrows(IllegalArgumentException.class, () -> ConfiguracionCarga.builder().mezcla(0, 0, 0).build());
+        assertThrows(IllegalArgumentException.class, () -> ConfiguracionCarga.builder().cerrado(0).build());
+        assertThrows(IllegalArgumentException.class, () -> ConfiguracionCarga.builder().duracion(Duration.ZERO).build());
+    }
+
+}
@@ -0,0 +1,70 @@
+package org.magadiflo.mockito.app.metricas;
+
+import org.junit.jupiter.api.Test;
+import org.magadiflo.mockito.app.Datos;
+import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.repositories.IExamenRepository;
+import org.magadiflo.mockito.app.repositories.IPreguntasRepository;
+import org.magadiflo.mockito.app.repositories.impl.ExamenRepositoryInstrumentadoImpl;
+import org.magadiflo.mockito.app.repositories.impl.PreguntaRepositoryImpl;
+import org.magadiflo.mockito.app.repositories.impl.PreguntaRepositoryInstrumentadoImpl;
+import org.mockito.Mockito;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegistroMetricasTest {
+
+    @Test
+    void testHistogramaPercentiles() {
+        HistogramaLatencia histograma = new HistogramaLatencia();
+        for (long i = 1; i <= 1000; i++) {
+            histograma.registrar(i * 1_000);
+        }
+
+        assertEquals(1000, histograma.cantidad());
+        assertEquals(1_000_000, histograma.maximo());
+        assertEquals(500_000, histograma.percentil(0.5), 500_000 * 0.0625);
+        assertEquals(990_000, histograma.percentil(0.99), 990_000 * 0.0625);
+    }
+
+    @Test
+    void testDecoradorRegistraLlamadasErroresYTamanio() {
+        PreguntaRepositoryImpl preguntasRepository = Mockito.mock(PreguntaRepositoryImpl.class);
+        Mockito.when(preguntasRepository.findPreguntasByExamenId(1L)).thenReturn(Datos.PREGUNTAS);
+        Mockito.when(preguntasRepository.findPreguntasByExamenId(2L)).thenThrow(IllegalArgumentException.class);
+        RegistroMetricas registroMetricas = new RegistroMetricas();
+        IPreguntasRepository instrumentado = new PreguntaRepositoryInstrumentadoImpl(preguntasRepository, registroMetricas);
+
+        instrumentado.findPreguntasByExamenId(1L);
+        assertThrows(IllegalArgumentException.class, () -> instrumentado.findPreguntasByExamenId(2L));
+
+        MetricaOperacion metrica = registroMetricas.metrica("preguntasRepository.findPreguntasByExamenId");
+        assertEquals(2, metrica.getLlamadas());
+        assertEquals(1, metrica.getErrores());
+        assertEquals(6, metrica.getTamanioResultado().maximo());
+
+        String prometheus = registroMetricas.exportarPrometheus();
+        assertTrue(prometheus.contains("mockito_app_llamadas_total{operacion=\"preguntasRepository.findPreguntasByExamenId\"} 2"));
+        assertTrue(prometheus.contains("mockito_app_errores_total{operacion=\"preguntasRepository.findPreguntasByExamenId\"} 1"));
+        assertTrue(prometheus.contains("quantile=\"0.99\""));
+    }
+
+    @Test
+    void testDecoradorConservaElIndicePorNombreDelRepositorio() {
+        IExamenRepository examenRepository = Mockito.mock(IExamenRepository.class);
+        Mockito.when(examenRepository.tieneIndicePorNombre()).thenReturn(true);
+        Mockito.when(examenRepository.findByNombre("Matemáticas")).thenReturn(Optional.of(new Examen(1L, "Matemáticas")));
+        RegistroMetricas registroMetricas = new RegistroMetricas();
+        IExamenRepository instrumentado = new ExamenRepositoryInstrumentadoImpl(examenRepository, registroMetricas);
+
+        assertTrue(instrumentado.tieneIndicePorNombre());
+        assertEquals(1L, instrumentado.findByNombre("Matemáticas").orElseThrow().getId());
+
+        Mockito.verify(examenRepository, Mockito.never()).findAll();
+        Mockito.verify(examenRepository, Mockito.never()).streamAll();
+        assertEquals(1, registroMetricas.metrica("examenRepository.findByNombre").getLlamadas());
+    }
+
+}
@@ -0,0 +1,95 @@
+package org.magadiflo.mockito.app.models;
+
+import org.junit.jupiter.api.Test;
+import org.magadiflo.mockito.app.Datos;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExamenTest {
+
+    @Test
+    void testIdNullSeConserva() {
+        Examen examen = new Examen(null, "Física");
+
+        assertNull(examen.getId());
+        assertFalse(examen.tieneId());
+
+        examen.setId(7L);
+        assertEquals(7L, examen.getId());
+        assertEquals(7L, examen.getIdPrimitivo());
+        assertTrue(examen.tieneId());
+
+        examen.setId(null);
+        assertNull(examen.getId());
+        assertFalse(examen.tieneId());
+    }
+
+    @Test
+    void testSinPreguntasCompartenLaListaVacia() {
+        assertSame(Preguntas.NINGUNA, new Examen(1L, "Física").getPreguntas());
+        assertSame(Preguntas.NINGUNA, new Examen(null, "Química").getPreguntas());
+    }
+
+    @Test
+    void testSetPreguntasGuardaUnaCopiaInmutable() {
+        List<String> preguntas = new ArrayList<>(Arrays.asList("aritmética", "integrales"));
+        Examen examen = new Examen(1L, "Matemáticas");
+        examen.setPreguntas(preguntas);
+
+        preguntas.add("derivadas");
+
+        assertEquals(List.of("aritmética", "integrales"), examen.getPreguntas());
+        assertThrows(UnsupportedOperationException.class, () -> examen.getPreguntas().add("derivadas"));
+    }
+
+    @Test
+    void testSetPreguntasCompartePreguntasYaInmutables() {
+        Examen examen = new Examen(1L, "Matemáticas");
+        examen.setPreguntas(Datos.PREGUNTAS);
+
+        assertSame(Datos.PREGUNTAS, examen.getPreguntas());
+    }
+
+    @Test
+    void testSetPreguntasConPreguntaNullLanzaNullPointerException() {
+        Examen examen = new Examen(1L, "Matemáticas");
+
+        assertThrows(NullPointerException.class, () -> examen.setPreguntas(Arrays.asList("aritmética", null)));
+        assertSame(Preguntas.NINGUNA, examen.getPreguntas());
+    }
+
+    @Test
+    void testConPreguntasNoModificaElOriginal() {
+        Examen original = new Examen(1L, "Matemáticas");
+
+        Examen copia = original.conPreguntas(Datos.PREGUNTAS);
+
+        assertNotSame(original, copia);
+        assertEquals(1L, copia.getId());
+        assertEquals(Datos.PREGUNTAS, copia.getPreguntas());
+        assertTrue(original.getPreguntas().isEmpty());
+        assertNull(new Examen(null, "Física").conPreguntas(Datos.PREGUNTAS).getId());
+    }
+
+    @Test
+    void testPreguntasDiferidasSeCarganUnaSolaVez() {
+        AtomicInteger cargas = new AtomicInteger();
+        Examen examen = new Examen(1L, "Matemáticas");
+        examen.setPreguntasDiferidas(() -> {
+            cargas.incrementAndGet();
+            return Datos.PREGUNTAS;
+        });
+
+        assertFalse(examen.preguntasCargadas());
+        assertEquals(Datos.PREGUNTAS, examen.getPreguntas());
+        assertEquals(Datos.PREGUNTAS, examen.getPreguntas());
+        assertTrue(examen.preguntasCargadas());
+        assertEquals(1, cargas.get());
+    }
+
+}
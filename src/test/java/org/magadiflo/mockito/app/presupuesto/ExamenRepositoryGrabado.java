@@ -0,0 +1,73 @@
+package org.magadiflo.mockito.app.presupuesto;
+
+import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.models.Pagina;
+import org.magadiflo.mockito.app.repositories.IExamenRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Decorador de IExamenRepository para las pruebas que cuenta llamadas y filas en un RegistroLlamadas.
+ * Delega también findByNombre(...) y tieneIndicePorNombre(), así el servicio sigue el mismo camino
+ * que con el repositorio sin decorar.
+ */
+public class ExamenRepositoryGrabado implements IExamenRepository {
+
+    private final IExamenRepository examenRepository;
+    private final RegistroLlamadas registro;
+
+    public ExamenRepositoryGrabado(IExamenRepository examenRepository, RegistroLlamadas registro) {
+        this.examenRepository = examenRepository;
+        this.registro = registro;
+    }
+
+    @Override
+    public List<Examen> findAll() {
+        List<Examen> examenes = this.examenRepository.findAll();
+        this.registro.registrar("examenRepository.findAll", examenes.size());
+        return examenes;
+    }
+
+    /**
+     * Las filas se cuentan a medida que quien consume el stream las lee
+     */
+    @Override
+    public Stream<Examen> streamAll() {
+        this.registro.registrar("examenRepository.streamAll", 0);
+        return this.examenRepository.streamAll().peek(examen -> this.registro.sumarFilas("examenRepository.streamAll", 1));
+    }
+
+    @Override
+    public Pagina<Examen> findPage(long cursor, int tamanio) {
+        Pagina<Examen> pagina = this.examenRepository.findPage(cursor, tamanio);
+        this.registro.registrar("examenRepository.findPage", pagina.contenido().size());
+        return pagina;
+    }
+
+    @Override
+    public boolean tieneIndicePorNombre() {
+        return this.examenRepository.tieneIndicePorNombre();
+    }
+
+    @Override
+    public Optional<Examen> findByNombre(String nombre) {
+        Optional<Examen> examen = this.examenRepository.findByNombre(nombre);
+        this.registro.registrar("examenRepository.findByNombre", examen.isPresent() ? 1 : 0);
+        return examen;
+    }
+
+    @Override
+    public Examen guardar(Examen examen) {
+        this.registro.registrar("examenRepository.guardar", 1);
+        return this.examenRepository.guardar(examen);
+    }
+
+    @Override
+    public List<Examen> guardarTodos(List<Examen> examenes) {
+        this.registro.registrar("examenRepository.guardarTodos", examenes.size());
+        return this.examenRepository.guardarTodos(examenes);
+    }
+
+}
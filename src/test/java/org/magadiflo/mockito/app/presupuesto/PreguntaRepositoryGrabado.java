@@ -0,0 +1,49 @@
+package org.magadiflo.mockito.app.presupuesto;
+
+import org.magadiflo.mockito.app.repositories.IPreguntasRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decorador de IPreguntasRepository para las pruebas que cuenta llamadas y preguntas en un RegistroLlamadas.
+ */
+public class PreguntaRepositoryGrabado implements IPreguntasRepository {
+
+    private final IPreguntasRepository preguntasRepository;
+    private final RegistroLlamadas registro;
+
+    public PreguntaRepositoryGrabado(IPreguntasRepository preguntasRepository, RegistroLlamadas registro) {
+        this.preguntasRepository = preguntasRepository;
+        this.registro = registro;
+    }
+
+    @Override
+    public List<String> findPreguntasByExamenId(Long id) {
+        List<String> preguntas = this.preguntasRepository.findPreguntasByExamenId(id);
+        this.registro.registrar("preguntasRepository.findPreguntasByExamenId", preguntas == null ? 0 : preguntas.size());
+        return preguntas;
+    }
+
+    @Override
+    public Map<Long, List<String>> findPreguntasByExamenIds(Collection<Long> ids) {
+        Map<Long, List<String>> preguntasPorExamen = this.preguntasRepository.findPreguntasByExamenIds(ids);
+        this.registro.registrar("preguntasRepository.findPreguntasByExamenIds",
+                preguntasPorExamen.values().stream().mapToLong(List::size).sum());
+        return preguntasPorExamen;
+    }
+
+    @Override
+    public void guardarVarias(List<String> preguntas) {
+        this.registro.registrar("preguntasRepository.guardarVarias", preguntas.size());
+        this.preguntasRepository.guardarVarias(preguntas);
+    }
+
+    @Override
+    public void guardarVariasEnLote(List<List<String>> lotes) {
+        this.registro.registrar("preguntasRepository.guardarVariasEnLote", lotes.stream().mapToLong(List::size).sum());
+        this.preguntasRepository.guardarVariasEnLote(lotes);
+    }
+
+}
@@ -0,0 +1,109 @@
+package org.magadiflo.mockito.app.presupuesto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Contrato de rendimiento de una operación del servicio: cuántas llamadas al repositorio y cuántas
+ * filas puede usar como máximo. Un presupuesto fijo para un lote de N elementos detecta los N+1
+ * (una llamada por elemento) y las lecturas repetidas antes de que lleguen a producción.
+ * <pre>
+ * PresupuestoLlamadas.sobre(registro)
+ *         .maximoLlamadas("preguntasRepository.findPreguntasByExamenIds", 1)
+ *         .ninguna("preguntasRepository.findPreguntasByExamenId")
+ *         .verificar(() -> service.findExamenesByNombresWithPreguntas(nombres));
+ * </pre>
+ * verificar(...) reinicia el registro, ejecuta la operación y falla la prueba con todo lo que se
+ * excedió y el detalle de las llamadas. Las operaciones sin límite no se controlan.
+ */
+public final class PresupuestoLlamadas {
+
+    private final RegistroLlamadas registro;
+    private final Map<String, Long> maximoLlamadas = new LinkedHashMap<>();
+    private final Map<String, Long> maximoFilas = new LinkedHashMap<>();
+    private long maximoLlamadasTotales = Long.MAX_VALUE;
+    private long maximoFilasTotales = Long.MAX_VALUE;
+
+    private PresupuestoLlamadas(RegistroLlamadas registro) {
+        this.registro = registro;
+    }
+
+    public static PresupuestoLlamadas sobre(RegistroLlamadas registro) {
+        return new PresupuestoLlamadas(registro);
+    }
+
+    public PresupuestoLlamadas maximoLlamadas(String operacion, long maximo) {
+        this.maximoLlamadas.put(operacion, maximo);
+        return this;
+    }
+
+    public PresupuestoLlamadas ninguna(String operacion) {
+        return this.maximoLlamadas(operacion, 0);
+    }
+
+    public PresupuestoLlamadas maximoFilas(String operacion, long maximo) {
+        this.maximoFilas.put(operacion, maximo);
+        return this;
+    }
+
+    /**
+     * Llamadas entre todas las operaciones de los repositorios grabados
+     */
+    public PresupuestoLlamadas maximoLlamadasTotales(long maximo) {
+        this.maximoLlamadasTotales = maximo;
+        return this;
+    }
+
+    public PresupuestoLlamadas maximoFilasTotales(long maximo) {
+        this.maximoFilasTotales = maximo;
+        return this;
+    }
+
+    /**
+     * @return lo que devolvió la operación, para seguir verificando el resultado
+     */
+    public <T> T verificar(Supplier<T> operacion) {
+        this.registro.reiniciar();
+        T resultado = operacion.get();
+        this.comprobar();
+        return resultado;
+    }
+
+    public void verificar(Runnable operacion) {
+        this.verificar(() -> {
+            operacion.run();
+            return null;
+        });
+    }
+
+    /**
+     * Compara lo registrado desde el último reinicio sin ejecutar nada, para operaciones que
+     * no se pueden encerrar en un Supplier (por ejemplo varias llamadas con preparación entre ellas)
+     */
+    public void comprobar() {
+        List<String> excedidos = new ArrayList<>();
+        this.maximoLlamadas.forEach((operacion, maximo) ->
+                exceder(excedidos, operacion + " llamadas", this.registro.llamadas(operacion), maximo));
+        this.maximoFilas.forEach((operacion, maximo) ->
+                exceder(excedidos, operacion + " filas", this.registro.filas(operacion), maximo));
+        exceder(excedidos, "llamadas totales", this.registro.totalLlamadas(), this.maximoLlamadasTotales);
+        exceder(excedidos, "filas totales", this.registro.totalFilas(), this.maximoFilasTotales);
+        if (!excedidos.isEmpty()) {
+            fail("Presupuesto de repositorio excedido:" + System.lineSeparator()
+                    + String.join(System.lineSeparator(), excedidos) + System.lineSeparator()
+                    + "Llamadas registradas:" + System.lineSeparator() + this.registro.resumen());
+        }
+    }
+
+    private static void exceder(List<String> excedidos, String concepto, long real, long maximo) {
+        if (real > maximo) {
+            excedidos.add("  " + concepto + ": " + real + " (máximo " + maximo + ")");
+        }
+    }
+
+}
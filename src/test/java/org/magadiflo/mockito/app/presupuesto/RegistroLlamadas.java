@@ -0,0 +1,74 @@
+package org.magadiflo.mockito.app.presupuesto;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Llamadas y filas (exámenes o preguntas leídos o escritos) de cada operación de repositorio,
+ * las registran ExamenRepositoryGrabado y PreguntaRepositoryGrabado. Las operaciones se nombran
+ * igual que en los decoradores instrumentados: "examenRepository.findAll", "preguntasRepository.guardarVarias"...
+ */
+public class RegistroLlamadas {
+
+    private final Map<String, Contador> contadores = new ConcurrentHashMap<>();
+
+    void registrar(String operacion, long filas) {
+        Contador contador = this.contador(operacion);
+        contador.llamadas.increment();
+        contador.filas.add(filas);
+    }
+
+    /**
+     * Suma filas a una llamada ya registrada, para los streams que se leen después de abrirlos
+     */
+    void sumarFilas(String operacion, long filas) {
+        this.contador(operacion).filas.add(filas);
+    }
+
+    public long llamadas(String operacion) {
+        Contador contador = this.contadores.get(operacion);
+        return contador == null ? 0 : contador.llamadas.sum();
+    }
+
+    public long filas(String operacion) {
+        Contador contador = this.contadores.get(operacion);
+        return contador == null ? 0 : contador.filas.sum();
+    }
+
+    public long totalLlamadas() {
+        return this.contadores.values().stream().mapToLong(contador -> contador.llamadas.sum()).sum();
+    }
+
+    public long totalFilas() {
+        return this.contadores.values().stream().mapToLong(contador -> contador.filas.sum()).sum();
+    }
+
+    public void reiniciar() {
+        this.contadores.clear();
+    }
+
+    /**
+     * Una línea por operación, ordenadas por nombre, para los mensajes de error
+     */
+    public String resumen() {
+        StringBuilder resumen = new StringBuilder();
+        new TreeMap<>(this.contadores).forEach((operacion, contador) -> resumen.append("  ").append(operacion)
+                .append(": ").append(contador.llamadas.sum()).append(" llamadas, ")
+                .append(contador.filas.sum()).append(" filas").append(System.lineSeparator()));
+        return resumen.toString();
+    }
+
+    private Contador contador(String operacion) {
+        return this.contadores.computeIfAbsent(operacion, nombre -> new Contador());
+    }
+
+    private static final class Contador {
+
+        private final LongAdder llamadas = new LongAdder();
+        private final LongAdder filas = new LongAdder();
+
+    }
+
+}
@@ -0,0 +1,74 @@
+package org.magadiflo.mockito.app.repositories;
+
+import org.junit.jupiter.api.Test;
+import org.magadiflo.mockito.app.Datos;
+import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.models.Pagina;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Métodos por defecto de IExamenRepository sobre un repositorio que solo implementa findAll()
+ */
+class IExamenRepositoryTest {
+
+    private static IExamenRepository repositorio(List<Examen> examenes) {
+        return new IExamenRepository() {
+            @Override
+            public List<Examen> findAll() {
+                return examenes;
+            }
+
+            @Override
+            public Examen guardar(Examen examen) {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    @Test
+    void testStreamAllRecorreFindAll() {
+        assertEquals(Datos.EXAMENES, repositorio(Datos.EXAMENES).streamAll().toList());
+    }
+
+    @Test
+    void testFindPageAvanzaElCursorPorElTamanio() {
+        IExamenRepository repository = repositorio(Datos.EXAMENES);
+
+        Pagina<Examen> primera = repository.findPage(0, 4);
+        Pagina<Examen> segunda = repository.findPage(primera.siguienteCursor(), 4);
+
+        assertEquals(Datos.EXAMENES.subList(0, 4), primera.contenido());
+        assertEquals(4L, primera.siguienteCursor());
+        assertEquals(Datos.EXAMENES.subList(4, 6), segunda.contenido());
+        assertNull(segunda.siguienteCursor());
+    }
+
+    @Test
+    void testFindPageExactaNoTieneSiguiente() {
+        Pagina<Examen> pagina = repositorio(Datos.EXAMENES).findPage(3, 3);
+
+        assertEquals(Datos.EXAMENES.subList(3, 6), pagina.contenido());
+        assertFalse(pagina.tieneSiguiente());
+    }
+
+    @Test
+    void testFindPageSobreRepositorioVacio() {
+        Pagina<Examen> pagina = repositorio(Collections.emptyList()).findPage(0, 10);
+
+        assertTrue(pagina.contenido().isEmpty());
+        assertNull(pagina.siguienteCursor());
+    }
+
+    @Test
+    void testFindPageRechazaArgumentosInvalidos() {
+        IExamenRepository repository = repositorio(Datos.EXAMENES);
+
+        assertThrows(IllegalArgumentException.class, () -> repository.findPage(-1, 5));
+        assertThrows(IllegalArgumentException.class, () -> repository.findPage(0, 0));
+    }
+
+}
@@ -0,0 +1,41 @@
+package org.magadiflo.mockito.app.repositories.impl;
+
+import org.junit.jupiter.api.Test;
+import org.magadiflo.mockito.app.Datos;
+import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.models.Pagina;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * findPage(...) propio de ExameRepositoryImpl, los casos comunes con el método por defecto están en IExamenRepositoryTest
+ */
+class ExameRepositoryImplTest {
+
+    private final ExameRepositoryImpl repository = new ExameRepositoryImpl();
+
+    @Test
+    void testFindPageRecorreTodoElCatalogoSinRepetir() {
+        List<Examen> recorridos = new ArrayList<>();
+        Pagina<Examen> pagina = this.repository.findPage(0, 2);
+        recorridos.addAll(pagina.contenido());
+        while (pagina.tieneSiguiente()) {
+            pagina = this.repository.findPage(pagina.siguienteCursor(), 2);
+            recorridos.addAll(pagina.contenido());
+        }
+
+        assertEquals(Datos.EXAMENES, recorridos);
+    }
+
+    @Test
+    void testFindPageConCursorMasAllaDelFinalEstaVacia() {
+        Pagina<Examen> pagina = this.repository.findPage(100, 5);
+
+        assertTrue(pagina.contenido().isEmpty());
+        assertNull(pagina.siguienteCursor());
+    }
+
+}
@@ -0,0 +1,127 @@
+package org.magadiflo.mockito.app.repositories.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.magadiflo.mockito.app.Datos;
+import org.magadiflo.mockito.app.models.Examen;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExamenRepositoryArchivoImplTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void testGuardarAsignaIdsYPersisteAlReabrir() throws Exception {
+        Path archivo = this.directorio.resolve("examenes.log");
+        try (ExamenRepositoryArchivoImpl repository = new ExamenRepositoryArchivoImpl(archivo, false)) {
+            Examen matematicas = new Examen(null, "Matemáticas");
+            matematicas.setPreguntas(Datos.PREGUNTAS);
+            assertEquals(1L, repository.guardar(matematicas).getId());
+            assertEquals(2L, repository.guardar(new Examen(null, "Lenguaje")).getId());
+        }
+
+        try (ExamenRepositoryArchivoImpl repository = new ExamenRepositoryArchivoImpl(archivo, false)) {
+            List<Examen> examenes = repository.findAll();
+            assertEquals(2, examenes.size());
+            assertEquals("Matemáticas", examenes.get(0).getNombre());
+            assertEquals(Datos.PREGUNTAS, repository.findPreguntasByExamenId(1L));
+            assertTrue(repository.findPreguntasByExamenId(2L).isEmpty());
+            assertEquals(3L, repository.guardar(new Examen(null, "Historia")).getId());
+        }
+    }
+
+    @Test
+    void testDescartaRegistroIncompletoAlRecuperar() throws Exception {
+        Path archivo = this.directorio.resolve("examenes.log");
+        long fin;
+        try (ExamenRepositoryArchivoImpl repository = new ExamenRepositoryArchivoImpl(archivo, true)) {
+            repository.guardar(new Examen(null, "Matemáticas"));
+            fin = repository.tamanioLog();
+        }
+        // Simulamos una caída a mitad de escritura: cabecera de un registro cuyo contenido no llegó a disco
+        try (RandomAccessFile raf = new RandomAccessFile(archivo.toFile(), "rw")) {
+            raf.seek(fin);
+            raf.writeInt(40);
+            raf.writeInt(12345);
+            raf.write("Lengu".getBytes());
+        }
+
+        try (ExamenRepositoryArchivoImpl repository = new ExamenRepositoryArchivoImpl(archivo, false)) {
+            assertEquals(1, repository.findAll().size());
+            assertEquals(fin, repository.tamanioLog());
+            assertEquals(2L, repository.guardar(new Examen(null, "Lenguaje")).getId());
+        }
+        try (ExamenRepositoryArchivoImpl repository = new ExamenRepositoryArchivoImpl(archivo, false)) {
+            assertEquals(2, repository.findAll().size());
+        }
+    }
+
+    @Test
+    void testCompactarConservaSoloLaUltimaVersion() throws Exception {
+        Path archivo = this.directorio.resolve("examenes.log");
+        try (ExamenRepositoryArchivoImpl repository = new ExamenRepositoryArchivoImpl(archivo, false)) {
+            repository.guardar(new Examen(null, "Matemáticas"));
+            for (int i = 0; i < 100; i++) {
+                repository.guardar(new Examen(1L, "Matemáticas v" + i));
+            }
+            long antes = repository.tamanioLog();
+
+            repository.compactar();
+
+            assertTrue(repository.tamanioLog() < antes);
+            assertEquals(1, repository.findAll().size());
+            assertEquals("Matemáticas v99", repository.findAll().get(0).getNombre());
+        }
+        try (ExamenRepositoryArchivoImpl repository = new ExamenRepositoryArchivoImpl(archivo, false)) {
+            assertEquals("Matemáticas v99", repository.findAll().get(0).getNombre());
+        }
+    }
+
+    @Test
+    void testRegistrosPosterioresAUnoCorruptoNoReviven() throws Exception {
+        Path archivo = this.directorio.resolve("examenes.log");
+        long finPrimero;
+        try (ExamenRepositoryArchivoImpl repository = new ExamenRepositoryArchivoImpl(archivo, true)) {
+            repository.guardar(new Examen(null, "Examen A"));
+            finPrimero = repository.tamanioLog();
+            repository.guardar(new Examen(null, "Examen B"));
+            repository.guardar(new Examen(null, "Examen C"));
+        }
+        // Se corrompe el crc del segundo registro, el tercero queda intacto detrás
+        try (RandomAccessFile raf = new RandomAccessFile(archivo.toFile(), "rw")) {
+            raf.seek(finPrimero + Integer.BYTES);
+            raf.writeInt(12345);
+        }
+
+        try (ExamenRepositoryArchivoImpl repository = new ExamenRepositoryArchivoImpl(archivo, true)) {
+            assertEquals(1, repository.findAll().size());
+            // Mismo tamaño que el registro corrupto: justo detrás está la cabecera del tercero
+            repository.guardar(new Examen(2L, "Examen D"));
+        }
+        try (ExamenRepositoryArchivoImpl repository = new ExamenRepositoryArchivoImpl(archivo, false)) {
+            assertEquals(List.of("Examen A", "Examen D"), repository.findAll().stream().map(Examen::getNombre).toList());
+        }
+    }
+
+    @Test
+    void testFindAllDevuelveCopias() throws Exception {
+        try (ExamenRepositoryArchivoImpl repository =
+                     new ExamenRepositoryArchivoImpl(this.directorio.resolve("examenes.log"), false)) {
+            Examen matematicas = new Examen(null, "Matemáticas");
+            matematicas.setPreguntas(Datos.PREGUNTAS);
+            repository.guardar(matematicas);
+
+            repository.findAll().get(0).setNombre("Modificado");
+
+            assertEquals("Matemáticas", repository.findAll().get(0).getNombre());
+            assertEquals(Datos.PREGUNTAS, repository.findAll().get(0).getPreguntas());
+        }
+    }
+
+}
@@ -0,0 +1,102 @@
+package org.magadiflo.mockito.app.repositories.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.magadiflo.mockito.app.Datos;
+import org.magadiflo.mockito.app.models.Examen;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExamenRepositoryConcurrenteImplTest {
+
+    @Test
+    void testContinuaLaSecuenciaDespuesDeLosDatosIniciales() {
+        ExamenRepositoryConcurrenteImpl repository = new ExamenRepositoryConcurrenteImpl(Datos.EXAMENES);
+
+        Examen examen = repository.guardar(new Examen(null, "Física"));
+
+        assertEquals(7L, examen.getId());
+        assertEquals(7, repository.findAll().size());
+    }
+
+    @Test
+    void testLosExamenesLeidosNoModificanElCatalogo() {
+        ExamenRepositoryConcurrenteImpl repository = new ExamenRepositoryConcurrenteImpl(Datos.EXAMENES);
+
+        repository.findAll().get(0).setNombre("Modificado");
+        repository.streamAll().forEach(examen -> examen.setId(99L));
+
+        assertEquals("Matemáticas", repository.findAll().get(0).getNombre());
+        assertEquals(1L, repository.streamAll().findFirst().orElseThrow().getId());
+    }
+
+    @Test
+    void testFindAllEsUnaFotoQueNoCambiaConNuevasEscrituras() {
+        ExamenRepositoryConcurrenteImpl repository = new ExamenRepositoryConcurrenteImpl(Datos.EXAMENES);
+        List<Examen> snapshot = repository.findAll();
+
+        repository.guardar(new Examen(null, "Física"));
+        repository.guardar(new Examen(1L, "Matemáticas II"));
+
+        assertEquals(6, snapshot.size());
+        assertEquals(7, repository.findAll().size());
+        assertEquals("Matemáticas II", repository.findAll().get(0).getNombre());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.add(new Examen(null, "Química")));
+    }
+
+    @Test
+    void testGuardarDesdeVariosHilosGeneraIdsUnicos() throws Exception {
+        ExamenRepositoryConcurrenteImpl repository = new ExamenRepositoryConcurrenteImpl();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Long>> ids = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            String nombre = "Examen " + i;
+            ids.add(executor.submit(() -> repository.guardar(new Examen(null, nombre)).getId()));
+        }
+        Set<Long> unicos = new HashSet<>();
+        for (Future<Long> id : ids) {
+            unicos.add(id.get());
+        }
+        executor.shutdown();
+
+        assertEquals(5_000, unicos.size());
+        assertEquals(5_000, repository.findAll().size());
+        assertTrue(repository.findAll().stream().allMatch(examen -> examen != null && unicos.contains(examen.getId())));
+    }
+
+    @Test
+    @DisplayName(value = "un id generado nunca pisa a un examen guardado a la vez con id explícito")
+    void testIdsGeneradosYExplicitosALaVez() throws Exception {
+        ExamenRepositoryConcurrenteImpl repository = new ExamenRepositoryConcurrenteImpl();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Examen>> guardados = new ArrayList<>();
+        for (int i = 1; i <= 10_000; i++) {
+            // Los explícitos usan los ids que la secuencia va a generar: un guardado con id explícito
+            // puede actualizar a uno generado antes, pero uno generado nunca puede pisar a un explícito
+            Examen examen = i % 2 == 0 ? new Examen((long) i / 2, "Explícito " + i / 2) : new Examen(null, "Generado " + i);
+            guardados.add(executor.submit(() -> repository.guardar(examen)));
+        }
+        for (Future<Examen> guardado : guardados) {
+            guardado.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        Map<Long, String> nombrePorId = new HashMap<>();
+        repository.findAll().forEach(examen -> assertNull(nombrePorId.put(examen.getId(), examen.getNombre())));
+        for (long id = 1; id <= 5_000; id++) {
+            assertEquals("Explícito " + id, nombrePorId.get(id));
+        }
+    }
+
+}
@@ -0,0 +1,151 @@
+package org.magadiflo.mockito.app.repositories.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.magadiflo.mockito.app.Datos;
+import org.magadiflo.mockito.app.models.Examen;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExamenRepositoryParticionadoImplTest {
+
+    @Test
+    void testGuardarDesdeVariosHilosRepartePorParticion() throws Exception {
+        ExamenRepositoryParticionadoImpl repository =
+                new ExamenRepositoryParticionadoImpl(4, particion -> new ExamenRepositoryConcurrenteImpl());
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Long>> ids = new ArrayList<>();
+        for (int i = 0; i < 4_000; i++) {
+            String nombre = "Examen " + i;
+            ids.add(executor.submit(() -> repository.guardar(new Examen(null, nombre)).getId()));
+        }
+        Set<Long> unicos = new HashSet<>();
+        for (Future<Long> id : ids) {
+            unicos.add(id.get());
+        }
+        executor.shutdown();
+
+        assertEquals(4_000, unicos.size());
+        assertEquals(4_000, repository.findAll().size());
+        assertEquals(4_000, new HashSet<>(repository.findAll()).size());
+        assertTrue(Arrays.stream(repository.tamanios()).allMatch(tamanio -> tamanio > 800));
+        assertEquals("Examen 10", repository.findByNombre("Examen 10").orElseThrow().getNombre());
+    }
+
+    @Test
+    @DisplayName(value = "un id generado nunca pisa a un examen guardado a la vez con id explícito")
+    void testIdsGeneradosYExplicitosALaVez() throws Exception {
+        ExamenRepositoryParticionadoImpl repository =
+                new ExamenRepositoryParticionadoImpl(4, particion -> new ExamenRepositoryConcurrenteImpl());
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> guardados = new ArrayList<>();
+        for (int i = 1; i <= 10_000; i++) {
+            Examen examen = i % 2 == 0 ? new Examen((long) i / 2, "Explícito " + i / 2) : new Examen(null, "Generado " + i);
+            // Algunos van en lotes de a uno para mezclar guardar(...) con guardarTodos(...)
+            guardados.add(i % 3 == 0
+                    ? executor.submit(() -> repository.guardarTodos(List.of(examen)))
+                    : executor.submit(() -> repository.guardar(examen)));
+        }
+        for (Future<?> guardado : guardados) {
+            guardado.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        Map<Long, String> nombrePorId = new HashMap<>();
+        repository.findAll().forEach(examen -> assertNull(nombrePorId.put(examen.getId(), examen.getNombre())));
+        for (long id = 1; id <= 5_000; id++) {
+            assertEquals("Explícito " + id, nombrePorId.get(id));
+        }
+    }
+
+    @Test
+    void testGuardarTodosEscribeDesdeElHiloQueLlama() {
+        List<Thread> escrituras = new ArrayList<>();
+        ExamenRepositoryParticionadoImpl repository = new ExamenRepositoryParticionadoImpl(3, particion ->
+                new ExamenRepositoryConcurrenteImpl() {
+                    @Override
+                    public List<Examen> guardarTodos(List<Examen> examenes) {
+                        escrituras.add(Thread.currentThread());
+                        return super.guardarTodos(examenes);
+                    }
+                });
+
+        repository.guardarTodos(Datos.EXAMENES.stream().map(examen -> new Examen(null, examen.getNombre())).toList());
+        repository.reparticionar(4, particion -> new ExamenRepositoryConcurrenteImpl() {
+            @Override
+            public List<Examen> guardarTodos(List<Examen> examenes) {
+                escrituras.add(Thread.currentThread());
+                return super.guardarTodos(examenes);
+            }
+        });
+
+        assertFalse(escrituras.isEmpty());
+        assertTrue(escrituras.stream().allMatch(hilo -> hilo == Thread.currentThread()));
+    }
+
+    @Test
+    void testGuardarTodosDevuelveElOrdenRecibidoYActualizaPorId() {
+        ExamenRepositoryParticionadoImpl repository =
+                new ExamenRepositoryParticionadoImpl(3, particion -> new ExamenRepositoryConcurrenteImpl());
+
+        List<Examen> guardados = repository.guardarTodos(Datos.EXAMENES.stream()
+                .map(examen -> new Examen(null, examen.getNombre())).toList());
+        repository.guardar(new Examen(guardados.get(0).getId(), "Matemáticas II"));
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L), guardados.stream().map(Examen::getId).toList());
+        assertEquals(6, repository.findAll().size());
+        assertTrue(repository.findByNombre("Matemáticas").isEmpty());
+        assertEquals(1L, repository.findByNombre("Matemáticas II").orElseThrow().getId());
+    }
+
+    @Test
+    void testReparticionarConservaTodosLosExamenes() {
+        List<ExamenRepositoryConcurrenteImpl> iniciales = List.of(
+                new ExamenRepositoryConcurrenteImpl(Datos.EXAMENES), new ExamenRepositoryConcurrenteImpl());
+        ExamenRepositoryParticionadoImpl repository = new ExamenRepositoryParticionadoImpl(2, iniciales::get);
+
+        repository.reparticionar(5, particion -> new ExamenRepositoryConcurrenteImpl());
+
+        assertEquals(5, repository.numeroParticiones());
+        assertEquals(6, Arrays.stream(repository.tamanios()).sum());
+        assertEquals(7L, repository.guardar(new Examen(null, "Física")).getId());
+        assertEquals(Set.of(1L, 2L, 3L, 4L, 5L, 6L, 7L),
+                new HashSet<>(repository.findAll().stream().map(Examen::getId).toList()));
+    }
+
+    @Test
+    void testFindByNombreConsultaEnOrdenDesdeElHiloQueLlama() {
+        List<Thread> consultas = new ArrayList<>();
+        List<ExamenRepositoryConcurrenteImpl> particiones = new ArrayList<>();
+        for (List<Examen> examenes : List.of(Datos.EXAMENES, List.of(new Examen(100L, "Matemáticas")))) {
+            particiones.add(new ExamenRepositoryConcurrenteImpl(examenes) {
+                @Override
+                public Optional<Examen> findByNombre(String nombre) {
+                    consultas.add(Thread.currentThread());
+                    return super.findByNombre(nombre);
+                }
+            });
+        }
+        ExamenRepositoryParticionadoImpl repository = new ExamenRepositoryParticionadoImpl(2, particiones::get);
+
+        assertEquals(1L, repository.findByNombre("Matemáticas").orElseThrow().getId());
+        assertEquals(List.of(Thread.currentThread()), consultas);
+
+        assertTrue(repository.findByNombre("Química").isEmpty());
+        assertEquals(3, consultas.size());
+    }
+
+}
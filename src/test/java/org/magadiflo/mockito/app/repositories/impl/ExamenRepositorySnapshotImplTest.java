@@ -0,0 +1,129 @@
+package org.magadiflo.mockito.app.repositories.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.magadiflo.mockito.app.Datos;
+import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.serializacion.SnapshotCatalogo;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExamenRepositorySnapshotImplTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void testArrancaDesdeElSnapshotConSusIndices() throws Exception {
+        Path archivo = this.directorio.resolve("catalogo.snapshot");
+        List<Examen> examenes = new ArrayList<>();
+        for (int i = 1; i <= 1_000; i++) {
+            Examen examen = new Examen((long) i, "Examen " + i);
+            examen.setPreguntas(Datos.PREGUNTAS);
+            examenes.add(examen);
+        }
+        examenes.add(new Examen(2_000L, "Examen 10"));
+        SnapshotCatalogo.escribir(archivo, examenes);
+
+        ExamenRepositorySnapshotImpl repository = new ExamenRepositorySnapshotImpl(archivo);
+
+        assertTrue(repository.tieneIndicePorNombre());
+        assertEquals(10L, repository.findByNombre("Examen 10").orElseThrow().getId());
+        assertTrue(repository.findByNombre("Examen 0").isEmpty());
+        assertEquals(Datos.PREGUNTAS, repository.findPreguntasByExamenId(500L));
+        assertTrue(repository.findPreguntasByExamenId(1_500L).isEmpty());
+        assertEquals(1_001, repository.findAll().size());
+        assertEquals(2_001L, repository.guardar(new Examen(null, "Nuevo")).getId());
+    }
+
+    @Test
+    void testCambiosPosterioresSeIncorporanAlGuardarSnapshot() throws Exception {
+        Path archivo = this.directorio.resolve("catalogo.snapshot");
+        ExamenRepositorySnapshotImpl repository = new ExamenRepositorySnapshotImpl(archivo);
+        repository.guardar(new Examen(null, "Matemáticas"));
+        repository.guardar(new Examen(null, "Lenguaje"));
+        repository.guardarSnapshot();
+        assertEquals(0, repository.cambiosPendientes());
+
+        repository.guardar(new Examen(1L, "Álgebra"));
+        repository.guardar(new Examen(null, "Historia"));
+
+        assertTrue(repository.findByNombre("Matemáticas").isEmpty());
+        assertEquals(1L, repository.findByNombre("Álgebra").orElseThrow().getId());
+        assertEquals(List.of("Álgebra", "Lenguaje", "Historia"),
+                repository.findAll().stream().map(Examen::getNombre).toList());
+
+        EscritorSnapshotPeriodico escritor = new EscritorSnapshotPeriodico(repository, Duration.ofHours(1));
+        try {
+            assertEquals(2, repository.cambiosPendientes());
+        } finally {
+            // Al cerrarlo escribe un último snapshot con lo pendiente
+            escritor.close();
+        }
+        assertEquals(0, repository.cambiosPendientes());
+
+        ExamenRepositorySnapshotImpl reiniciado = new ExamenRepositorySnapshotImpl(archivo);
+        assertEquals(List.of("Álgebra", "Lenguaje", "Historia"),
+                reiniciado.findAll().stream().map(Examen::getNombre).toList());
+        assertEquals(3L, reiniciado.findByNombre("Historia").orElseThrow().getId());
+    }
+
+    @Test
+    void testLosExamenesLeidosNoModificanElCatalogo() {
+        ExamenRepositorySnapshotImpl repository = new ExamenRepositorySnapshotImpl(this.directorio.resolve("catalogo.snapshot"));
+        repository.guardar(new Examen(null, "Matemáticas"));
+
+        repository.findByNombre("Matemáticas").orElseThrow().setNombre("Modificado");
+        repository.findAll().get(0).setPreguntas(Datos.PREGUNTAS);
+
+        Examen examen = repository.findByNombre("Matemáticas").orElseThrow();
+        assertEquals("Matemáticas", examen.getNombre());
+        assertTrue(examen.getPreguntas().isEmpty());
+        assertTrue(repository.findByNombre("Modificado").isEmpty());
+    }
+
+    @Test
+    void testLosExamenesEntregadosNoDependenDelSnapshotReemplazado() throws Exception {
+        Path archivo = this.directorio.resolve("catalogo.snapshot");
+        ExamenRepositorySnapshotImpl repository = new ExamenRepositorySnapshotImpl(archivo);
+        Examen matematicas = new Examen(null, "Matemáticas");
+        matematicas.setPreguntas(Datos.PREGUNTAS);
+        repository.guardar(matematicas);
+        repository.guardarSnapshot();
+
+        Examen delPrimerSnapshot = repository.findByNombre("Matemáticas").orElseThrow();
+        assertTrue(delPrimerSnapshot.preguntasCargadas());
+        repository.guardar(new Examen(null, "Lenguaje"));
+        repository.guardarSnapshot();
+        repository.guardarSnapshot();
+
+        assertEquals(Datos.PREGUNTAS, delPrimerSnapshot.getPreguntas());
+        assertEquals(List.of("Matemáticas", "Lenguaje"), repository.findAll().stream().map(Examen::getNombre).toList());
+        assertFalse(archivo.resolveSibling("catalogo.snapshot.escribiendo").toFile().exists());
+    }
+
+    @Test
+    void testCerrarInterrumpidoEscribeElUltimoSnapshot() throws Exception {
+        Path archivo = this.directorio.resolve("catalogo.snapshot");
+        ExamenRepositorySnapshotImpl repository = new ExamenRepositorySnapshotImpl(archivo);
+        EscritorSnapshotPeriodico escritor = new EscritorSnapshotPeriodico(repository, Duration.ofHours(1));
+        repository.guardar(new Examen(null, "Matemáticas"));
+
+        Thread.currentThread().interrupt();
+        try {
+            escritor.close();
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+
+        assertEquals(0, repository.cambiosPendientes());
+        assertEquals(1L, new ExamenRepositorySnapshotImpl(archivo).findByNombre("Matemáticas").orElseThrow().getId());
+    }
+
+}
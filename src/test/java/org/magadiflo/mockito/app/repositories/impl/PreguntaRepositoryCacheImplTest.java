@@ -0,0 +1,154 @@
+package org.magadiflo.mockito.app.repositories.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.magadiflo.mockito.app.Datos;
+import org.magadiflo.mockito.app.cache.CacheLocal;
+import org.magadiflo.mockito.app.cache.EstadisticasCache;
+import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.services.IExamenService;
+import org.magadiflo.mockito.app.services.impl.ExamenServiceImpl;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class PreguntaRepositoryCacheImplTest {
+
+    @Mock
+    PreguntaRepositoryImpl preguntasRepository;
+
+    AtomicLong reloj;
+    PreguntaRepositoryCacheImpl preguntasRepositoryCache;
+
+    @BeforeEach
+    void setUp() {
+        this.reloj = new AtomicLong();
+        CacheLocal<Long, List<String>> cache = new CacheLocal<>(2, 10, TimeUnit.SECONDS, this.reloj::get);
+        this.preguntasRepositoryCache = new PreguntaRepositoryCacheImpl(this.preguntasRepository, cache);
+    }
+
+    @Test
+    void testSegundaLecturaSaleDeLaCache() {
+        Mockito.when(this.preguntasRepository.findPreguntasByExamenId(1L)).thenReturn(Datos.PREGUNTAS);
+
+        assertEquals(Datos.PREGUNTAS, this.preguntasRepositoryCache.findPreguntasByExamenId(1L));
+        assertEquals(Datos.PREGUNTAS, this.preguntasRepositoryCache.findPreguntasByExamenId(1L));
+
+        Mockito.verify(this.preguntasRepository, Mockito.times(1)).findPreguntasByExamenId(1L);
+        EstadisticasCache estadisticas = this.preguntasRepositoryCache.estadisticas();
+        assertEquals(1, estadisticas.aciertos());
+        assertEquals(1, estadisticas.fallos());
+    }
+
+    @Test
+    void testDesalojaLaEntradaMenosUsada() {
+        Mockito.when(this.preguntasRepository.findPreguntasByExamenId(Mockito.anyLong())).thenReturn(Datos.PREGUNTAS);
+
+        this.preguntasRepositoryCache.findPreguntasByExamenId(1L);
+        this.preguntasRepositoryCache.findPreguntasByExamenId(2L);
+        this.preguntasRepositoryCache.findPreguntasByExamenId(1L);
+        this.preguntasRepositoryCache.findPreguntasByExamenId(3L); // desaloja al 2L
+        this.preguntasRepositoryCache.findPreguntasByExamenId(2L);
+
+        Mockito.verify(this.preguntasRepository, Mockito.times(1)).findPreguntasByExamenId(1L);
+        Mockito.verify(this.preguntasRepository, Mockito.times(2)).findPreguntasByExamenId(2L);
+        assertEquals(2, this.preguntasRepositoryCache.estadisticas().desalojos());
+    }
+
+    @Test
+    void testEntradaExpiradaSeVuelveACargar() {
+        Mockito.when(this.preguntasRepository.findPreguntasByExamenId(1L)).thenReturn(Datos.PREGUNTAS);
+
+        this.preguntasRepositoryCache.findPreguntasByExamenId(1L);
+        this.reloj.addAndGet(TimeUnit.SECONDS.toNanos(11));
+        this.preguntasRepositoryCache.findPreguntasByExamenId(1L);
+
+        Mockito.verify(this.preguntasRepository, Mockito.times(2)).findPreguntasByExamenId(1L);
+        assertEquals(1, this.preguntasRepositoryCache.estadisticas().expirados());
+    }
+
+    @Test
+    void testGuardarVariasInvalidaLaCache() {
+        Mockito.when(this.preguntasRepository.findPreguntasByExamenId(1L)).thenReturn(Datos.PREGUNTAS);
+
+        this.preguntasRepositoryCache.findPreguntasByExamenId(1L);
+        this.preguntasRepositoryCache.guardarVarias(Datos.PREGUNTAS);
+        this.preguntasRepositoryCache.findPreguntasByExamenId(1L);
+
+        Mockito.verify(this.preguntasRepository).guardarVarias(Datos.PREGUNTAS);
+        Mockito.verify(this.preguntasRepository, Mockito.times(2)).findPreguntasByExamenId(1L);
+    }
+
+    @Test
+    void testUnaCargaInvalidadaMientrasLeeNoSeGuarda() {
+        // La escritura llega mientras el repositorio todavía está leyendo las preguntas anteriores
+        Mockito.when(this.preguntasRepository.findPreguntasByExamenId(1L)).then(invocation -> {
+            this.preguntasRepositoryCache.guardarVarias(List.of("nueva"));
+            return Datos.PREGUNTAS;
+        }).thenReturn(List.of("nueva"));
+
+        assertEquals(Datos.PREGUNTAS, this.preguntasRepositoryCache.findPreguntasByExamenId(1L));
+        assertEquals(List.of("nueva"), this.preguntasRepositoryCache.findPreguntasByExamenId(1L));
+
+        Mockito.verify(this.preguntasRepository, Mockito.times(2)).findPreguntasByExamenId(1L);
+    }
+
+    @Test
+    void testPorLotesUnaCargaInvalidadaMientrasLeeNoSeGuarda() {
+        Mockito.when(this.preguntasRepository.findPreguntasByExamenIds(List.of(1L))).then(invocation -> {
+            this.preguntasRepositoryCache.guardarVarias(List.of("nueva"));
+            return Map.of(1L, Datos.PREGUNTAS);
+        }).thenReturn(Map.of(1L, List.of("nueva")));
+
+        assertEquals(Datos.PREGUNTAS, this.preguntasRepositoryCache.findPreguntasByExamenIds(List.of(1L)).get(1L));
+        assertEquals(List.of("nueva"), this.preguntasRepositoryCache.findPreguntasByExamenIds(List.of(1L)).get(1L));
+
+        Mockito.verify(this.preguntasRepository, Mockito.times(2)).findPreguntasByExamenIds(List.of(1L));
+    }
+
+    @Test
+    void testPorExamenSoloInvalidaLosExamenesGuardados() {
+        PreguntaRepositoryDiccionarioImpl diccionario = new PreguntaRepositoryDiccionarioImpl();
+        PreguntaRepositoryCacheImpl.PorExamen cache = new PreguntaRepositoryCacheImpl.PorExamen(diccionario,
+                new CacheLocal<>(10, 10, TimeUnit.SECONDS, this.reloj::get));
+        IExamenService service = new ExamenServiceImpl(new ExamenRepositoryConcurrenteImpl(), cache);
+        Examen matematicas = new Examen(null, "Matemáticas");
+        matematicas.setPreguntas(Datos.PREGUNTAS);
+        Examen lenguaje = new Examen(null, "Lenguaje");
+        lenguaje.setPreguntas(List.of("¿Qué es un verbo?"));
+        List<Examen> guardados = service.guardarTodos(List.of(matematicas, lenguaje));
+        cache.findPreguntasByExamenIds(guardados.stream().map(Examen::getId).toList());
+
+        Examen corregido = new Examen(guardados.get(0).getId(), "Matemáticas");
+        corregido.setPreguntas(List.of("aritmética"));
+        service.guardar(corregido);
+
+        assertEquals(List.of("aritmética"), cache.findPreguntasByExamenId(corregido.getId()));
+        assertEquals(List.of("¿Qué es un verbo?"), cache.findPreguntasByExamenId(guardados.get(1).getId()));
+        assertEquals(1, cache.estadisticas().aciertos());
+    }
+
+    @Test
+    void testPorLotesSoloPideLosIdsQueNoEstanEnCache() {
+        Mockito.when(this.preguntasRepository.findPreguntasByExamenId(1L)).thenReturn(Datos.PREGUNTAS);
+        Mockito.when(this.preguntasRepository.findPreguntasByExamenIds(List.of(2L)))
+                .thenReturn(Map.of(2L, List.of("gramática")));
+
+        this.preguntasRepositoryCache.findPreguntasByExamenId(1L);
+        Map<Long, List<String>> preguntas = this.preguntasRepositoryCache.findPreguntasByExamenIds(List.of(1L, 2L));
+
+        assertEquals(Datos.PREGUNTAS, preguntas.get(1L));
+        assertEquals(List.of("gramática"), preguntas.get(2L));
+        Mockito.verify(this.preguntasRepository).findPreguntasByExamenIds(List.of(2L));
+    }
+
+}
@@ -0,0 +1,111 @@
+package org.magadiflo.mockito.app.repositories.impl;
+
+import org.junit.jupiter.api.Test;
+import org.magadiflo.mockito.app.Datos;
+import org.magadiflo.mockito.app.models.DiccionarioPreguntas;
+import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.models.PreguntasCodificadas;
+import org.magadiflo.mockito.app.services.IExamenService;
+import org.magadiflo.mockito.app.services.impl.ExamenServiceImpl;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PreguntaRepositoryDiccionarioImplTest {
+
+    @Test
+    void testPreguntasRepetidasSeGuardanUnaVez() {
+        PreguntaRepositoryDiccionarioImpl repository = new PreguntaRepositoryDiccionarioImpl();
+        for (long id = 1; id <= 500; id++) {
+            repository.guardar(id, id % 2 == 0 ? Datos.PREGUNTAS : Datos.PREGUNTAS.subList(0, 3));
+        }
+
+        assertEquals(6, repository.diccionario().size());
+        assertEquals(Datos.PREGUNTAS, repository.findPreguntasByExamenId(2L));
+        assertEquals(List.of("aritmética", "integrales", "derivadas"), repository.findPreguntasByExamenId(3L));
+        assertSame(repository.findPreguntasByExamenId(1L).get(0), repository.findPreguntasByExamenId(2L).get(0));
+        assertTrue(repository.findPreguntasByExamenId(501L).isEmpty());
+        assertTrue(repository.findPreguntasByExamenId(null).isEmpty());
+        assertEquals(Map.of(2L, Datos.PREGUNTAS), repository.findPreguntasByExamenIds(Arrays.asList(2L, null, 600L)));
+        assertThrows(UnsupportedOperationException.class, () -> repository.findPreguntasByExamenId(2L).add("otra"));
+    }
+
+    @Test
+    void testGuardarPorExamenDeduplicaContraElDiccionario() {
+        DiccionarioPreguntas diccionario = new DiccionarioPreguntas();
+        PreguntaRepositoryDiccionarioImpl repository = new PreguntaRepositoryDiccionarioImpl(diccionario);
+        repository.guardarVarias(Datos.PREGUNTAS);
+        repository.guardarVariasEnLote(List.of(Datos.PREGUNTAS));
+        assertEquals(0, diccionario.size());
+
+        repository.guardarPorExamen(Map.of(1L, Datos.PREGUNTAS));
+        repository.guardarPorExamen(Map.of(2L, List.of("álgebra", "estadística"), 3L, Datos.PREGUNTAS));
+
+        assertEquals(List.of("álgebra", "estadística"), repository.findPreguntasByExamenId(2L));
+        assertEquals(7, diccionario.size());
+        assertEquals(5, diccionario.buscarCodigo("álgebra"));
+        assertEquals(6, diccionario.buscarCodigo("estadística"));
+        assertEquals(-1, diccionario.buscarCodigo("lógica"));
+        assertEquals("estadística", diccionario.pregunta(6));
+        assertThrows(IndexOutOfBoundsException.class, () -> diccionario.pregunta(7));
+    }
+
+    @Test
+    void testExamenCompartePreguntasCodificadasSinCopiarlas() {
+        PreguntaRepositoryDiccionarioImpl repository = new PreguntaRepositoryDiccionarioImpl();
+        repository.guardar(1L, Datos.PREGUNTAS);
+        List<String> preguntas = repository.findPreguntasByExamenId(1L);
+
+        Examen examen = new Examen(1L, "Matemáticas").conPreguntas(preguntas);
+
+        assertInstanceOf(PreguntasCodificadas.class, examen.getPreguntas());
+        assertSame(preguntas, examen.getPreguntas());
+        assertSame(preguntas, repository.diccionario().codificar(preguntas));
+        assertThrows(NullPointerException.class, () -> repository.guardar(2L, Arrays.asList("a", null)));
+        assertTrue(repository.findPreguntasByExamenId(2L).isEmpty());
+    }
+
+    @Test
+    void testCodigosConsecutivosDesdeVariosHilos() throws Exception {
+        DiccionarioPreguntas diccionario = new DiccionarioPreguntas();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<PreguntasCodificadas>> codificadas = IntStream.range(0, 8)
+                .mapToObj(hilo -> executor.submit(() -> diccionario.codificar(
+                        IntStream.range(0, 1_000).mapToObj(i -> "pregunta " + i).toList())))
+                .toList();
+        for (Future<PreguntasCodificadas> resultado : codificadas) {
+            PreguntasCodificadas preguntas = resultado.get();
+            assertEquals("pregunta 999", preguntas.get(999));
+            assertEquals(diccionario.buscarCodigo("pregunta 5"), preguntas.codigo(5));
+        }
+        executor.shutdown();
+
+        assertEquals(1_000, diccionario.size());
+        assertEquals(999, IntStream.range(0, 1_000).map(i -> diccionario.buscarCodigo("pregunta " + i)).max().orElseThrow());
+    }
+
+    @Test
+    void testElServicioAsociaLasPreguntasAlExamen() {
+        PreguntaRepositoryDiccionarioImpl repository = new PreguntaRepositoryDiccionarioImpl();
+        IExamenService service = new ExamenServiceImpl(new ExamenRepositoryConcurrenteImpl(), repository);
+        Examen matematicas = new Examen(null, "Matemáticas");
+        matematicas.setPreguntas(Datos.PREGUNTAS);
+        Examen algebra = new Examen(null, "Álgebra");
+        algebra.setPreguntas(Datos.PREGUNTAS.subList(0, 2));
+
+        service.guardar(matematicas);
+        service.guardarTodos(List.of(algebra));
+
+        assertEquals(Datos.PREGUNTAS, service.findExamenByNombreWithPreguntas("Matemáticas").getPreguntas());
+        assertEquals(Datos.PREGUNTAS.subList(0, 2), service.findExamenByNombreWithPreguntas("Álgebra").getPreguntas());
+        assertEquals(6, repository.diccionario().size());
+    }
+
+}
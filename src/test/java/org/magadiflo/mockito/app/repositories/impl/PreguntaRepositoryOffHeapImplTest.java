@@ -0,0 +1,152 @@
+package org.magadiflo.mockito.app.repositories.impl;
+
+import org.junit.jupiter.api.Test;
+import org.magadiflo.mockito.app.Datos;
+import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.repositories.IPreguntasPorExamenRepository;
+import org.magadiflo.mockito.app.services.IExamenService;
+import org.magadiflo.mockito.app.services.impl.ExamenServiceImpl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PreguntaRepositoryOffHeapImplTest {
+
+    @Test
+    void testGuardarYBuscarPorId() {
+        PreguntaRepositoryOffHeapImpl repository = new PreguntaRepositoryOffHeapImpl(256);
+        repository.guardar(5L, Datos.PREGUNTAS);
+        repository.guardar(0L, List.of("¿Qué es π?", "Emoji 😀"));
+        repository.guardar(7L, List.of());
+
+        assertEquals(Datos.PREGUNTAS, repository.findPreguntasByExamenId(5L));
+        assertEquals(List.of("¿Qué es π?", "Emoji 😀"), repository.findPreguntasByExamenId(Long.valueOf(0)));
+        assertTrue(repository.findPreguntasByExamenId(7L).isEmpty());
+        assertTrue(repository.findPreguntasByExamenId(8L).isEmpty());
+        assertTrue(repository.findPreguntasByExamenId((Long) null).isEmpty());
+        assertEquals(3, repository.size());
+        assertThrows(UnsupportedOperationException.class, () -> repository.findPreguntasByExamenId(5L).add("otra"));
+    }
+
+    @Test
+    void testMuchosExamenesCrecenIndiceYBloques() {
+        PreguntaRepositoryOffHeapImpl repository = new PreguntaRepositoryOffHeapImpl(1024);
+        for (long id = 1; id <= 20_000; id++) {
+            repository.guardar(id * 31, List.of("pregunta " + id, "aritmética " + id));
+        }
+        String larga = "x".repeat(5_000);
+        repository.guardar(-1L, List.of(larga));
+
+        assertEquals(20_001, repository.size());
+        assertEquals(List.of("pregunta 777", "aritmética 777"), repository.findPreguntasByExamenId(777L * 31));
+        assertEquals(larga, repository.findPreguntasByExamenId(-1L).get(0));
+        Map<Long, List<String>> preguntas = repository.findPreguntasByExamenIds(Arrays.asList(31L, 32L, null, 62L));
+        assertEquals(Map.of(31L, List.of("pregunta 1", "aritmética 1"), 62L, List.of("pregunta 2", "aritmética 2")), preguntas);
+    }
+
+    @Test
+    void testReemplazarYCompactarConservaLasVistasEntregadas() {
+        PreguntaRepositoryOffHeapImpl repository = new PreguntaRepositoryOffHeapImpl(128);
+        repository.guardar(1L, List.of("a", "b"));
+        repository.guardar(2L, List.of("c"));
+        List<String> anterior = repository.findPreguntasByExamenId(1L);
+        repository.guardar(1L, List.of("d"));
+
+        assertEquals(List.of("a", "b"), anterior);
+        assertEquals(List.of("d"), repository.findPreguntasByExamenId(1L));
+        assertEquals(5, repository.bytesDescartados());
+
+        long usados = repository.bytesUsados();
+        repository.compactar();
+
+        assertEquals(0, repository.bytesDescartados());
+        assertEquals(usados - 5, repository.bytesUsados());
+        assertEquals(List.of("a", "b"), anterior);
+        assertEquals(List.of("d"), repository.findPreguntasByExamenId(1L));
+        assertEquals(List.of("c"), repository.findPreguntasByExamenId(2L));
+    }
+
+    @Test
+    void testElServicioEntregaLaVistaSinDecodificarla() {
+        List<List<String>> vistas = new ArrayList<>();
+        PreguntaRepositoryOffHeapImpl repository = new PreguntaRepositoryOffHeapImpl(1024) {
+            @Override
+            public List<String> findPreguntasByExamenId(Long id) {
+                List<String> vista = super.findPreguntasByExamenId(id);
+                vistas.add(vista);
+                return vista;
+            }
+
+            @Override
+            public Map<Long, List<String>> findPreguntasByExamenIds(Collection<Long> ids) {
+                Map<Long, List<String>> porExamen = super.findPreguntasByExamenIds(ids);
+                vistas.addAll(porExamen.values());
+                return porExamen;
+            }
+        };
+        IExamenService service = new ExamenServiceImpl(new ExamenRepositoryConcurrenteImpl(), repository);
+        Examen matematicas = new Examen(null, "Matemáticas");
+        matematicas.setPreguntas(Datos.PREGUNTAS);
+        service.guardar(matematicas);
+
+        List<String> individual = service.findExamenByNombreWithPreguntas("Matemáticas").getPreguntas();
+        List<String> porLotes = service.findExamenesByNombresWithPreguntas(List.of("Matemáticas")).get("Matemáticas").getPreguntas();
+
+        assertEquals(2, vistas.size());
+        assertSame(vistas.get(0), individual);
+        assertSame(vistas.get(1), porLotes);
+        assertEquals(Datos.PREGUNTAS, porLotes);
+    }
+
+    @Test
+    void testPreguntaNullNoGuardaNada() {
+        PreguntaRepositoryOffHeapImpl repository = new PreguntaRepositoryOffHeapImpl();
+        repository.guardar(1L, List.of("a"));
+
+        assertThrows(NullPointerException.class, () -> repository.guardar(1L, Arrays.asList("b", null)));
+        assertEquals(List.of("a"), repository.findPreguntasByExamenId(1L));
+        assertEquals(0, repository.bytesDescartados());
+    }
+
+    @Test
+    void testGuardarVariasSinExamenNoGuardaNada() {
+        PreguntaRepositoryOffHeapImpl repository = new PreguntaRepositoryOffHeapImpl();
+
+        assertInstanceOf(IPreguntasPorExamenRepository.class, repository);
+        repository.guardarVarias(Datos.PREGUNTAS);
+        repository.guardarVariasEnLote(List.of(Datos.PREGUNTAS));
+        assertEquals(0, repository.size());
+        assertEquals(0, repository.bytesUsados());
+    }
+
+    @Test
+    void testElServicioGuardaLasPreguntasConElIdDelExamen() {
+        PreguntaRepositoryOffHeapImpl repository = new PreguntaRepositoryOffHeapImpl(1024);
+        IExamenService service = new ExamenServiceImpl(new ExamenRepositoryConcurrenteImpl(), repository);
+        Examen matematicas = new Examen(null, "Matemáticas");
+        matematicas.setPreguntas(Datos.PREGUNTAS);
+        Examen lenguaje = new Examen(null, "Lenguaje");
+        lenguaje.setPreguntas(List.of("¿Qué es un verbo?"));
+        Examen historia = new Examen(null, "Historia");
+
+        Long id = service.guardar(matematicas).getId();
+        service.guardarTodos(List.of(lenguaje, historia));
+
+        assertEquals(Datos.PREGUNTAS, repository.findPreguntasByExamenId(id));
+        assertEquals(Datos.PREGUNTAS, service.findExamenByNombreWithPreguntas("Matemáticas").getPreguntas());
+        assertEquals(List.of("¿Qué es un verbo?"), service.findExamenByNombreWithPreguntas("Lenguaje").getPreguntas());
+        assertTrue(service.findExamenByNombreWithPreguntas("Historia").getPreguntas().isEmpty());
+
+        // Volver a guardar el examen reemplaza sus preguntas
+        Examen corregido = new Examen(id, "Matemáticas");
+        corregido.setPreguntas(List.of("aritmética"));
+        service.guardar(corregido);
+        assertEquals(List.of("aritmética"), service.findExamenByNombreWithPreguntas("Matemáticas").getPreguntas());
+    }
+
+}
@@ -0,0 +1,89 @@
+package org.magadiflo.mockito.app.serializacion;
+
+import org.junit.jupiter.api.Test;
+import org.magadiflo.mockito.app.Datos;
+import org.magadiflo.mockito.app.models.Examen;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExamenCodecTest {
+
+    @Test
+    void testCodificarYDecodificar() {
+        Examen examen = new Examen(300L, "Matemáticas 🧮");
+        examen.setPreguntas(Datos.PREGUNTAS);
+
+        byte[] bytes = ExamenCodec.codificar(examen);
+        Examen decodificado = ExamenCodec.decodificar(bytes);
+        Examen diferido = ExamenCodec.decodificarDiferido(ByteBuffer.wrap(bytes));
+
+        assertEquals(ExamenCodec.tamanio(examen), bytes.length);
+        assertEquals(300L, decodificado.getId());
+        assertEquals("Matemáticas 🧮", decodificado.getNombre());
+        assertEquals(Datos.PREGUNTAS, decodificado.getPreguntas());
+        assertFalse(diferido.preguntasCargadas());
+        assertEquals(Datos.PREGUNTAS, diferido.getPreguntas());
+    }
+
+    @Test
+    void testExamenSinIdNiNombre() {
+        Examen decodificado = ExamenCodec.decodificar(ExamenCodec.codificar(new Examen(null, null)));
+
+        assertNull(decodificado.getId());
+        assertNull(decodificado.getNombre());
+        assertTrue(decodificado.getPreguntas().isEmpty());
+    }
+
+    @Test
+    void testIgnoraCamposDesconocidos() {
+        // Examen escrito por una versión futura con un campo 9 (varint) y un campo 10 (bytes) adicionales
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        buffer.put((byte) ExamenCodec.VERSION);
+        buffer.put((byte) (1 << 3)).put((byte) Varint.zigzag(5));
+        buffer.put((byte) (9 << 3)).put((byte) 42);
+        buffer.put((byte) (10 << 3 | 2)).put((byte) 3).put(new byte[]{1, 2, 3});
+        byte[] nombre = "Física".getBytes(StandardCharsets.UTF_8);
+        buffer.put((byte) (2 << 3 | 2)).put((byte) nombre.length).put(nombre);
+
+        Examen decodificado = ExamenCodec.decodificar(buffer.flip());
+
+        assertEquals(5L, decodificado.getId());
+        assertEquals("Física", decodificado.getNombre());
+    }
+
+    @Test
+    void testRechazaVersionFuturaYMensajesIncompletos() {
+        byte[] bytes = ExamenCodec.codificar(new Examen(1L, "Física"));
+        byte[] incompleto = Arrays.copyOf(bytes, bytes.length - 2);
+        bytes[0] = (byte) (ExamenCodec.VERSION + 1);
+
+        assertThrows(IllegalArgumentException.class, () -> ExamenCodec.decodificar(bytes));
+        assertThrows(IllegalArgumentException.class, () -> ExamenCodec.decodificar(incompleto));
+    }
+
+    @Test
+    void testCodificarEnBufferDelPool() {
+        PoolBuffers pool = new PoolBuffers(true, 4);
+        Examen examen = new Examen(-7L, "Historia");
+        examen.setPreguntas(List.of("¿Quién?", "¿Cuándo?"));
+
+        ByteBuffer buffer = ExamenCodec.codificar(examen, pool);
+        Examen decodificado = ExamenCodec.decodificar(buffer);
+        pool.devolver(buffer);
+
+        // El buffer se reutiliza y se sobrescribe, el examen decodificado no depende de él
+        ByteBuffer reutilizado = pool.tomar(10);
+        assertSame(buffer, reutilizado);
+        while (reutilizado.hasRemaining()) {
+            reutilizado.put((byte) 0);
+        }
+        assertEquals(-7L, decodificado.getId());
+        assertEquals(List.of("¿Quién?", "¿Cuándo?"), decodificado.getPreguntas());
+    }
+
+}
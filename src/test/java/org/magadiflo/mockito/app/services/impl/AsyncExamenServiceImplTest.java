@@ -0,0 +1,114 @@
+package org.magadiflo.mockito.app.services.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.magadiflo.mockito.app.Datos;
+import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.services.IExamenService;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncExamenServiceImplTest {
+
+    @Mock
+    IExamenService examenService;
+
+    AsyncExamenServiceImpl asyncExamenService;
+
+    @BeforeEach
+    void setUp() {
+        this.asyncExamenService = new AsyncExamenServiceImpl(this.examenService, 2, Duration.ofMillis(500));
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.asyncExamenService.close();
+    }
+
+    @Test
+    void testFindExamenByNombreWithPreguntas() throws Exception {
+        Examen matematicas = new Examen(1L, "Matemáticas");
+        matematicas.setPreguntas(Datos.PREGUNTAS);
+        Mockito.when(this.examenService.findExamenByNombreWithPreguntas("Matemáticas")).thenReturn(matematicas);
+
+        Examen examen = this.asyncExamenService.findExamenByNombreWithPreguntas("Matemáticas").get(1, TimeUnit.SECONDS);
+
+        assertEquals(1L, examen.getId());
+        assertEquals(6, examen.getPreguntas().size());
+    }
+
+    @Test
+    void testPropagaLaExcepcionDelServicio() {
+        Mockito.when(this.examenService.findExamenByNombreWithPreguntas("Matemáticas")).thenThrow(IllegalArgumentException.class);
+
+        CompletableFuture<Examen> futuro = this.asyncExamenService.findExamenByNombreWithPreguntas("Matemáticas");
+
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> futuro.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+    }
+
+    @Test
+    void testFallaConTimeoutSiElServicioTarda() {
+        Mockito.when(this.examenService.findExamenByNombreWithPreguntas("Matemáticas")).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return null;
+        });
+
+        CompletableFuture<Examen> futuro = this.asyncExamenService.findExamenByNombreWithPreguntas("Matemáticas");
+
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> futuro.get(2, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, exception.getCause());
+    }
+
+    @Test
+    void testSinPermisosLibresRechazaSinEsperar() throws Exception {
+        CountDownLatch enCurso = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        Mockito.when(this.examenService.findExamenByNombreWithPreguntas("Matemáticas")).thenAnswer(invocation -> {
+            enCurso.countDown();
+            // No responde a la interrupción del timeout: el permiso sigue tomado mientras corre
+            while (true) {
+                try {
+                    liberar.await();
+                    return Datos.EXAMENES.get(0);
+                } catch (InterruptedException e) {
+                    // sigue esperando
+                }
+            }
+        });
+
+        try (AsyncExamenServiceImpl service = new AsyncExamenServiceImpl(this.examenService, 1, Duration.ofMillis(200))) {
+            CompletableFuture<Examen> primero = service.findExamenByNombreWithPreguntas("Matemáticas");
+            assertTrue(enCurso.await(1, TimeUnit.SECONDS));
+
+            CompletableFuture<Examen> segundo = service.findExamenByNombreWithPreguntas("Lenguaje");
+
+            // Falla al momento, sin esperar el permiso ni el timeout
+            assertTrue(segundo.isCompletedExceptionally());
+            ExecutionException exception = assertThrows(ExecutionException.class, () -> segundo.get(1, TimeUnit.SECONDS));
+            assertInstanceOf(RejectedExecutionException.class, exception.getCause());
+            Mockito.verify(this.examenService, Mockito.never()).findExamenByNombreWithPreguntas("Lenguaje");
+            liberar.countDown();
+            primero.handle((examen, error) -> examen).get(1, TimeUnit.SECONDS);
+
+            // Al terminar la primera se devuelve el permiso
+            Mockito.when(this.examenService.findExamenByNombreWithPreguntas("Lenguaje")).thenReturn(Datos.EXAMENES.get(1));
+            assertEquals(2L, service.findExamenByNombreWithPreguntas("Lenguaje").get(1, TimeUnit.SECONDS).getId());
+        }
+    }
+
+}
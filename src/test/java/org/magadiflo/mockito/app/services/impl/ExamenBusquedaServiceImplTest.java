@@ -0,0 +1,95 @@
+package org.magadiflo.mockito.app.services.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.magadiflo.mockito.app.Datos;
+import org.magadiflo.mockito.app.busqueda.ResultadoBusqueda;
+import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.repositories.IExamenRepository;
+import org.magadiflo.mockito.app.repositories.IPreguntasRepository;
+import org.magadiflo.mockito.app.services.IExamenService;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExamenBusquedaServiceImplTest {
+
+    @Mock
+    IExamenService examenService;
+    @Mock
+    IExamenRepository examenRepository;
+    @Mock
+    IPreguntasRepository preguntasRepository;
+
+    ExamenBusquedaServiceImpl busquedaService;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.when(this.examenRepository.findAll()).thenReturn(Datos.EXAMENES);
+        Mockito.when(this.preguntasRepository.findPreguntasByExamenIds(Mockito.anyCollection()))
+                .thenReturn(Map.of(1L, Datos.PREGUNTAS));
+        this.busquedaService = new ExamenBusquedaServiceImpl(this.examenService, this.examenRepository,
+                this.preguntasRepository);
+    }
+
+    @Test
+    void testIndexaElCatalogoConSusPreguntasEnUnaSolaLlamada() {
+        List<ResultadoBusqueda> resultados = this.busquedaService.buscar("integrales", 10);
+
+        assertEquals(1, resultados.size());
+        assertEquals(1L, resultados.get(0).examen().getId());
+        assertEquals("Lenguaje", this.busquedaService.buscar("lenguaje", 10).get(0).examen().getNombre());
+        Mockito.verify(this.preguntasRepository, Mockito.times(1)).findPreguntasByExamenIds(Mockito.anyCollection());
+        Mockito.verify(this.preguntasRepository, Mockito.never()).findPreguntasByExamenId(Mockito.anyLong());
+    }
+
+    @Test
+    void testGuardarIndexaLasPreguntasEnviadas() {
+        Examen fisica = new Examen(null, "Física");
+        fisica.setPreguntas(List.of("cinemática", "dinámica"));
+        Mockito.when(this.examenService.guardar(fisica)).thenReturn(new Examen(7L, "Física"));
+
+        this.busquedaService.guardar(fisica);
+
+        List<ResultadoBusqueda> resultados = this.busquedaService.buscar("cinematica", 10);
+        assertEquals(1, resultados.size());
+        assertEquals(7L, resultados.get(0).examen().getId());
+    }
+
+    @Test
+    void testGuardarTodosReemplazaLaVersionAnterior() {
+        Examen historia = new Examen(3L, "Historia Universal");
+        historia.setPreguntas(List.of("Revolución francesa"));
+        Mockito.when(this.examenService.guardarTodos(List.of(historia))).thenReturn(List.of(historia));
+
+        this.busquedaService.guardarTodos(List.of(historia));
+
+        assertEquals("Historia Universal", this.busquedaService.buscar("historia", 10).get(0).examen().getNombre());
+        assertEquals(1, this.busquedaService.buscar("revolucion", 10).size());
+        assertEquals(List.of("universal"), this.busquedaService.autocompletar("univ", 5));
+    }
+
+    @Test
+    void testGuardarSinResultadoNoIndexa() {
+        Mockito.when(this.examenService.guardar(Mockito.any(Examen.class))).thenReturn(null);
+
+        assertNull(this.busquedaService.guardar(new Examen(null, "Química")));
+        assertTrue(this.busquedaService.buscar("quimica", 10).isEmpty());
+    }
+
+    @Test
+    void testLasConsultasSeDelegan() {
+        Mockito.when(this.examenService.findExamenByNombreWithPreguntas("Matemáticas")).thenReturn(Datos.EXAMENES.get(0));
+
+        assertSame(Datos.EXAMENES.get(0), this.busquedaService.findExamenByNombreWithPreguntas("Matemáticas"));
+        Mockito.verify(this.examenService).findExamenByNombreWithPreguntas("Matemáticas");
+    }
+
+}
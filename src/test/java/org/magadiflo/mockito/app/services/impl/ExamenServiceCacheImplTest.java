@@ -0,0 +1,200 @@
+package org.magadiflo.mockito.app.services.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.magadiflo.mockito.app.Datos;
+import org.magadiflo.mockito.app.cache.PoliticaDesalojo;
+import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.services.IExamenService;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExamenServiceCacheImplTest {
+
+    @Mock
+    IExamenService examenService;
+
+    AtomicLong reloj = new AtomicLong();
+
+    ExamenServiceCacheImpl cache(PoliticaDesalojo politica, long pesoMaximo) {
+        return new ExamenServiceCacheImpl(this.examenService, politica, pesoMaximo, Duration.ofMinutes(10),
+                100, Duration.ofSeconds(5), this.reloj::get);
+    }
+
+    @Test
+    void testAciertoDevuelveUnaCopiaDefensiva() {
+        Examen matematicas = new Examen(1L, "Matemáticas");
+        matematicas.setPreguntas(Datos.PREGUNTAS);
+        Mockito.when(this.examenService.findExamenByNombreWithPreguntas("Matemáticas")).thenReturn(matematicas);
+        ExamenServiceCacheImpl cache = this.cache(PoliticaDesalojo.LRU, 100);
+
+        Examen primero = cache.findExamenByNombreWithPreguntas("Matemáticas");
+        primero.setNombre("Modificado");
+        primero.setPreguntas(List.of());
+        Examen segundo = cache.findExamenByNombreWithPreguntas("Matemáticas");
+
+        assertNotSame(primero, segundo);
+        assertEquals("Matemáticas", segundo.getNombre());
+        assertEquals(Datos.PREGUNTAS, segundo.getPreguntas());
+        assertEquals(1L, cache.findExamenByNombre("Matemáticas").orElseThrow().getId());
+        Mockito.verify(this.examenService, Mockito.times(1)).findExamenByNombreWithPreguntas("Matemáticas");
+        Mockito.verify(this.examenService, Mockito.never()).findExamenByNombre(Mockito.anyString());
+    }
+
+    @Test
+    void testCacheNegativaExpiraConSuPropioTtl() {
+        ExamenServiceCacheImpl cache = this.cache(PoliticaDesalojo.LRU, 100);
+        Mockito.when(this.examenService.findExamenByNombreWithPreguntas("Química")).thenReturn(null);
+
+        assertNull(cache.findExamenByNombreWithPreguntas("Química"));
+        assertNull(cache.findExamenByNombreWithPreguntas("Química"));
+        assertTrue(cache.findExamenByNombre("Química").isEmpty());
+        Mockito.verify(this.examenService, Mockito.times(1)).findExamenByNombreWithPreguntas("Química");
+
+        this.reloj.addAndGet(Duration.ofSeconds(6).toNanos());
+        assertNull(cache.findExamenByNombreWithPreguntas("Química"));
+        Mockito.verify(this.examenService, Mockito.times(2)).findExamenByNombreWithPreguntas("Química");
+    }
+
+    @Test
+    void testGuardarActualizaLaCache() {
+        ExamenServiceCacheImpl cache = this.cache(PoliticaDesalojo.LRU, 100);
+        Examen quimica = new Examen(null, "Química");
+        quimica.setPreguntas(Datos.PREGUNTAS);
+        Mockito.when(this.examenService.findExamenByNombreWithPreguntas("Química")).thenReturn(null);
+        Mockito.when(this.examenService.guardar(quimica)).then(invocation -> {
+            quimica.setId(9L);
+            return quimica;
+        });
+
+        assertNull(cache.findExamenByNombreWithPreguntas("Química"));
+        cache.guardar(quimica);
+        Examen encontrado = cache.findExamenByNombreWithPreguntas("Química");
+
+        assertEquals(9L, encontrado.getId());
+        assertEquals(Datos.PREGUNTAS, encontrado.getPreguntas());
+        Mockito.verify(this.examenService, Mockito.times(1)).findExamenByNombreWithPreguntas("Química");
+    }
+
+    @Test
+    @DisplayName(value = "si el servicio devuelve el examen guardado sin preguntas, la cache usa las que se enviaron")
+    void testGuardarCacheaLasPreguntasEnviadas() {
+        ExamenServiceCacheImpl cache = this.cache(PoliticaDesalojo.LRU, 100);
+        Examen quimica = new Examen(null, "Química");
+        quimica.setPreguntas(Datos.PREGUNTAS);
+        Mockito.when(this.examenService.findExamenByNombreWithPreguntas("Química")).thenReturn(null);
+        Mockito.when(this.examenService.guardar(quimica)).thenReturn(new Examen(9L, "Química"));
+
+        assertNull(cache.findExamenByNombreWithPreguntas("Química"));
+        cache.guardar(quimica);
+
+        assertEquals(Datos.PREGUNTAS, cache.findExamenByNombreWithPreguntas("Química").getPreguntas());
+        Mockito.verify(this.examenService, Mockito.times(1)).findExamenByNombreWithPreguntas("Química");
+    }
+
+    @Test
+    @DisplayName(value = "guardar un examen solo invalida en la cache negativa las grafías de su nombre")
+    void testGuardarSoloInvalidaLasGrafiasInexistentesDeSuNombre() {
+        ExamenServiceCacheImpl cache = this.cache(PoliticaDesalojo.LRU, 100);
+        Mockito.when(this.examenService.findExamenByNombre(Mockito.anyString())).thenReturn(Optional.empty());
+        Mockito.when(this.examenService.guardar(Mockito.any(Examen.class))).then(invocation -> invocation.getArgument(0));
+        cache.findExamenByNombre("quimica");
+        cache.findExamenByNombre("Física");
+
+        cache.guardar(new Examen(9L, "Química"));
+        cache.findExamenByNombre("quimica");
+        cache.findExamenByNombre("Física");
+
+        Mockito.verify(this.examenService, Mockito.times(2)).findExamenByNombre("quimica");
+        Mockito.verify(this.examenService, Mockito.times(1)).findExamenByNombre("Física");
+    }
+
+    @Test
+    void testLfuConservaLoMasUsadoYPesaPorPreguntas() {
+        Mockito.when(this.examenService.findExamenByNombre(Mockito.anyString())).then(invocation ->
+                Datos.EXAMENES.stream().filter(examen -> examen.getNombre().equals(invocation.getArgument(0))).findFirst());
+        // Sin preguntas cada examen pesa 1: caben dos
+        ExamenServiceCacheImpl cache = this.cache(PoliticaDesalojo.LFU, 2);
+
+        cache.findExamenByNombre("Matemáticas");
+        cache.findExamenByNombre("Matemáticas");
+        cache.findExamenByNombre("Lenguaje");
+        cache.findExamenByNombre("Historia");
+        cache.findExamenByNombre("Matemáticas");
+
+        Mockito.verify(this.examenService, Mockito.times(1)).findExamenByNombre("Matemáticas");
+        assertEquals(1, cache.estadisticas().desalojos());
+
+        // Con sus 6 preguntas el examen pesa 7, más que todo el cache: no se guarda
+        Examen conPreguntas = new Examen(1L, "Matemáticas");
+        conPreguntas.setPreguntas(Datos.PREGUNTAS);
+        Mockito.when(this.examenService.findExamenByNombreWithPreguntas("Matemáticas")).thenReturn(conPreguntas);
+        cache.findExamenByNombreWithPreguntas("Matemáticas");
+        cache.findExamenByNombreWithPreguntas("Matemáticas");
+        Mockito.verify(this.examenService, Mockito.times(2)).findExamenByNombreWithPreguntas("Matemáticas");
+    }
+
+    @Test
+    void testLecturaConcurrenteConUnGuardadoNoOcultaLoGuardado() {
+        ExamenServiceCacheImpl cache = this.cache(PoliticaDesalojo.LRU, 100);
+        Examen quimica = new Examen(9L, "Química");
+        quimica.setPreguntas(Datos.PREGUNTAS);
+        Mockito.when(this.examenService.guardar(quimica)).thenReturn(quimica);
+        // La lectura leyó "no existe" y, antes de guardarlo en cache, otro guardó el examen
+        Mockito.when(this.examenService.findExamenByNombreWithPreguntas("Química")).then(invocation -> {
+            cache.guardar(quimica);
+            return null;
+        }).thenReturn(quimica);
+
+        assertNull(cache.findExamenByNombreWithPreguntas("Química"));
+
+        assertEquals(9L, cache.findExamenByNombreWithPreguntas("Química").getId());
+    }
+
+    @Test
+    void testRenombrarInvalidaTodasLasGrafiasDelExamen() {
+        ExamenServiceCacheImpl cache = this.cache(PoliticaDesalojo.LRU, 100);
+        // El servicio decorado encuentra el mismo examen sin importar mayúsculas ni tildes
+        Examen matematicas = new Examen(1L, "Matemáticas");
+        Mockito.when(this.examenService.findExamenByNombre(Mockito.anyString())).thenReturn(Optional.of(matematicas));
+        cache.findExamenByNombre("Matemáticas");
+        cache.findExamenByNombre("matematicas");
+        Mockito.when(this.examenService.findExamenByNombre(Mockito.anyString())).thenReturn(Optional.empty());
+        Mockito.when(this.examenService.guardar(Mockito.any(Examen.class))).then(invocation -> invocation.getArgument(0));
+
+        cache.guardar(new Examen(1L, "Álgebra"));
+
+        assertTrue(cache.findExamenByNombre("Matemáticas").isEmpty());
+        assertTrue(cache.findExamenByNombre("matematicas").isEmpty());
+        Mockito.verify(this.examenService, Mockito.times(2)).findExamenByNombre("Matemáticas");
+        Mockito.verify(this.examenService, Mockito.times(2)).findExamenByNombre("matematicas");
+    }
+
+    @Test
+    void testLosNombresDesalojadosOExpiradosNoSeRetienen() {
+        Mockito.when(this.examenService.findExamenByNombre(Mockito.anyString())).then(invocation ->
+                Datos.EXAMENES.stream().filter(examen -> examen.getNombre().equals(invocation.getArgument(0))).findFirst());
+        ExamenServiceCacheImpl cache = this.cache(PoliticaDesalojo.LRU, 2);
+
+        Datos.EXAMENES.forEach(examen -> cache.findExamenByNombre(examen.getNombre()));
+        assertEquals(2, cache.examenesConNombreEnCache());
+
+        // El último sigue en cache hasta que expira, ahora el servicio ya no lo encuentra
+        String ultimo = Datos.EXAMENES.get(Datos.EXAMENES.size() - 1).getNombre();
+        Mockito.when(this.examenService.findExamenByNombre(ultimo)).thenReturn(Optional.empty());
+        this.reloj.addAndGet(Duration.ofMinutes(11).toNanos());
+        assertTrue(cache.findExamenByNombre(ultimo).isEmpty());
+        assertEquals(1, cache.examenesConNombreEnCache());
+    }
+
+}
@@ -0,0 +1,81 @@
+package org.magadiflo.mockito.app.services.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.magadiflo.mockito.app.Datos;
+import org.magadiflo.mockito.app.busqueda.EstadisticasFiltro;
+import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.repositories.IExamenRepository;
+import org.magadiflo.mockito.app.services.IExamenService;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExamenServiceFiltroBloomImplTest {
+
+    @Mock
+    IExamenService examenService;
+
+    @Mock
+    IExamenRepository examenRepository;
+
+    @Test
+    void testDescartaNombresInexistentesSinLlamarAlServicio() {
+        Mockito.when(this.examenRepository.streamAll()).then(invocation -> Datos.EXAMENES.stream());
+        Mockito.when(this.examenService.findExamenByNombre("matematicas")).thenReturn(Optional.of(Datos.EXAMENES.get(0)));
+        ExamenServiceFiltroBloomImpl filtro = new ExamenServiceFiltroBloomImpl(this.examenService, this.examenRepository,
+                ExamenNombreIndex.Normalizacion.SIN_MAYUSCULAS_NI_TILDES, 0.001);
+
+        assertTrue(filtro.findExamenByNombre("matematicas").isPresent());
+        assertTrue(filtro.findExamenByNombre("Matemátikas").isEmpty());
+        assertNull(filtro.findExamenByNombreWithPreguntas("Astrología"));
+        assertTrue(filtro.findExamenesByNombresWithPreguntas(List.of("Química", "Alquimia")).isEmpty());
+
+        EstadisticasFiltro estadisticas = filtro.estadisticas();
+        assertEquals(5, estadisticas.consultas());
+        assertEquals(4, estadisticas.descartados());
+        assertEquals(0, estadisticas.falsosPositivos());
+        Mockito.verify(this.examenService, Mockito.times(1)).findExamenByNombre(Mockito.anyString());
+        Mockito.verifyNoMoreInteractions(this.examenService);
+    }
+
+    @Test
+    void testLoGuardadoPasaElFiltroAunqueSeReconstruya() {
+        Mockito.when(this.examenRepository.streamAll()).then(invocation -> Datos.EXAMENES.stream());
+        Mockito.when(this.examenService.guardar(Mockito.any(Examen.class))).then(invocation -> invocation.getArgument(0));
+        Mockito.when(this.examenService.findExamenByNombre("Física")).thenReturn(Optional.of(new Examen(7L, "Física")));
+        Mockito.when(this.examenService.findExamenByNombre("Examen 0")).thenReturn(Optional.of(new Examen(8L, "Examen 0")));
+        ExamenServiceFiltroBloomImpl filtro = new ExamenServiceFiltroBloomImpl(this.examenService, this.examenRepository,
+                null, 0.01);
+
+        filtro.guardar(new Examen(null, "Física"));
+        assertTrue(filtro.findExamenByNombre("Física").isPresent());
+
+        // Más nombres que la capacidad inicial: el filtro se reconstruye desde el repositorio, que
+        // todavía no devuelve los "Examen i" (por ejemplo siguen en una cola write-behind)
+        Mockito.when(this.examenRepository.streamAll()).then(invocation -> Stream.concat(
+                Datos.EXAMENES.stream(), Stream.of(new Examen(7L, "Física"))));
+        for (int i = 0; i < 1_100; i++) {
+            filtro.guardar(new Examen(null, "Examen " + i));
+        }
+        assertTrue(filtro.findExamenByNombre("Física").isPresent());
+        assertTrue(filtro.findExamenByNombre("Examen 0").isPresent());
+        Mockito.verify(this.examenRepository, Mockito.times(2)).streamAll();
+
+        // Volver a guardar los mismos nombres no cuenta como elementos nuevos ni reconstruye el filtro
+        long elementos = filtro.estadisticas().elementos();
+        for (int i = 0; i < 5_000; i++) {
+            filtro.guardar(new Examen(null, "Examen " + (i % 10)));
+        }
+        assertEquals(elementos, filtro.estadisticas().elementos());
+        Mockito.verify(this.examenRepository, Mockito.times(2)).streamAll();
+    }
+
+}
@@ -7,6 +7,8 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.magadiflo.mockito.app.Datos;
 import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.models.ExamenValor;
+import org.magadiflo.mockito.app.models.ModoCarga;
 import org.magadiflo.mockito.app.repositories.IExamenRepository;
 import org.magadiflo.mockito.app.repositories.impl.ExameRepositoryImpl;
 import org.magadiflo.mockito.app.repositories.IPreguntasRepository;
@@ -17,9 +19,16 @@ import org.mockito.invocation.InvocationOnMock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.stubbing.Answer;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -587,10 +596,9 @@ class ExamenServiceImplTest {
         InOrder inOrder = Mockito.inOrder(this.examenRepository, this.preguntasRepository);
 
         //Verificamos el orden en la que se deberían invocar
-        inOrder.verify(this.examenRepository).findAll();
+        inOrder.verify(this.examenRepository).findAll();//el índice por nombre se construye una sola vez
         inOrder.verify(this.preguntasRepository).findPreguntasByExamenId(1L);//1° se invocará Matemáticas
 
-        inOrder.verify(this.examenRepository).findAll();
         inOrder.verify(this.preguntasRepository).findPreguntasByExamenId(2L);//2° se invocará Lenguaje
     }
 
@@ -604,6 +612,7 @@ class ExamenServiceImplTest {
         InOrder inOrder = Mockito.inOrder(this.preguntasRepository);
 
         inOrder.verify(this.preguntasRepository).findPreguntasByExamenId(1L);//1° se invocará Matemáticas
+
         inOrder.verify(this.preguntasRepository).findPreguntasByExamenId(2L);//2° se invocará Lenguaje
     }
 
@@ -618,7 +627,7 @@ class ExamenServiceImplTest {
         // Como no le ponemos el segundo argumento entonces será igual a Mockito.times(1)
         Mockito.verify(this.preguntasRepository).findPreguntasByExamenId(1L);
 
-        Mockito.verify(this.preguntasRepository, Mockito.times(2)).findPreguntasByExamenId(1L);
+        Mockito.verify(this.preguntasRepository, Mockito.times(1)).findPreguntasByExamenId(1L);
         Mockito.verify(this.preguntasRepository, Mockito.atLeast(1)).findPreguntasByExamenId(1L);
         Mockito.verify(this.preguntasRepository, Mockito.atLeastOnce()).findPreguntasByExamenId(1L);
         Mockito.verify(this.preguntasRepository, Mockito.atMost(1)).findPreguntasByExamenId(1L);
@@ -632,10 +641,10 @@ class ExamenServiceImplTest {
         this.examenService.findExamenByNombreWithPreguntas("Matemáticas");
 
 //        Mockito.verify(this.preguntasRepository).findPreguntasByExamenId(1L);
-        Mockito.verify(this.preguntasRepository, Mockito.times(2)).findPreguntasByExamenId(1L);
-        Mockito.verify(this.preguntasRepository, Mockito.atLeast(2)).findPreguntasByExamenId(1L);
+        Mockito.verify(this.preguntasRepository, Mockito.times(1)).findPreguntasByExamenId(1L);
+        Mockito.verify(this.preguntasRepository, Mockito.atLeast(1)).findPreguntasByExamenId(1L);
         Mockito.verify(this.preguntasRepository, Mockito.atLeastOnce()).findPreguntasByExamenId(1L);
-        Mockito.verify(this.preguntasRepository, Mockito.atMost(2)).findPreguntasByExamenId(1L);
+        Mockito.verify(this.preguntasRepository, Mockito.atMost(1)).findPreguntasByExamenId(1L);
 //        Mockito.verify(this.preguntasRepository, Mockito.atMostOnce()).findPreguntasByExamenId(1L);
     }
 
@@ -649,6 +658,227 @@ class ExamenServiceImplTest {
         Mockito.verifyNoInteractions(this.preguntasRepository);
     }
 
+    @Test
+    @DisplayName(value = "el índice por nombre se construye una sola vez con findAll()")
+    void testIndicePorNombreLlamaUnaVezAFindAll() {
+        Mockito.when(this.examenRepository.findAll()).thenReturn(Datos.EXAMENES);
+
+        assertEquals(1L, this.examenService.findExamenByNombre("Matemáticas").orElseThrow().getId());
+        assertEquals(6L, this.examenService.findExamenByNombre("Religión").orElseThrow().getId());
+        assertFalse(this.examenService.findExamenByNombre("Química").isPresent());
+
+        Mockito.verify(this.examenRepository, Mockito.times(1)).findAll();
+    }
+
+    @Test
+    void testIndicePorNombreSinMayusculasNiTildes() {
+        Mockito.when(this.examenRepository.findAll()).thenReturn(Datos.EXAMENES);
+        IExamenService service = new ExamenServiceImpl(this.examenRepository, this.preguntasRepository,
+                ExamenNombreIndex.Normalizacion.SIN_MAYUSCULAS_NI_TILDES);
+
+        assertEquals(1L, service.findExamenByNombre("matematicas").orElseThrow().getId());
+        assertEquals(6L, service.findExamenByNombre("RELIGION").orElseThrow().getId());
+    }
+
+    @Test
+    void testIndicePorNombreSeActualizaAlGuardar() {
+        Mockito.when(this.examenRepository.findAll()).thenReturn(Datos.EXAMENES);
+        Mockito.when(this.examenRepository.guardar(Mockito.any(Examen.class))).thenReturn(new Examen(7L, "Química"));
+
+        assertFalse(this.examenService.findExamenByNombre("Química").isPresent());
+        this.examenService.guardar(new Examen(null, "Química"));
+
+        assertEquals(7L, this.examenService.findExamenByNombre("Química").orElseThrow().getId());
+        Mockito.verify(this.examenRepository, Mockito.times(1)).findAll();
+    }
+
+    @Test
+    void testIndicePorNombreOlvidaElNombreAnteriorAlRenombrar() {
+        Mockito.when(this.examenRepository.findAll()).thenReturn(Datos.EXAMENES);
+        Mockito.when(this.examenRepository.guardar(Mockito.any(Examen.class))).then(invocation -> invocation.getArgument(0));
+
+        assertEquals(1L, this.examenService.findExamenByNombre("Matemáticas").orElseThrow().getId());
+        this.examenService.guardar(new Examen(1L, "Álgebra"));
+
+        assertFalse(this.examenService.findExamenByNombre("Matemáticas").isPresent());
+        assertEquals(1L, this.examenService.findExamenByNombre("Álgebra").orElseThrow().getId());
+    }
+
+    @Test
+    void testIndicePorNombreAlRenombrarPasaElSiguienteConEseNombre() {
+        Mockito.when(this.examenRepository.findAll()).thenReturn(List.of(new Examen(1L, "Historia"), new Examen(2L, "Historia")));
+        Mockito.when(this.examenRepository.guardar(Mockito.any(Examen.class))).then(invocation -> invocation.getArgument(0));
+
+        assertEquals(1L, this.examenService.findExamenByNombre("Historia").orElseThrow().getId());
+        this.examenService.guardar(new Examen(1L, "Geografía"));
+
+        assertEquals(2L, this.examenService.findExamenByNombre("Historia").orElseThrow().getId());
+        assertEquals(1L, this.examenService.findExamenByNombre("Geografía").orElseThrow().getId());
+    }
+
+    @Test
+    @DisplayName(value = "modificar el examen después de guardarlo no cambia el índice por nombre")
+    void testIndicePorNombreNoGuardaElExamenDelLlamador() {
+        Mockito.when(this.examenRepository.findAll()).thenReturn(Datos.EXAMENES);
+        Mockito.when(this.examenRepository.guardar(Mockito.any(Examen.class))).then(invocation -> invocation.getArgument(0));
+
+        assertFalse(this.examenService.findExamenByNombre("Química").isPresent());
+        Examen quimica = new Examen(7L, "Química");
+        this.examenService.guardar(quimica);
+        quimica.setNombre("Física");
+
+        assertEquals("Química", this.examenService.findExamenByNombre("Química").orElseThrow().getNombre());
+        assertFalse(this.examenService.findExamenByNombre("Física").isPresent());
+    }
+
+    @Test
+    @DisplayName(value = "por lotes: una sola llamada a findAll() y una sola llamada agrupada de preguntas")
+    void testFindExamenesByNombresWithPreguntas() {
+        Mockito.when(this.examenRepository.findAll()).thenReturn(Datos.EXAMENES);
+        Mockito.when(this.preguntasRepository.findPreguntasByExamenIds(Mockito.anyCollection()))
+                .thenReturn(Map.of(1L, Datos.PREGUNTAS, 2L, List.of("gramática")));
+
+        Map<String, Examen> examenes = this.examenService
+                .findExamenesByNombresWithPreguntas(List.of("Matemáticas", "Lenguaje", "Química"));
+
+        assertEquals(2, examenes.size());
+        assertEquals(6, examenes.get("Matemáticas").getPreguntas().size());
+        assertEquals(List.of("gramática"), examenes.get("Lenguaje").getPreguntas());
+        assertFalse(examenes.containsKey("Química"));
+
+        Mockito.verify(this.examenRepository, Mockito.times(1)).findAll();
+        Mockito.verify(this.preguntasRepository, Mockito.times(1)).findPreguntasByExamenIds(Set.of(1L, 2L));
+        Mockito.verify(this.preguntasRepository, Mockito.never()).findPreguntasByExamenId(Mockito.anyLong());
+    }
+
+    @Test
+    @DisplayName(value = "guardarTodos hace un solo viaje a cada repositorio")
+    void testGuardarTodos() {
+        Examen fisica = new Examen(null, "Física");
+        fisica.setPreguntas(Datos.PREGUNTAS);
+        Examen quimica = new Examen(null, "Química");
+        Mockito.when(this.examenRepository.guardarTodos(Mockito.anyList())).then(invocation -> invocation.getArgument(0));
+
+        List<Examen> examenes = this.examenService.guardarTodos(List.of(fisica, quimica));
+
+        assertEquals(2, examenes.size());
+        Mockito.verify(this.preguntasRepository, Mockito.times(1)).guardarVariasEnLote(List.of(Datos.PREGUNTAS));
+        Mockito.verify(this.examenRepository, Mockito.times(1)).guardarTodos(List.of(fisica, quimica));
+        Mockito.verify(this.examenRepository, Mockito.never()).guardar(Mockito.any(Examen.class));
+    }
+
+    @Test
+    @DisplayName(value = "con carga diferida las preguntas se traen en el primer getPreguntas() y una sola vez")
+    void testCargaDiferidaDePreguntas() {
+        Mockito.when(this.examenRepository.findAll()).thenReturn(Datos.EXAMENES);
+        Mockito.when(this.preguntasRepository.findPreguntasByExamenId(1L)).thenReturn(Datos.PREGUNTAS);
+
+        Examen examen = this.examenService.findExamenByNombreWithPreguntas("Matemáticas", ModoCarga.DIFERIDA);
+
+        assertEquals(1L, examen.getId());
+        assertFalse(examen.preguntasCargadas());
+        Mockito.verifyNoInteractions(this.preguntasRepository);
+
+        assertEquals(6, examen.getPreguntas().size());
+        assertEquals(6, examen.getPreguntas().size());
+        Mockito.verify(this.preguntasRepository, Mockito.times(1)).findPreguntasByExamenId(1L);
+        assertNotSame(Datos.EXAMENES.get(0), examen);
+    }
+
+    @Test
+    @DisplayName(value = "si el repositorio tiene índice por nombre no se recorre el catálogo")
+    void testUsaIndiceDelRepositorio() {
+        Mockito.when(this.examenRepository.tieneIndicePorNombre()).thenReturn(true);
+        Mockito.when(this.examenRepository.findByNombre("Matemáticas")).thenReturn(Optional.of(Datos.EXAMENES.get(0)));
+
+        Optional<Examen> examen = this.examenService.findExamenByNombre("Matemáticas");
+
+        assertEquals(1L, examen.orElseThrow().getId());
+        Mockito.verify(this.examenRepository, Mockito.never()).findAll();
+    }
+
+    @Test
+    @DisplayName(value = "buscar con preguntas no modifica el examen compartido del catálogo")
+    void testNoModificaElExamenDelCatalogo() {
+        Examen delCatalogo = new Examen(1L, "Matemáticas");
+        Mockito.when(this.examenRepository.findAll()).thenReturn(List.of(delCatalogo));
+        Mockito.when(this.preguntasRepository.findPreguntasByExamenId(1L)).thenReturn(Datos.PREGUNTAS);
+
+        Examen examen = this.examenService.findExamenByNombreWithPreguntas("Matemáticas");
+
+        assertNotSame(delCatalogo, examen);
+        assertEquals(Datos.PREGUNTAS, examen.getPreguntas());
+        assertTrue(delCatalogo.getPreguntas().isEmpty());
+        assertEquals(new ExamenValor(1L, "Matemáticas", Datos.PREGUNTAS), examen.aValor());
+    }
+
+    @Test
+    @DisplayName(value = "buscar por nombre desde el índice entrega una copia por llamada")
+    void testIndiceEntregaCopias() {
+        Examen delCatalogo = new Examen(1L, "Matemáticas");
+        Mockito.when(this.examenRepository.findAll()).thenReturn(List.of(delCatalogo));
+
+        Examen primero = this.examenService.findExamenByNombre("Matemáticas").orElseThrow();
+        primero.setNombre("Modificado");
+        Examen segundo = this.examenService.findExamenByNombre("Matemáticas").orElseThrow();
+
+        assertNotSame(primero, segundo);
+        assertEquals("Matemáticas", segundo.getNombre());
+        assertEquals("Matemáticas", delCatalogo.getNombre());
+    }
+
+    @Test
+    @DisplayName(value = "búsquedas concurrentes del mismo examen, aunque se escriba distinto, comparten una llamada")
+    void testBusquedasConcurrentesCompartenUnaLlamadaAlRepositorio() throws Exception {
+        CountDownLatch enCurso = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        Mockito.when(this.examenRepository.findAll()).thenReturn(Datos.EXAMENES);
+        Mockito.when(this.preguntasRepository.findPreguntasByExamenId(1L)).then(invocation -> {
+            enCurso.countDown();
+            liberar.await();
+            return Datos.PREGUNTAS;
+        });
+        IExamenService service = new ExamenServiceImpl(this.examenRepository, this.preguntasRepository,
+                ExamenNombreIndex.Normalizacion.SIN_MAYUSCULAS_NI_TILDES);
+
+        List<FutureTask<Examen>> busquedas = new ArrayList<>();
+        List<Thread> hilos = new ArrayList<>();
+        for (String nombre : List.of("Matemáticas", "matematicas", "MATEMÁTICAS", "Matematicas")) {
+            FutureTask<Examen> busqueda = new FutureTask<>(() -> service.findExamenByNombreWithPreguntas(nombre));
+            Thread hilo = new Thread(busqueda);
+            busquedas.add(busqueda);
+            hilos.add(hilo);
+            hilo.start();
+            if (hilos.size() == 1) {
+                assertTrue(enCurso.await(1, TimeUnit.SECONDS));
+            }
+        }
+        // Todos bloqueados: el primero en el repositorio, el resto esperando su resultado.
+        // Con un plazo: si la agrupación deja de funcionar la prueba falla en vez de colgar el build
+        long plazo = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        try {
+            for (Thread hilo : hilos) {
+                while (hilo.getState() != Thread.State.WAITING && hilo.getState() != Thread.State.TIMED_WAITING) {
+                    assertTrue(System.nanoTime() - plazo < 0, "La búsqueda no llegó a esperar, estado: " + hilo.getState());
+                    Thread.onSpinWait();
+                }
+            }
+        } finally {
+            liberar.countDown();
+        }
+
+        Set<Examen> distintos = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (FutureTask<Examen> busqueda : busquedas) {
+            Examen examen = busqueda.get(1, TimeUnit.SECONDS);
+            assertEquals(Datos.PREGUNTAS, examen.getPreguntas());
+            distintos.add(examen);
+        }
+        // Cada llamada recibe su propia copia, modificar una no afecta a las demás
+        assertEquals(busquedas.size(), distintos.size());
+        Mockito.verify(this.preguntasRepository, Mockito.times(1)).findPreguntasByExamenId(1L);
+        Mockito.verify(this.examenRepository, Mockito.times(1)).findAll();
+    }
+
     public static class MiArgsMatchers implements ArgumentMatcher<Long> {
         private Long argument;
 
@@ -667,4 +897,5 @@ class ExamenServiceImplTest {
             return sb.toString();
         }
     }
-}
\ No newline at end of file
+
+}
@@ -0,0 +1,131 @@
+package org.magadiflo.mockito.app.services.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.magadiflo.mockito.app.Datos;
+import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.presupuesto.ExamenRepositoryGrabado;
+import org.magadiflo.mockito.app.presupuesto.PreguntaRepositoryGrabado;
+import org.magadiflo.mockito.app.presupuesto.PresupuestoLlamadas;
+import org.magadiflo.mockito.app.presupuesto.RegistroLlamadas;
+import org.magadiflo.mockito.app.repositories.IPreguntasRepository;
+import org.magadiflo.mockito.app.repositories.impl.ExamenRepositoryConcurrenteImpl;
+import org.magadiflo.mockito.app.repositories.impl.PreguntaRepositoryImpl;
+import org.magadiflo.mockito.app.services.IExamenService;
+import org.opentest4j.AssertionFailedError;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Contratos de rendimiento de ExamenServiceImpl: llamadas y filas máximas al repositorio por operación
+ */
+class ExamenServicePresupuestoTest {
+
+    private static final String FIND_ALL = "examenRepository.findAll";
+    private static final String PREGUNTAS_POR_ID = "preguntasRepository.findPreguntasByExamenId";
+    private static final String PREGUNTAS_POR_IDS = "preguntasRepository.findPreguntasByExamenIds";
+
+    private RegistroLlamadas registro;
+    private IExamenService examenService;
+
+    @BeforeEach
+    void setUp() {
+        this.registro = new RegistroLlamadas();
+        ExamenRepositoryConcurrenteImpl examenRepository = new ExamenRepositoryConcurrenteImpl(Datos.EXAMENES);
+        this.examenService = new ExamenServiceImpl(new ExamenRepositoryGrabado(examenRepository, this.registro),
+                new PreguntaRepositoryGrabado(new PreguntaRepositoryImpl(), this.registro));
+    }
+
+    @Test
+    void testBuscarConPreguntasUnaLecturaDePreguntas() {
+        Examen examen = PresupuestoLlamadas.sobre(this.registro)
+                .maximoLlamadas(FIND_ALL, 1)
+                .maximoLlamadas(PREGUNTAS_POR_ID, 1)
+                .maximoLlamadasTotales(2)
+                .verificar(() -> this.examenService.findExamenByNombreWithPreguntas("Matemáticas"));
+
+        assertEquals(Datos.PREGUNTAS, examen.getPreguntas());
+
+        // Con el índice ya construido el catálogo no se vuelve a leer
+        PresupuestoLlamadas.sobre(this.registro)
+                .ninguna(FIND_ALL)
+                .maximoLlamadas(PREGUNTAS_POR_ID, 1)
+                .maximoFilasTotales(Datos.PREGUNTAS.size())
+                .verificar(() -> this.examenService.findExamenByNombreWithPreguntas("Lenguaje"));
+    }
+
+    @Test
+    void testBuscarInexistenteNoLeePreguntas() {
+        assertNull(PresupuestoLlamadas.sobre(this.registro)
+                .ninguna(PREGUNTAS_POR_ID)
+                .maximoLlamadasTotales(1)
+                .verificar(() -> this.examenService.findExamenByNombreWithPreguntas("Química")));
+    }
+
+    @Test
+    void testLoteSinNMasUno() {
+        List<String> nombres = Datos.EXAMENES.stream().map(Examen::getNombre).toList();
+
+        Map<String, Examen> examenes = PresupuestoLlamadas.sobre(this.registro)
+                .maximoLlamadas(FIND_ALL, 1)
+                .maximoLlamadas(PREGUNTAS_POR_IDS, 1)
+                .ninguna(PREGUNTAS_POR_ID)
+                .verificar(() -> this.examenService.findExamenesByNombresWithPreguntas(nombres));
+
+        assertEquals(nombres, List.copyOf(examenes.keySet()));
+    }
+
+    @Test
+    void testGuardarTodosEnUnSoloViaje() {
+        List<Examen> examenes = IntStream.rangeClosed(1, 100).mapToObj(i -> {
+            Examen examen = new Examen(null, "Examen " + i);
+            examen.setPreguntas(Datos.PREGUNTAS);
+            return examen;
+        }).toList();
+
+        PresupuestoLlamadas.sobre(this.registro)
+                .maximoLlamadas("examenRepository.guardarTodos", 1)
+                .ninguna("examenRepository.guardar")
+                .maximoLlamadas("preguntasRepository.guardarVariasEnLote", 1)
+                .ninguna("preguntasRepository.guardarVarias")
+                .maximoLlamadasTotales(2)
+                .verificar(() -> this.examenService.guardarTodos(examenes));
+    }
+
+    @Test
+    void testPresupuestoExcedidoFallaConElDetalle() {
+        // Un servicio que busca las preguntas de a un examen por vez hace N+1 llamadas
+        IPreguntasRepository preguntas = new PreguntaRepositoryGrabado(new PreguntaRepositoryImpl(), this.registro);
+        PresupuestoLlamadas presupuesto = PresupuestoLlamadas.sobre(this.registro)
+                .maximoLlamadas(PREGUNTAS_POR_ID, 1)
+                .maximoFilas(PREGUNTAS_POR_ID, 6);
+
+        AssertionFailedError error = assertThrows(AssertionFailedError.class, () -> presupuesto.verificar(
+                () -> Datos.EXAMENES.forEach(examen -> preguntas.findPreguntasByExamenId(examen.getId()))));
+
+        assertTrue(error.getMessage().contains(PREGUNTAS_POR_ID + " llamadas: 6 (máximo 1)"));
+        assertTrue(error.getMessage().contains(PREGUNTAS_POR_ID + " filas: 36 (máximo 6)"));
+        assertTrue(error.getMessage().contains(PREGUNTAS_POR_ID + ": 6 llamadas, 36 filas"));
+    }
+
+    @Test
+    void testStreamCuentaSoloLasFilasLeidas() {
+        ExamenRepositoryGrabado examenRepository = new ExamenRepositoryGrabado(
+                new ExamenRepositoryConcurrenteImpl(Datos.EXAMENES), this.registro);
+
+        PresupuestoLlamadas.sobre(this.registro)
+                .maximoLlamadas("examenRepository.findByNombre", 1)
+                .maximoFilas("examenRepository.findByNombre", 1)
+                .verificar(() -> examenRepository.findByNombre("Lenguaje"));
+        this.registro.reiniciar();
+        assertEquals(2, examenRepository.streamAll().limit(2).toList().size());
+
+        assertEquals(1, this.registro.llamadas("examenRepository.streamAll"));
+        assertEquals(2, this.registro.filas("examenRepository.streamAll"));
+    }
+
+}
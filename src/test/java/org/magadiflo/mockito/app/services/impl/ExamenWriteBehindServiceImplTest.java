@@ -0,0 +1,145 @@
+package org.magadiflo.mockito.app.services.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.services.IExamenService;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExamenWriteBehindServiceImplTest {
+
+    @Mock
+    IExamenService examenService;
+
+    @Test
+    void testAgrupaLosGuardadosEnUnSoloLote() throws Exception {
+        Mockito.when(this.examenService.guardarTodos(Mockito.anyList())).then(invocation -> {
+            List<Examen> examenes = invocation.getArgument(0);
+            long secuencia = 7L;
+            for (Examen examen : examenes) {
+                examen.setId(secuencia++);
+            }
+            return examenes;
+        });
+
+        List<CompletableFuture<Long>> ids = new ArrayList<>();
+        try (ExamenWriteBehindServiceImpl writeBehind =
+                     new ExamenWriteBehindServiceImpl(this.examenService, 100, 3, Duration.ofSeconds(5))) {
+            ids.add(writeBehind.guardar(new Examen(null, "Física")));
+            ids.add(writeBehind.guardar(new Examen(null, "Química")));
+            ids.add(writeBehind.guardar(new Examen(null, "Biología")));
+
+            assertEquals(7L, ids.get(0).get(1, TimeUnit.SECONDS));
+            assertEquals(8L, ids.get(1).get(1, TimeUnit.SECONDS));
+            assertEquals(9L, ids.get(2).get(1, TimeUnit.SECONDS));
+        }
+
+        Mockito.verify(this.examenService, Mockito.times(1)).guardarTodos(Mockito.anyList());
+        Mockito.verify(this.examenService, Mockito.never()).guardar(Mockito.any(Examen.class));
+    }
+
+    @Test
+    void testCloseEscribeLoQueQuedaEnLaCola() throws Exception {
+        Mockito.when(this.examenService.guardarTodos(Mockito.anyList())).then(invocation -> invocation.getArgument(0));
+
+        ExamenWriteBehindServiceImpl writeBehind =
+                new ExamenWriteBehindServiceImpl(this.examenService, 100, 50, Duration.ofMinutes(1));
+        CompletableFuture<Long> id = writeBehind.guardar(new Examen(10L, "Física"));
+        writeBehind.close();
+
+        assertTrue(id.isDone());
+        assertEquals(10L, id.get());
+        assertThrows(IllegalStateException.class, () -> writeBehind.guardar(new Examen(null, "Química")));
+    }
+
+    @Test
+    void testCloseInterrumpidoRetornaYElEscritorTermina() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        Mockito.when(this.examenService.guardarTodos(Mockito.anyList())).then(invocation -> {
+            liberar.await();
+            return invocation.getArgument(0);
+        });
+
+        ExamenWriteBehindServiceImpl writeBehind =
+                new ExamenWriteBehindServiceImpl(this.examenService, 100, 1, Duration.ofMinutes(1));
+        CompletableFuture<Long> id = writeBehind.guardar(new Examen(10L, "Física"));
+        Thread.currentThread().interrupt();
+        try {
+            writeBehind.close();
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+
+        assertFalse(id.isDone());
+        liberar.countDown();
+        assertEquals(10L, id.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testErrorAlEscribirFallaLosFuturosDelLote() throws Exception {
+        Mockito.when(this.examenService.guardarTodos(Mockito.anyList())).thenThrow(IllegalArgumentException.class);
+
+        CompletableFuture<Long> id;
+        try (ExamenWriteBehindServiceImpl writeBehind =
+                     new ExamenWriteBehindServiceImpl(this.examenService, 100, 1, Duration.ZERO)) {
+            id = writeBehind.guardar(new Examen(null, "Física"));
+        }
+
+        ExecutionException exception = assertThrows(ExecutionException.class, id::get);
+        assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+    }
+
+    @Test
+    void testErrorGraveTambienFallaLosFuturosDelLote() throws Exception {
+        Mockito.when(this.examenService.guardarTodos(Mockito.anyList())).thenThrow(OutOfMemoryError.class)
+                .then(invocation -> invocation.getArgument(0));
+
+        CompletableFuture<Long> fallido;
+        CompletableFuture<Long> siguiente;
+        try (ExamenWriteBehindServiceImpl writeBehind =
+                     new ExamenWriteBehindServiceImpl(this.examenService, 100, 1, Duration.ZERO)) {
+            fallido = writeBehind.guardar(new Examen(null, "Física"));
+            assertThrows(ExecutionException.class, () -> fallido.get(1, TimeUnit.SECONDS));
+            // El escritor sigue vivo para los lotes siguientes
+            siguiente = writeBehind.guardar(new Examen(11L, "Química"));
+            assertEquals(11L, siguiente.get(1, TimeUnit.SECONDS));
+        }
+
+        ExecutionException exception = assertThrows(ExecutionException.class, fallido::get);
+        assertInstanceOf(OutOfMemoryError.class, exception.getCause());
+    }
+
+    @Test
+    void testInterrumpirAlEscritorEscribeElLoteIncompleto() throws Exception {
+        Mockito.when(this.examenService.guardarTodos(Mockito.anyList())).then(invocation -> invocation.getArgument(0));
+
+        try (ExamenWriteBehindServiceImpl writeBehind =
+                     new ExamenWriteBehindServiceImpl(this.examenService, 100, 50, Duration.ofMinutes(1))) {
+            CompletableFuture<Long> id = writeBehind.guardar(new Examen(10L, "Física"));
+            while (writeBehind.pendientes() > 0) {
+                Thread.onSpinWait();
+            }
+            Thread.getAllStackTraces().keySet().stream()
+                    .filter(hilo -> hilo.getName().equals("examen-write-behind"))
+                    .forEach(Thread::interrupt);
+
+            // Sin la interrupción el lote esperaría el minuto de la ventana
+            assertEquals(10L, id.get(1, TimeUnit.SECONDS));
+        }
+    }
+
+}
@@ -0,0 +1,91 @@
+package org.magadiflo.mockito.app.services.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.magadiflo.mockito.app.models.ErrorImportacion;
+import org.magadiflo.mockito.app.models.Examen;
+import org.magadiflo.mockito.app.models.ResultadoImportacion;
+import org.magadiflo.mockito.app.services.IExamenService;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImportacionExamenesServiceImplTest {
+
+    @Mock
+    IExamenService examenService;
+
+    @Test
+    void testImportarArchivoNormalizaYReportaErrores(@TempDir Path directorio) throws Exception {
+        Path archivo = directorio.resolve("examenes.txt");
+        Files.write(archivo, List.of(
+                "|  Matemáticas   Básicas |aritmética; integrales ;aritmética;",
+                "x|Física|cinemática",
+                "|   |sin nombre",
+                "|matematicas basicas|duplicado",
+                "4|Química|"), StandardCharsets.UTF_8);
+        Mockito.when(this.examenService.guardarTodos(Mockito.anyList())).then(invocation -> invocation.getArgument(0));
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            ResultadoImportacion resultado =
+                    new ImportacionExamenesServiceImpl(this.examenService, pool, 10).importar(archivo);
+
+            assertEquals(2, resultado.importados());
+            assertEquals(List.of(2L, 3L, 4L), resultado.errores().stream().map(ErrorImportacion::registro).toList());
+        } finally {
+            pool.shutdown();
+        }
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Examen>> captor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(this.examenService).guardarTodos(captor.capture());
+        List<Examen> guardados = captor.getValue();
+        assertEquals("Matemáticas Básicas", guardados.get(0).getNombre());
+        assertEquals(List.of("aritmética", "integrales"), guardados.get(0).getPreguntas());
+        assertEquals(4L, guardados.get(1).getId());
+    }
+
+    @Test
+    void testLoteFallidoSeReportaCompletoSinReintentar() {
+        Mockito.when(this.examenService.guardarTodos(Mockito.anyList()))
+                .thenThrow(new IllegalStateException("disco lleno"))
+                .then(invocation -> invocation.getArgument(0));
+
+        ResultadoImportacion resultado = new ImportacionExamenesServiceImpl(this.examenService, ForkJoinPool.commonPool(), 2)
+                .importar(Stream.of(new Examen(null, "Física"), new Examen(null, "Química"), new Examen(null, "Historia")));
+
+        assertEquals(1, resultado.importados());
+        assertEquals(List.of(1L, 2L), resultado.errores().stream().map(ErrorImportacion::registro).toList());
+        assertEquals("no se pudo guardar el lote: disco lleno", resultado.errores().get(0).mensaje());
+        Mockito.verify(this.examenService, Mockito.times(2)).guardarTodos(Mockito.anyList());
+        Mockito.verify(this.examenService, Mockito.never()).guardar(Mockito.any(Examen.class));
+    }
+
+    @Test
+    void testLeePorTramosYDeduplicaEntreTramos() {
+        Mockito.when(this.examenService.guardarTodos(Mockito.anyList())).then(invocation -> invocation.getArgument(0));
+
+        ResultadoImportacion resultado = new ImportacionExamenesServiceImpl(this.examenService, ForkJoinPool.commonPool(), 2)
+                .importar(Stream.of(new Examen(null, "Física"), new Examen(null, "Química"),
+                        new Examen(null, "Historia"), new Examen(null, "FISICA"), new Examen(null, "Lenguaje")));
+
+        assertEquals(4, resultado.importados());
+        assertEquals(1, resultado.errores().size());
+        assertEquals(4L, resultado.errores().get(0).registro());
+        Mockito.verify(this.examenService, Mockito.times(3)).guardarTodos(Mockito.anyList());
+    }
+
+}